@@ -0,0 +1,46 @@
+var root = document.querySelector(arguments[0]);
+var expandedClass = arguments[1];
+var indexes = arguments[2];
+var names = arguments[3];
+var expandOnly = arguments[4];
+
+function directChild(element, tagName) {
+	for (var i = 0; element && i < element.children.length; i++) {
+		if (element.children[i].tagName === tagName) {
+			return element.children[i];
+		}
+	}
+	return null;
+}
+
+function items(list) {
+	var result = [];
+	for (var i = 0; list && i < list.children.length; i++) {
+		if (list.children[i].tagName === 'LI') {
+			result.push(list.children[i]);
+		}
+	}
+	return result;
+}
+
+// verify the whole path first, so nothing is clicked on an outdated index
+var path = [];
+var list = root;
+for (var i = 0; i < indexes.length; i++) {
+	var item = items(list)[indexes[i]];
+	var link = directChild(item, 'A');
+	if (!item || (link ? link.textContent.trim() : item.textContent.trim()) !== names[i]) {
+		return false;
+	}
+	path.push(item);
+	list = directChild(item, 'UL');
+}
+for (var j = 0; j < path.length; j++) {
+	var indicator = directChild(path[j], 'I');
+	var isCollapsed = !!indicator && !indicator.classList.contains(expandedClass);
+	var isTarget = j === path.length - 1;
+	if ((isTarget && (!expandOnly || isCollapsed)) || (!isTarget && isCollapsed)) {
+		(directChild(path[j], 'A') || path[j]).click();
+	}
+}
+return true;
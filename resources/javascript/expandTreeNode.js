@@ -0,0 +1,115 @@
+var node = arguments[0];
+var isRoot = arguments[1];
+var itemSelector = arguments[2];
+var labelSelector = arguments[3];
+var toggleSelector = arguments[4];
+var groupSelector = arguments[5];
+var timeoutMillis = arguments[6];
+var done = arguments[arguments.length - 1];
+
+function owner(item) {
+	return item.parentElement ? item.parentElement.closest(itemSelector) : null;
+}
+
+function directItems() {
+	var all = node.querySelectorAll(itemSelector);
+	var result = [];
+	for (var i = 0; i < all.length; i++) {
+		var itemOwner = owner(all[i]);
+		if (isRoot ? (itemOwner === null || !node.contains(itemOwner)) : itemOwner === node) {
+			result.push(all[i]);
+		}
+	}
+	return result;
+}
+
+function group(item) {
+	var groups = item.querySelectorAll(groupSelector);
+	for (var i = 0; i < groups.length; i++) {
+		if (groups[i].closest(itemSelector) === item) {
+			return groups[i];
+		}
+	}
+	return null;
+}
+
+function label(item) {
+	return (labelSelector && item.querySelector(labelSelector)) || item;
+}
+
+function isVisible(element) {
+	return element.offsetParent !== null || element.getClientRects().length > 0;
+}
+
+function isExpanded(item) {
+	if (item.hasAttribute('aria-expanded')) {
+		return item.getAttribute('aria-expanded') === 'true';
+	}
+	var itemGroup = group(item);
+	return !!itemGroup && isVisible(itemGroup);
+}
+
+function isLeaf(item) {
+	return !item.hasAttribute('aria-expanded') && !group(item);
+}
+
+function name(item) {
+	var element = label(item);
+	if (element !== item) {
+		return element.textContent.replace(/\s+/g, ' ').trim();
+	}
+	// own text only, without the texts of the children
+	var text = '';
+	for (var i = 0; i < item.childNodes.length; i++) {
+		var child = item.childNodes[i];
+		if (child.nodeType === 3) {
+			text += child.textContent;
+		} else if (child.nodeType === 1 && !child.matches(groupSelector) && !child.querySelector(itemSelector)) {
+			text += ' ' + child.textContent;
+		}
+	}
+	return text.replace(/\s+/g, ' ').trim();
+}
+
+function read(expandedNow) {
+	var items = directItems();
+	var children = [];
+	for (var i = 0; i < items.length; i++) {
+		children.push({
+			element : items[i],
+			name : name(items[i]),
+			expanded : isExpanded(items[i]),
+			leaf : isLeaf(items[i])
+		});
+	}
+	var visible = 0;
+	var all = node.querySelectorAll(itemSelector);
+	for (var j = 0; j < all.length; j++) {
+		if (isVisible(all[j])) {
+			visible++;
+		}
+	}
+	done({
+		children : children,
+		visible : visible,
+		expandedNow : expandedNow
+	});
+}
+
+if (isRoot || isLeaf(node) || isExpanded(node)) {
+	read(false);
+} else {
+	var toggle = (toggleSelector && node.querySelector(toggleSelector)) || label(node);
+	toggle.click();
+	var start = Date.now();
+	var poll = function() {
+		// children may be loaded after expanding; an expanded node without children gets a short grace period
+		var elapsed = Date.now() - start;
+		if ((isExpanded(node) && (directItems().length > 0 || elapsed > 500)) || elapsed > timeoutMillis) {
+			read(true);
+		} else {
+			setTimeout(poll, 50);
+		}
+	};
+	poll();
+}
@@ -0,0 +1,28 @@
+var elements = arguments[0];
+var values = arguments[1];
+var actualValues = [];
+for (var i = 0; i < elements.length; i++) {
+	var element = elements[i];
+	if (element.disabled || element.readOnly) {
+		// not editable by the user either
+		actualValues.push(null);
+		continue;
+	}
+	// use the setter of the prototype, so frameworks tracking the value of the element notice the change
+	var descriptor = null;
+	for (var proto = Object.getPrototypeOf(element); proto && !descriptor; proto = Object.getPrototypeOf(proto)) {
+		descriptor = Object.getOwnPropertyDescriptor(proto, 'value');
+	}
+	element.focus();
+	if (descriptor && descriptor.set) {
+		descriptor.set.call(element, values[i]);
+	} else {
+		element.value = values[i];
+	}
+	element.dispatchEvent(new Event('input', { bubbles: true }));
+	element.dispatchEvent(new Event('change', { bubbles: true }));
+	element.blur();
+	// read back after the handlers, which may have changed the value
+	actualValues.push(element.value);
+}
+return actualValues;
@@ -0,0 +1,20 @@
+var element = arguments[0];
+var hostId = arguments[1];
+var boxStyle = arguments[2];
+var host = document.getElementById(hostId);
+if (!host) {
+	// fixed and without size, so the page layout doesn't change
+	host = document.createElement('div');
+	host.id = hostId;
+	host.style.cssText = 'position: fixed; left: 0; top: 0; width: 0; height: 0; overflow: visible;'
+			+ ' z-index: 2147483647; pointer-events: none;';
+	var root = host.attachShadow ? host.attachShadow({ mode: 'open' }) : host;
+	root.appendChild(document.createElement('div'));
+	document.documentElement.appendChild(host);
+}
+var box = (host.shadowRoot || host).firstChild;
+var rect = element.getBoundingClientRect();
+box.style.cssText = 'position: fixed; box-sizing: border-box; pointer-events: none;'
+		+ ' left: ' + rect.left + 'px; top: ' + rect.top + 'px;'
+		+ ' width: ' + rect.width + 'px; height: ' + rect.height + 'px; ' + boxStyle;
+host.style.visibility = 'visible';
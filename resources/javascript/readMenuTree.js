@@ -0,0 +1,60 @@
+var root = document.querySelector(arguments[0]);
+var expandedClass = arguments[1];
+if (!root) {
+	return null;
+}
+if (!root.__menuIndexObserver && window.MutationObserver) {
+	root.__menuIndexObserver = new MutationObserver(function() {
+		root.__menuIndexDirty = true;
+	});
+	root.__menuIndexObserver.observe(root, {
+		childList : true,
+		subtree : true,
+		characterData : true,
+		attributes : true,
+		attributeFilter : [ 'class', 'style', 'href' ]
+	});
+}
+root.__menuIndexDirty = false;
+
+function directChild(element, tagName) {
+	for (var i = 0; element && i < element.children.length; i++) {
+		if (element.children[i].tagName === tagName) {
+			return element.children[i];
+		}
+	}
+	return null;
+}
+
+function items(list) {
+	var result = [];
+	for (var i = 0; list && i < list.children.length; i++) {
+		if (list.children[i].tagName === 'LI') {
+			result.push(list.children[i]);
+		}
+	}
+	return result;
+}
+
+function read(item) {
+	var link = directChild(item, 'A');
+	var indicator = directChild(item, 'I');
+	var childItems = items(directChild(item, 'UL'));
+	var children = [];
+	for (var i = 0; i < childItems.length; i++) {
+		children.push(read(childItems[i]));
+	}
+	return {
+		name : link ? link.textContent.trim() : item.textContent.trim(),
+		href : link ? link.getAttribute('href') : null,
+		expanded : !!indicator && indicator.classList.contains(expandedClass),
+		children : children
+	};
+}
+
+var result = [];
+var rootItems = items(root);
+for (var i = 0; i < rootItems.length; i++) {
+	result.push(read(rootItems[i]));
+}
+return result;
@@ -0,0 +1,44 @@
+var table = arguments[0];
+var rowSelector = arguments[1];
+var selectedClass = arguments[2];
+var rows = table.querySelectorAll(rowSelector);
+
+function normalize(text) {
+	return text.replace(/\s+/g, ' ').trim();
+}
+
+// column major, so every column arrives as one plain list
+var columns = [];
+var texts = new Array(rows.length);
+var rowIndexes = new Array(rows.length);
+var selected = new Array(rows.length);
+for (var r = 0; r < rows.length; r++) {
+	var row = rows[r];
+	var cells = row.cells || row.children;
+	var parts = [];
+	for (var c = 0; c < cells.length; c++) {
+		if (c === columns.length) {
+			columns.push(new Array(rows.length));
+		}
+		var text = normalize(cells[c].textContent);
+		columns[c][r] = text;
+		parts.push(text);
+	}
+	texts[r] = parts.length ? parts.join(' ') : normalize(row.textContent);
+	rowIndexes[r] = typeof row.rowIndex === 'number' ? row.rowIndex : r;
+	selected[r] = (!!selectedClass && row.classList.contains(selectedClass))
+			|| row.getAttribute('aria-selected') === 'true';
+}
+for (var i = 0; i < columns.length; i++) {
+	for (var j = 0; j < rows.length; j++) {
+		if (columns[i][j] === undefined) {
+			columns[i][j] = null;
+		}
+	}
+}
+return {
+	texts : texts,
+	cells : columns,
+	rowIndexes : rowIndexes,
+	selected : selected
+};
@@ -0,0 +1,47 @@
+var viewport = arguments[0];
+var rowSelector = arguments[1];
+var keyAttribute = arguments[2];
+var selectedClass = arguments[3];
+var scrollTop = arguments[4];
+var settleMillis = arguments[5];
+var done = arguments[arguments.length - 1];
+
+function normalize(text) {
+	return text.replace(/\s+/g, ' ').trim();
+}
+
+function read() {
+	var rows = viewport.querySelectorAll(rowSelector);
+	var result = [];
+	for (var r = 0; r < rows.length; r++) {
+		var row = rows[r];
+		var cells = row.cells || row.children;
+		var texts = [];
+		for (var c = 0; c < cells.length; c++) {
+			texts.push(normalize(cells[c].textContent));
+		}
+		var text = texts.length ? texts.join(' ') : normalize(row.textContent);
+		result.push({
+			key : (keyAttribute && row.getAttribute(keyAttribute)) || text,
+			text : text,
+			cells : texts,
+			selected : (!!selectedClass && row.classList.contains(selectedClass))
+					|| row.getAttribute('aria-selected') === 'true'
+		});
+	}
+	done({
+		rows : result,
+		scrollTop : viewport.scrollTop,
+		step : viewport.clientHeight,
+		atEnd : viewport.scrollTop + viewport.clientHeight >= viewport.scrollHeight - 1
+	});
+}
+
+viewport.scrollTop = scrollTop;
+// let the grid render the rows for the new position
+var nextFrame = window.requestAnimationFrame || function(callback) {
+	return setTimeout(callback, 16);
+};
+nextFrame(function() {
+	setTimeout(read, settleMillis);
+});
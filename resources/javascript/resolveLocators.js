@@ -0,0 +1,17 @@
+var expressions = arguments[0];
+var isXPath = arguments[1];
+var elements = [];
+for (var i = 0; i < expressions.length; i++) {
+	var element = null;
+	try {
+		if (isXPath) {
+			element = document.evaluate(expressions[i], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+		} else {
+			element = document.querySelector(expressions[i]);
+		}
+	} catch (e) {
+		element = null;
+	}
+	elements.push(element);
+}
+return elements;
@@ -0,0 +1,23 @@
+var table = arguments[0];
+var rowSelector = arguments[1];
+var position = arguments[2];
+var expectedText = arguments[3];
+var row = table.querySelectorAll(rowSelector)[position];
+if (!row) {
+	return false;
+}
+var cells = row.cells || row.children;
+var parts = [];
+for (var c = 0; c < cells.length; c++) {
+	parts.push(cells[c].textContent.replace(/\s+/g, ' ').trim());
+}
+var text = parts.length ? parts.join(' ') : row.textContent.replace(/\s+/g, ' ').trim();
+if (text !== expectedText) {
+	return false;
+}
+if (row.scrollIntoView) {
+	row.scrollIntoView(false);
+}
+// the click bubbles up to the row
+(cells.length ? cells[0] : row).click();
+return true;
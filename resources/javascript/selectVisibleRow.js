@@ -0,0 +1,40 @@
+var viewport = arguments[0];
+var rowSelector = arguments[1];
+var keyAttribute = arguments[2];
+var scrollTop = arguments[3];
+var key = arguments[4];
+var settleMillis = arguments[5];
+var done = arguments[arguments.length - 1];
+
+function getKey(row, cells) {
+	if (keyAttribute && row.getAttribute(keyAttribute)) {
+		return row.getAttribute(keyAttribute);
+	}
+	var texts = [];
+	for (var c = 0; c < cells.length; c++) {
+		texts.push(cells[c].textContent.replace(/\s+/g, ' ').trim());
+	}
+	return texts.length ? texts.join(' ') : row.textContent.replace(/\s+/g, ' ').trim();
+}
+
+function select() {
+	var rows = viewport.querySelectorAll(rowSelector);
+	for (var r = 0; r < rows.length; r++) {
+		var cells = rows[r].cells || rows[r].children;
+		if (getKey(rows[r], cells) === key) {
+			// the click bubbles up to the row
+			(cells.length ? cells[0] : rows[r]).click();
+			done(true);
+			return;
+		}
+	}
+	done(false);
+}
+
+viewport.scrollTop = scrollTop;
+var nextFrame = window.requestAnimationFrame || function(callback) {
+	return setTimeout(callback, 16);
+};
+nextFrame(function() {
+	setTimeout(select, settleMillis);
+});
@@ -0,0 +1,57 @@
+var element = arguments[0];
+var maxSuggestions = arguments[1];
+var suggestions = [];
+
+function escapeCss(value) {
+	if (window.CSS && window.CSS.escape) {
+		return window.CSS.escape(value);
+	}
+	return value.replace(/([^\w-])/g, '\\$1');
+}
+
+function isUnique(selector) {
+	try {
+		var found = document.querySelectorAll(selector);
+		return found.length === 1 && found[0] === element;
+	} catch (e) {
+		return false;
+	}
+}
+
+function suggest(type, value, selector) {
+	if (suggestions.length < maxSuggestions && isUnique(selector)) {
+		suggestions.push({ type : type, value : value });
+	}
+}
+
+var tag = element.tagName.toLowerCase();
+if (element.id) {
+	suggest('id', element.id, '#' + escapeCss(element.id));
+}
+var attributes = [ 'data-testid', 'data-test', 'data-qa', 'name', 'aria-label', 'for', 'placeholder', 'title', 'href' ];
+for (var i = 0; i < attributes.length; i++) {
+	var value = element.getAttribute(attributes[i]);
+	if (value) {
+		var selector = tag + '[' + attributes[i] + '="' + value.replace(/\\/g, '\\\\').replace(/"/g, '\\"') + '"]';
+		suggest('css', selector, selector);
+	}
+}
+var classes = '';
+for (var j = 0; j < element.classList.length; j++) {
+	var classSelector = tag + '.' + escapeCss(element.classList[j]);
+	suggest('css', classSelector, classSelector);
+	classes += '.' + escapeCss(element.classList[j]);
+}
+if (classes.length > 0) {
+	suggest('css', tag + classes, tag + classes);
+}
+// anchor on the closest ancestor with an id
+var ancestor = element.parentElement;
+while (ancestor && !ancestor.id) {
+	ancestor = ancestor.parentElement;
+}
+if (ancestor) {
+	var anchored = '#' + escapeCss(ancestor.id) + ' ' + tag + classes;
+	suggest('css', anchored, anchored);
+}
+return suggestions;
@@ -1,5 +1,6 @@
 package com.whistl.selenium.pages;
 
+import java.time.Duration;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -17,8 +18,13 @@ import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.whistl.selenium.test.Logger;
+import com.whistl.selenium.util.Deadline;
+import com.whistl.selenium.util.FrameContext;
+import com.whistl.selenium.util.ImplicitWaits;
+import com.whistl.selenium.util.LocatorAnalyzer;
 import com.whistl.selenium.util.RenewableWebElement;
 import com.whistl.selenium.util.TimeUtils;
+import com.whistl.selenium.util.WindowTracker;
 
 /**
  * Abstract page class, which contains general functionality. Especially waiting
@@ -27,6 +33,8 @@ import com.whistl.selenium.util.TimeUtils;
 public abstract class AbstractPage implements IFramedPage {
 	/** Time to sleep between checks for an element. In milliseconds. */
 	private static final Long TIME_TO_SLEEP = Long.valueOf(500);
+	/** Time to sleep between checks while waiting for a fixed time. In milliseconds. */
+	private static final Long LOAD_POLLING_INTERVAL = Long.valueOf(50);
 	/** Time limit to wait for an element. 30000 ms. */
 	public static final Long WAIT_TIME_LIMIT = Long.valueOf(30000);
 	
@@ -113,8 +121,8 @@ public abstract class AbstractPage implements IFramedPage {
 	protected final void init() throws Exception {
 		preInit();
 		waitForLoad();
-		getDriver().getWindowHandle();
 		this.windowHandle = getDriver().getWindowHandle();
+		WindowTracker.of(getDriver()).register(this);
 		PageFactory.initElements(new AjaxElementLocatorFactory(getDriver(),
 				TimeUtils.getTimeInSeconds(WAIT_TIME_LIMIT).intValue()), this);
 	}
@@ -171,7 +179,7 @@ public abstract class AbstractPage implements IFramedPage {
 
 	/**
 	 * Use this method to wait for a specified time. The timeout exception is
-	 * ignored.
+	 * ignored. The wait is cut short by an active {@link Deadline}.
 	 * 
 	 * @param driver
 	 *            {@link WebDriver}
@@ -191,11 +199,12 @@ public abstract class AbstractPage implements IFramedPage {
 				return "Waiting for specific time, not verifying anything.";
 			}
 		};
-		WebDriverWait wait = new WebDriverWait(driver, TimeUtils
-				.getTimeInSeconds(time).longValue(), TimeUtils
-				.getTimeInSeconds(time).longValue());
+		// short polls, so the wait doesn't overshoot the time
+		WebDriverWait wait = new WebDriverWait(driver, 0,
+				LOAD_POLLING_INTERVAL.longValue());
 		try {
-			wait.until(eCondition);
+			// a scenario running out of time doesn't wait in full
+			waitWithinDeadline(wait, eCondition, time);
 		} catch (org.openqa.selenium.TimeoutException e) {
 			// expected. do nothing
 			Logger.logStepResult("Done waiting for " + time + " ms.", false);
@@ -234,7 +243,8 @@ public abstract class AbstractPage implements IFramedPage {
 	
 
 	/**
-	 * Static variant of the method {@link #waitForElement(By, Long)}.
+	 * Static variant of the method {@link #waitForElement(By, Long)}. The wait
+	 * is timed by the {@link LocatorAnalyzer} if it is enabled.
 	 * 
 	 * @param finder
 	 *            a {@link By} object, which defines how to find the element
@@ -282,11 +292,24 @@ public abstract class AbstractPage implements IFramedPage {
 						finder, timeout);
 			}
 		};
-		return waitForCondition(eCondition, timeout, driver);
+		if (!LocatorAnalyzer.INSTANCE.isEnabled()) {
+			return waitForCondition(eCondition, timeout, driver);
+		}
+		long start = System.nanoTime();
+		RenewableWebElement element = null;
+		try {
+			element = waitForCondition(eCondition, timeout, driver);
+			return element;
+		} finally {
+			LocatorAnalyzer.INSTANCE.record(finder, System.nanoTime() - start,
+					element, driver);
+		}
 	}
 
 	/**
-	 * Waits a certain time until the specified condition is fulfilled.
+	 * Waits a certain time until the specified condition is fulfilled. The
+	 * timeout is limited by the active {@link Deadline}, e.g. of an enclosing
+	 * wait.
 	 * 
 	 * @param eCondition
 	 *            the expected condition to wait for
@@ -302,12 +325,40 @@ public abstract class AbstractPage implements IFramedPage {
 	 */
 	public static <T> T waitForCondition(final ExpectedCondition<T> eCondition,
 			final Long timeout, final WebDriver driver) {
-		FluentWait<WebDriver> webDriverWait = new WebDriverWait(driver,
-				TimeUtils.getTimeInSeconds(timeout).longValue(),
+		FluentWait<WebDriver> webDriverWait = new WebDriverWait(driver, 0,
 				TIME_TO_SLEEP.longValue()).ignoring(TimeoutException.class,
 				WebDriverException.class);
 
-		return webDriverWait.until(eCondition);
+		return waitWithinDeadline(webDriverWait, eCondition, timeout);
+	}
+
+	/**
+	 * Wait within a {@link Deadline}: the wait ends after the timeout or when
+	 * an enclosing wait (or the scenario) runs out of time, whichever is
+	 * earlier. Waits started by the condition are limited the same way, so
+	 * nested waits don't add up. The condition is checked at least once.
+	 * 
+	 * @param wait
+	 *            wait to use; its timeout is replaced
+	 * @param eCondition
+	 *            the expected condition to wait for
+	 * @param timeout
+	 *            how much to wait till give up (in milliseconds).
+	 * @param <T>
+	 *            return object is the one returned by eCondition on successful
+	 *            execution.
+	 * @return condition return value
+	 */
+	private static <T> T waitWithinDeadline(final FluentWait<WebDriver> wait,
+			final ExpectedCondition<T> eCondition, final Long timeout) {
+		Deadline deadline = Deadline.start(timeout.longValue());
+		try {
+			return wait.withTimeout(
+					Duration.ofMillis(deadline.remainingMillis())).until(
+					eCondition);
+		} finally {
+			deadline.end();
+		}
 	}
 
 	
@@ -574,10 +625,9 @@ public abstract class AbstractPage implements IFramedPage {
 								findElementBy);
 			}
 		};
-		WebDriverWait webDriverWait = new WebDriverWait(driver, TimeUtils
-				.getTimeInSeconds(timeout).longValue(),
+		WebDriverWait webDriverWait = new WebDriverWait(driver, 0,
 				TIME_TO_SLEEP.longValue());
-		webDriverWait.until(eCondition);
+		waitWithinDeadline(webDriverWait, eCondition, timeout);
 		return driver.findElement(findElementBy).getAttribute(attributeName);
 	}
 
@@ -617,10 +667,9 @@ public abstract class AbstractPage implements IFramedPage {
 								attributeName, expectedValue, findElementBy);
 			}
 		};
-		WebDriverWait webDriverWait = new WebDriverWait(driver, TimeUtils
-				.getTimeInSeconds(timeout).longValue(),
+		WebDriverWait webDriverWait = new WebDriverWait(driver, 0,
 				TIME_TO_SLEEP.longValue());
-		webDriverWait.until(eCondition);
+		waitWithinDeadline(webDriverWait, eCondition, timeout);
 	}
 
 	/**
@@ -629,12 +678,22 @@ public abstract class AbstractPage implements IFramedPage {
 	 * 
 	 * @param findersForFrames
 	 *            {@link By} finders for subframes to reach the desired frame.
-	 *            Each finder is relative to the previous one.
+	 *            The first finder is relative to the top level document, each
+	 *            further one to the previous one.
+	 * @see FrameContext
 	 */
 	public final void switchToFrame(final By... findersForFrames) {
 		switchToFrame(getDriver(), findersForFrames);
 	}
 
+	/**
+	 * Navigate the {@link #fDriver} to the top level document, unless it is
+	 * there already.
+	 */
+	public final void switchToDefaultContent() {
+		FrameContext.of(getDriver()).switchToDefaultContent();
+	}
+
 	/**
 	 * Switch to New window by clicking to WebElement found by <b>finder</b>.
 	 * 
@@ -642,38 +701,11 @@ public abstract class AbstractPage implements IFramedPage {
 	 *            how to find the element to click on.
 	 */
 	public final void switchToNewWindowByClick(final By finder) {
-		// get current window handles
-		final Set<String> oldWindowHandles = getDriver().getWindowHandles();
+		WindowTracker tracker = WindowTracker.of(getDriver());
+		// record the handles once, then compare each check against the record
+		Set<String> oldWindowHandles = tracker.recordHandles();
 		waitForElement(finder, WAIT_TIME_LIMIT).click();
-		// get current window handles
-		// compare handles
-
-		Set<String> newWindowHandles = waitForCondition(
-				new ExpectedCondition<Set<String>>() {
-					public Set<String> apply(final WebDriver driver) {
-						Set<String> innerWindowHandles = getDriver()
-								.getWindowHandles();
-						if (innerWindowHandles.size() > oldWindowHandles.size()) {
-							return innerWindowHandles;
-						}
-						return null;
-					}
-
-					@Override
-					public String toString() {
-						return "Waiting for a new window to open.";
-					}
-				}, WAIT_TIME_LIMIT);
-
-		for (String windowHandles : newWindowHandles) {
-			if (oldWindowHandles.contains(windowHandles)) {
-				continue;
-			}
-			// switch to the new window handle
-			Logger.logStepResult("Switching to window handle [" + windowHandles
-					+ "]", false);
-			getDriver().switchTo().window(windowHandles);
-		}
+		tracker.switchToNewWindow(oldWindowHandles, WAIT_TIME_LIMIT);
 	}
 
 	/**
@@ -699,24 +731,27 @@ public abstract class AbstractPage implements IFramedPage {
 
 	/**
 	 * Static variant to navigate the {@link #fDriver} to the inner frame
-	 * defined by all parameters. First try to find the frame, then switch to
-	 * it.
+	 * defined by all parameters. Nothing is done if the frame is selected
+	 * already; frames on the way, which are selected already or have been
+	 * found before, are not looked up again. Other frames are waited for.
 	 * 
 	 * @param driver
 	 *            {@link WebDriver}
 	 * @param findersForFrames
 	 *            {@link By} finders for subframes to reach the desired frame.
-	 *            Each finder is relative to the previous one.
+	 *            The first finder is relative to the top level document, each
+	 *            further one to the previous one. None for the top level
+	 *            document.
+	 * @see FrameContext
 	 */
 	public static void switchToFrame(final WebDriver driver,
 			final By... findersForFrames) {
-		for (By finder : findersForFrames) {
-			waitForElement(finder, WAIT_TIME_LIMIT, driver);
-			driver.switchTo().frame(driver.findElement(finder));
-		}
+		FrameContext.of(driver).switchTo(findersForFrames);
 	}
 
 	/**
+	 * Set the capture mode of the current thread.
+	 *
 	 * @param captureMode
 	 *            the captureMode to set
 	 */
@@ -766,22 +801,34 @@ public abstract class AbstractPage implements IFramedPage {
 	 * @param driver
 	 *            WebDriver displaying the page
 	 * @return {@code true} if the element was immediately found on the page.
+	 *         An absent element is reported at once, without waiting the
+	 *         implicit wait.
 	 */
 	public static boolean isElementPresent(final By finder,
 			final WebDriver driver) {
-		RenewableWebElement webElement = new RenewableWebElement(driver, finder);
-		return webElement.isElementPresent();
-
+		return ImplicitWaits.INSTANCE.isPresentNow(finder, driver);
 	}
 
+	/**
+	 * This function is used to check if the element appears on the page
+	 * within the timeout. The page is checked every {@link #TIME_TO_SLEEP}
+	 * ms without implicit wait, so the timeout is kept.
+	 * 
+	 * @param finder
+	 *            how to find the element
+	 * @param timeout
+	 *            how much to wait till give up (in milliseconds).
+	 * @param driver
+	 *            WebDriver displaying the page
+	 * @return {@code true} if the element has been found within the timeout.
+	 */
 	public static boolean isElementPresent(final By finder, final Long timeout,
 			final WebDriver driver) {
-		final RenewableWebElement webElement = new RenewableWebElement(driver,
-				finder);
 		try {
 			return waitForCondition(new ExpectedCondition<Boolean>() {
 				public Boolean apply(WebDriver driver) {
-					return webElement.isElementPresent();
+					return Boolean.valueOf(ImplicitWaits.INSTANCE
+							.isPresentNow(finder, driver));
 				}
 			}, timeout, driver);
 		} catch (Exception e) {
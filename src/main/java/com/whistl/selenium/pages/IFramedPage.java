@@ -8,11 +8,12 @@ public interface IFramedPage {
 	 * Set the correct iFrame (content) as receiver for driver commands. This
 	 * method should take care of the right iFrame for the method calls. Each
 	 * page should know, which iFrame it belongs to and also take care of the
-	 * calls of this method.The intended implementation would be:<br>
-	 * {@code // clear}<br>
-	 * {@code getDriver().switchTo().defaultContent();}<br>
-	 * {@code // set to the right iFrame}<br>
+	 * calls of this method. The intended implementation would be:<br>
+	 * {@code // set to the right iFrame, starting at the top level document}<br>
 	 * {@code switchToFrame(...);}<br>
+	 * or {@code switchToDefaultContent();} for a page without iFrame. Both
+	 * are cheap if the frame is selected already, so this method can be
+	 * called before every interaction.
 	 */
 	void resetActiveIFrame();
 }
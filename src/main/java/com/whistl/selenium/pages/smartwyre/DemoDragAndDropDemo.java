@@ -12,10 +12,11 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 
 import com.whistl.selenium.pages.AbstractPage;
+import com.whistl.selenium.util.LocatorTemplate;
 
 public class DemoDragAndDropDemo extends AbstractPage {
 	private DemoMenuList demoMenuList;
-	private final static String DRAG_ELEMENT_FINDER = ".//*[@id='todrag']/span[text()='%s']";
+	private final static LocatorTemplate DRAG_ELEMENT_FINDER = LocatorTemplate.xpath(".//*[@id='todrag']/span[text()='%s']");
 	private final static By DRAGTO_FINDER = By.xpath(".//*[@id='mydropzone']");
 	private final static By DRAGGED_LIST_FINDER = By.xpath(".//*[@id='droppedlist']/span");
 
@@ -30,7 +31,7 @@ public class DemoDragAndDropDemo extends AbstractPage {
 	}
 	public void dragElementByName(String dragableElement) throws AWTException {
 
-		WebElement fromElement  = waitForElement(By.xpath(String.format(DRAG_ELEMENT_FINDER, dragableElement))).getWebElement();
+		WebElement fromElement  = waitForElement(DRAG_ELEMENT_FINDER.bind(dragableElement)).getWebElement();
 		WebElement toElement = waitForElement(DRAGTO_FINDER).getWebElement();
 
 		Actions builder = new Actions(getDriver());
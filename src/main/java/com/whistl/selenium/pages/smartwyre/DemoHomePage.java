@@ -4,7 +4,6 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.whistl.selenium.pages.AbstractPage;
 import com.whistl.selenium.util.ExpectedConditionFactory;
@@ -33,8 +32,7 @@ public class DemoHomePage extends AbstractPage {
 	
 		RenewableWebElement noThanksButton = waitForElement(NO_THANKS_BUTTON, WAIT_TIME_LIMIT);
 		
-		WebDriverWait wait = new WebDriverWait(getDriver(), WAIT_TIME_LIMIT);
-		wait.until(ExpectedConditions.elementToBeClickable(NO_THANKS_BUTTON));
+		waitForCondition(ExpectedConditions.elementToBeClickable(NO_THANKS_BUTTON), WAIT_TIME_LIMIT);
 		waitForCondition(new ExpectedCondition<Boolean>() {
 
 			@Override
@@ -1,12 +1,16 @@
 package com.whistl.selenium.pages.smartwyre;
 
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
 import org.openqa.selenium.By;
-import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 
 import com.whistl.selenium.pages.AbstractPage;
-import com.whistl.selenium.util.RenewableWebElement;
+import com.whistl.selenium.util.LocatorTemplate;
 
 public class DemoMenuList extends AbstractPage {
 	
@@ -14,6 +18,17 @@ public class DemoMenuList extends AbstractPage {
 	public static final String EXPANDED_MAIN_MENU_FINDER_TEMPLATE = ".//li[*[text()='%s']]/i[contains(@class,'glyphicon-chevron-down')]";
 	public static final String MAIN_MENU_HEADER_FINDER_TEMPLATE = ".//a[text()='%s']";
 	public static final String CLOSED_MAIN_MENU_FINDER = ".//li[*[text()='%s']]/i[contains(@class,'glyphicon-chevron-right')]";
+	public static final String SUB_MENU_HEADER_FINDER_TEMPLATE = ".//*[@id='treemenu']//a[text()='%s']";
+
+	/** Parsed {@link #EXPANDED_MAIN_MENU_FINDER_TEMPLATE}. */
+	static final LocatorTemplate EXPANDED_MAIN_MENU = LocatorTemplate.xpath(EXPANDED_MAIN_MENU_FINDER_TEMPLATE);
+	/** Parsed {@link #MAIN_MENU_HEADER_FINDER_TEMPLATE}. */
+	static final LocatorTemplate MAIN_MENU_HEADER = LocatorTemplate.xpath(MAIN_MENU_HEADER_FINDER_TEMPLATE);
+	/** Parsed {@link #CLOSED_MAIN_MENU_FINDER}. */
+	static final LocatorTemplate CLOSED_MAIN_MENU = LocatorTemplate.xpath(CLOSED_MAIN_MENU_FINDER);
+
+	/** Index of the menu; created on first use. */
+	private DemoMenuTree fMenuTree;
 
 	
 	
@@ -24,9 +39,9 @@ public class DemoMenuList extends AbstractPage {
 				"Progress Bars & Sliders"), ALERT_AND_MODELS(
 				"Alerts & Modals"),OTHERS("Others");
 
-		public static final String EXPANDED_MAIN_MENU_FINDER_TEMPLATE = ".//li[*[text()='%s']]/i[contains(@class,'glyphicon-chevron-down')]";
-		public static final String MAIN_MENU_HEADER_FINDER_TEMPLATE = ".//a[text()='%s']";
-		public static final String CLOSED_MAIN_MENU_FINDER = ".//li[*[text()='%s']]/i[contains(@class,'glyphicon-chevron-right')]";
+		public static final String EXPANDED_MAIN_MENU_FINDER_TEMPLATE = DemoMenuList.EXPANDED_MAIN_MENU_FINDER_TEMPLATE;
+		public static final String MAIN_MENU_HEADER_FINDER_TEMPLATE = DemoMenuList.MAIN_MENU_HEADER_FINDER_TEMPLATE;
+		public static final String CLOSED_MAIN_MENU_FINDER = DemoMenuList.CLOSED_MAIN_MENU_FINDER;
 	
 		
 		By expanded_main_menu_finder;
@@ -36,10 +51,10 @@ public class DemoMenuList extends AbstractPage {
 
 		private MAIN_MENU(String menuText) {
 			this.titleText = menuText;
-			this.expanded_main_menu_finder = By.xpath(String.format(EXPANDED_MAIN_MENU_FINDER_TEMPLATE,
-					menuText));
-			this.closed_main_menu_finder= By.xpath(String.format(CLOSED_MAIN_MENU_FINDER, menuText));
-			this.main_menu_finder = By.xpath(String.format(MAIN_MENU_HEADER_FINDER_TEMPLATE, menuText));
+			// the templates live in the outer class, since an enum constructor can't use its own static fields
+			this.expanded_main_menu_finder = EXPANDED_MAIN_MENU.bind(menuText);
+			this.closed_main_menu_finder = CLOSED_MAIN_MENU.bind(menuText);
+			this.main_menu_finder = MAIN_MENU_HEADER.bind(menuText);
 		}
 
 		public By getExpandedMenuFinder() {
@@ -64,7 +79,7 @@ public class DemoMenuList extends AbstractPage {
 				"Input Form Submit"), BOOT_STRAP_DATE_PICKER("Bootstrap Date Picker"), TABLE_FILTER(
 				"Table Filter"), DRAG_AND_DROP_SLIDERS("Drag & Drop Sliders"),ALERT_AND_MODELS("Alerts & Modals"),DRAG_AND_DROP("Drag and Drop");
 
-		public static final String SUB_MENU_HEADER_FINDER_TEMPLATE = ".//*[@id='treemenu']//a[text()='%s']";
+		public static final String SUB_MENU_HEADER_FINDER_TEMPLATE = DemoMenuList.SUB_MENU_HEADER_FINDER_TEMPLATE;
 	
 		
 		
@@ -73,7 +88,7 @@ public class DemoMenuList extends AbstractPage {
 
 		private SUB_MENU(String menuText) {
 			this.titleText = menuText;
-				this.sub_menu_finder = By.xpath(String.format(MAIN_MENU_HEADER_FINDER_TEMPLATE, menuText));
+				this.sub_menu_finder = MAIN_MENU_HEADER.bind(menuText);
 		}
 
 		
@@ -85,20 +100,45 @@ public class DemoMenuList extends AbstractPage {
 		}
 	}
 	
+	/**
+	 * Find the headers of all main and sub menu entries with one script call.
+	 * 
+	 * @return header elements indexed by their text. Entries not on the page are left out.
+	 */
+	public Map<String, WebElement> findMenuHeaders() {
+		Set<String> menuTexts = new LinkedHashSet<String>();
+		for (MAIN_MENU menu : MAIN_MENU.values()) {
+			menuTexts.add(menu.getSelectedTitleText());
+		}
+		for (SUB_MENU subMenu : SUB_MENU.values()) {
+			menuTexts.add(subMenu.getSelectedTitleText());
+		}
+		return MAIN_MENU_HEADER.resolveAll(getDriver(), menuTexts);
+	}
+	
+	
+	/**
+	 * Get the index of the menu. It is read on first use and again only after the menu has changed.
+	 * 
+	 * @return index of the menu
+	 */
+	public DemoMenuTree getMenuTree() {
+		if (this.fMenuTree == null) {
+			this.fMenuTree = new DemoMenuTree(getDriver());
+		}
+		return this.fMenuTree;
+	}
+	
 	
 	public void expand_all_example_header_menu(MAIN_MENU menu) {
 		
-		RenewableWebElement All_Example_Header = waitForElement(menu.main_menu_finder);
+		waitForElement(menu.main_menu_finder);
+		DemoMenuTree menuTree = getMenuTree();
+		menuTree.expandPath(menuTree.findPath(menu.getSelectedTitleText(), false));
 		waitForCondition(new ExpectedCondition<Boolean>() {
 
 			@Override
 			public Boolean apply(WebDriver driver) {
-              if(isElementPresent(menu.closed_main_menu_finder)) {
-            	  
-            	  All_Example_Header.click();
-            	  waitForLoad(3000L);
-              }
-			
               return  isElementPresent(menu.expanded_main_menu_finder);
 
 			}
@@ -110,9 +150,8 @@ public class DemoMenuList extends AbstractPage {
 	
 	public void navigate_to_sub_menu(SUB_MENU subMenu) {
 		
-		RenewableWebElement submenuEle = waitForElement(subMenu.getSubMenuFinder(),WAIT_TIME_LIMIT);
-		JavascriptExecutor executor = (JavascriptExecutor)getDriver();
-		executor.executeScript("arguments[0].click();", submenuEle.getWebElement());
+		DemoMenuTree menuTree = getMenuTree();
+		menuTree.selectByPath(menuTree.findPath(subMenu.getSelectedTitleText(), true));
 		waitForLoad(2000L);
 	}
 	
@@ -0,0 +1,485 @@
+package com.whistl.selenium.pages.smartwyre;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+
+import com.whistl.selenium.structure.ITree;
+import com.whistl.selenium.structure.ITreeRow;
+import com.whistl.selenium.structure.TreeNode;
+import com.whistl.selenium.test.Logger;
+import com.whistl.selenium.util.JavaScriptUtil;
+
+/**
+ * In-memory index of the demo side menu ({@code #treemenu}). The whole menu is read with one script call. A
+ * MutationObserver on the menu marks the index as outdated, so it is read again only after the menu has changed.<br>
+ * {@link #selectByPath(String...)} resolves the path in memory and sends one script, which verifies the path on the
+ * live page, expands the collapsed parents and clicks the entry.
+ */
+public class DemoMenuTree implements ITree<TreeNode, ITreeRow> {
+
+	/** Selector of the menu root. */
+	public static final String MENU_ROOT_SELECTOR = "#treemenu";
+	/** Class of the indicator of an expanded entry. */
+	private static final String EXPANDED_CLASS = "glyphicon-chevron-down";
+
+	/** JavaScript snippet reading the menu. Located within the project. */
+	private static final String READ_MENU_JS_FILE = "/javascript/readMenuTree.js";
+	/** JavaScript snippet clicking an entry. Located within the project. */
+	private static final String CLICK_MENU_PATH_JS_FILE = "/javascript/clickMenuPath.js";
+	/** JavaScript snippet as read from {@link #READ_MENU_JS_FILE}. */
+	private static final String READ_MENU_JS = JavaScriptUtil.loadSnippet(READ_MENU_JS_FILE);
+	/** JavaScript snippet as read from {@link #CLICK_MENU_PATH_JS_FILE}. */
+	private static final String CLICK_MENU_PATH_JS = JavaScriptUtil.loadSnippet(CLICK_MENU_PATH_JS_FILE);
+	/** JavaScript snippet checking whether the menu changed since it has been read. */
+	private static final String IS_MENU_CHANGED_JS = "var root = document.querySelector(arguments[0]);"
+			+ "return !root || root.__menuIndexDirty !== false;";
+
+	/** WebDriver displaying the menu. */
+	private final WebDriver fDriver;
+	/** Top level entries as read last time. {@code null} if not read yet. */
+	private List<MenuRow> fRootRows;
+	/** Path of the last selected entry. */
+	private String[] fSelectedPath;
+
+	/**
+	 * Constructor. The menu is read on first use.
+	 *
+	 * @param driver
+	 *            WebDriver displaying the menu
+	 */
+	public DemoMenuTree(final WebDriver driver) {
+		this.fDriver = driver;
+	}
+
+	@Override
+	public ITreeRow selectByPath(final String... elementNames) {
+		MenuRow row = click(false, elementNames);
+		this.fSelectedPath = elementNames.clone();
+		return row;
+	}
+
+	/**
+	 * Make sure the entry and all its parents are expanded. Expanded entries are not clicked.
+	 *
+	 * @param elementNames
+	 *            names of the entries, every next one being the child of the previous
+	 * @return the entry
+	 */
+	public ITreeRow expandPath(final String... elementNames) {
+		return click(true, elementNames);
+	}
+
+	/**
+	 * Find the path to the first entry with the name. Leaves are preferred, since some titles are used for a group
+	 * and an entry within it.
+	 *
+	 * @param name
+	 *            displayed name of the entry
+	 * @param preferLeaf
+	 *            {@code true} to prefer a leaf over a group with the same name
+	 * @return names from the top level down to the entry
+	 * @throws NoSuchElementException
+	 *             if the menu has no entry with the name
+	 */
+	public String[] findPath(final String name, final boolean preferLeaf) {
+		MenuRow found = null;
+		for (MenuRow row : getRows()) {
+			found = find(row, name, preferLeaf, found);
+		}
+		if (found == null) {
+			throw new NoSuchElementException("The menu has no entry [" + name + "]");
+		}
+		return found.getPath();
+	}
+
+	@Override
+	public TreeNode getTreeStructureFromPath(final String... elementNames) {
+		if (elementNames.length == 0) {
+			TreeNode root = new TreeNode();
+			root.setDisplayedName(MENU_ROOT_SELECTOR);
+			for (MenuRow row : getRows()) {
+				root.addChild(row.toTreeNode());
+			}
+			return root;
+		}
+		return resolve(getRows(), elementNames).toTreeNode();
+	}
+
+	@Override
+	public TreeNode getTreeStructureFromSelection() throws IllegalStateException {
+		if (this.fSelectedPath == null) {
+			throw new IllegalStateException("Nothing has been selected in the menu yet.");
+		}
+		return getTreeStructureFromPath(this.fSelectedPath);
+	}
+
+	@Override
+	public int getExpandedRowsCount() {
+		int count = 0;
+		for (MenuRow row : getRows()) {
+			count += row.getVisibleRowsCount();
+		}
+		return count;
+	}
+
+	/**
+	 * Forget the index, so the menu is read again on next use.
+	 */
+	public void invalidate() {
+		this.fRootRows = null;
+	}
+
+	/**
+	 * Resolve the path in memory and click it with one script. Should the page not match the index any more, the
+	 * menu is read again once.
+	 *
+	 * @param expandOnly
+	 *            {@code true} not to click the entry if it is already expanded
+	 * @param elementNames
+	 *            path of the entry
+	 * @return the entry
+	 */
+	private MenuRow click(final boolean expandOnly, final String... elementNames) {
+		if (elementNames.length == 0) {
+			throw new IllegalArgumentException("The path to a menu entry can't be empty.");
+		}
+		List<MenuRow> rows = this.fRootRows == null ? getRows() : this.fRootRows;
+		MenuRow row = resolveOrNull(rows, elementNames);
+		if (row == null || !executeClick(row, expandOnly)) {
+			Logger.logStepResult("Menu has changed. Reading it again.", false);
+			invalidate();
+			row = resolve(getRows(), elementNames);
+			if (!executeClick(row, expandOnly)) {
+				throw new NoSuchElementException("Cannot click menu entry " + Arrays.toString(elementNames));
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Send the click script.
+	 *
+	 * @param row
+	 *            entry to click
+	 * @param expandOnly
+	 *            {@code true} not to click the entry if it is already expanded
+	 * @return {@code false} if the page doesn't match the path
+	 */
+	private boolean executeClick(final MenuRow row, final boolean expandOnly) {
+		Object result = ((JavascriptExecutor) this.fDriver).executeScript(CLICK_MENU_PATH_JS, MENU_ROOT_SELECTOR,
+				EXPANDED_CLASS, row.getIndexPath(), Arrays.asList(row.getPath()), Boolean.valueOf(expandOnly));
+		return Boolean.TRUE.equals(result);
+	}
+
+	/**
+	 * Get the top level entries. The menu is read if it has not been read yet or has changed since.
+	 *
+	 * @return top level entries
+	 */
+	private List<MenuRow> getRows() {
+		if (this.fRootRows == null || Boolean.TRUE.equals(
+				((JavascriptExecutor) this.fDriver).executeScript(IS_MENU_CHANGED_JS, MENU_ROOT_SELECTOR))) {
+			this.fRootRows = read();
+		}
+		return this.fRootRows;
+	}
+
+	/**
+	 * Read the whole menu with one script call.
+	 *
+	 * @return top level entries
+	 */
+	@SuppressWarnings("unchecked")
+	private List<MenuRow> read() {
+		Object result = ((JavascriptExecutor) this.fDriver).executeScript(READ_MENU_JS, MENU_ROOT_SELECTOR,
+				EXPANDED_CLASS);
+		if (result == null) {
+			throw new NoSuchElementException("The page has no menu [" + MENU_ROOT_SELECTOR + "]");
+		}
+		List<MenuRow> rows = new ArrayList<MenuRow>();
+		int position = 0;
+		for (Map<String, Object> entry : (List<Map<String, Object>>) result) {
+			MenuRow row = new MenuRow(this, null, rows.size(), entry);
+			rows.add(row);
+			position = row.assignPositions(position, true);
+		}
+		return rows;
+	}
+
+	/**
+	 * Resolve the path in the index.
+	 *
+	 * @param rows
+	 *            top level entries
+	 * @param elementNames
+	 *            path of the entry
+	 * @return the entry
+	 * @throws NoSuchElementException
+	 *             if the path is not in the index
+	 */
+	private static MenuRow resolve(final List<MenuRow> rows, final String... elementNames) {
+		MenuRow row = resolveOrNull(rows, elementNames);
+		if (row == null) {
+			throw new NoSuchElementException("The menu has no entry " + Arrays.toString(elementNames));
+		}
+		return row;
+	}
+
+	/**
+	 * Resolve the path in the index.
+	 *
+	 * @param rows
+	 *            top level entries
+	 * @param elementNames
+	 *            path of the entry
+	 * @return the entry or {@code null} if the path is not in the index
+	 */
+	private static MenuRow resolveOrNull(final List<MenuRow> rows, final String... elementNames) {
+		List<MenuRow> candidates = rows;
+		MenuRow row = null;
+		for (String name : elementNames) {
+			row = null;
+			for (MenuRow candidate : candidates) {
+				if (candidate.getText().equals(name)) {
+					row = candidate;
+					break;
+				}
+			}
+			if (row == null) {
+				return null;
+			}
+			candidates = row.fChildren;
+		}
+		return row;
+	}
+
+	/**
+	 * Depth first search for an entry by name.
+	 *
+	 * @param row
+	 *            entry to search from
+	 * @param name
+	 *            name to find
+	 * @param preferLeaf
+	 *            {@code true} to keep searching for a leaf after a group has been found
+	 * @param found
+	 *            entry found so far
+	 * @return entry found so far
+	 */
+	private static MenuRow find(final MenuRow row, final String name, final boolean preferLeaf,
+			final MenuRow found) {
+		MenuRow result = found;
+		if (row.getText().equals(name)) {
+			if (result == null || (preferLeaf && !result.isLeaf() && row.isLeaf())) {
+				result = row;
+			}
+		}
+		if (result != null && (!preferLeaf || result.isLeaf())) {
+			return result;
+		}
+		for (MenuRow child : row.fChildren) {
+			result = find(child, name, preferLeaf, result);
+		}
+		return result;
+	}
+
+	/**
+	 * One entry of the menu as read from the page.
+	 */
+	public static final class MenuRow implements ITreeRow {
+		/** Tree the entry belongs to. */
+		private final DemoMenuTree fTree;
+		/** Parent entry; {@code null} for top level entries. */
+		private final MenuRow fParent;
+		/** Position among the siblings. */
+		private final int fIndex;
+		/** Displayed name. */
+		private final String fText;
+		/** Link target; {@code null} for groups without link. */
+		private final String fHref;
+		/** Was the entry expanded when read? */
+		private final boolean isExpanded;
+		/** Child entries. */
+		private final List<MenuRow> fChildren;
+		/** Position among the visible entries; -1 if hidden by a collapsed parent. */
+		private int fPosition = -1;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param tree
+		 *            tree the entry belongs to
+		 * @param parent
+		 *            parent entry
+		 * @param index
+		 *            position among the siblings
+		 * @param entry
+		 *            entry as returned by the read script
+		 */
+		@SuppressWarnings("unchecked")
+		MenuRow(final DemoMenuTree tree, final MenuRow parent, final int index, final Map<String, Object> entry) {
+			this.fTree = tree;
+			this.fParent = parent;
+			this.fIndex = index;
+			this.fText = String.valueOf(entry.get("name"));
+			this.fHref = (String) entry.get("href");
+			this.isExpanded = Boolean.TRUE.equals(entry.get("expanded"));
+			List<Map<String, Object>> children = (List<Map<String, Object>>) entry.get("children");
+			if (children == null || children.isEmpty()) {
+				this.fChildren = Collections.emptyList();
+			} else {
+				List<MenuRow> childRows = new ArrayList<MenuRow>(children.size());
+				for (Map<String, Object> child : children) {
+					childRows.add(new MenuRow(tree, this, childRows.size(), child));
+				}
+				this.fChildren = childRows;
+			}
+		}
+
+		/**
+		 * Number the visible entries in display order.
+		 *
+		 * @param position
+		 *            next free position
+		 * @param isVisible
+		 *            {@code true} if all parents are expanded
+		 * @return next free position after this entry and its children
+		 */
+		int assignPositions(final int position, final boolean isVisible) {
+			int next = position;
+			if (isVisible) {
+				this.fPosition = next++;
+			}
+			for (MenuRow child : this.fChildren) {
+				next = child.assignPositions(next, isVisible && this.isExpanded);
+			}
+			return next;
+		}
+
+		/**
+		 * @return number of visible entries from this one down
+		 */
+		int getVisibleRowsCount() {
+			int count = 1;
+			if (this.isExpanded) {
+				for (MenuRow child : this.fChildren) {
+					count += child.getVisibleRowsCount();
+				}
+			}
+			return count;
+		}
+
+		/**
+		 * @return names from the top level down to this entry
+		 */
+		public String[] getPath() {
+			int depth = 0;
+			for (MenuRow row = this; row != null; row = row.fParent) {
+				depth++;
+			}
+			String[] path = new String[depth];
+			for (MenuRow row = this; row != null; row = row.fParent) {
+				path[--depth] = row.fText;
+			}
+			return path;
+		}
+
+		/**
+		 * @return positions among the siblings from the top level down to this entry
+		 */
+		List<Integer> getIndexPath() {
+			List<Integer> indexes = new ArrayList<Integer>();
+			for (MenuRow row = this; row != null; row = row.fParent) {
+				indexes.add(0, Integer.valueOf(row.fIndex));
+			}
+			return indexes;
+		}
+
+		/**
+		 * @return copy of the entry and its children
+		 */
+		TreeNode toTreeNode() {
+			TreeNode node = new TreeNode();
+			node.setDisplayedName(this.fText);
+			for (MenuRow child : this.fChildren) {
+				node.addChild(child.toTreeNode());
+			}
+			return node;
+		}
+
+		/**
+		 * @return link target; {@code null} for groups without link
+		 */
+		public String getHref() {
+			return this.fHref;
+		}
+
+		@Override
+		public String getText() {
+			return this.fText;
+		}
+
+		@Override
+		public void select() {
+			this.fTree.selectByPath(getPath());
+		}
+
+		/**
+		 * A leaf is selected if the browser shows its link target.
+		 */
+		@Override
+		public boolean isSelected() {
+			return this.fHref != null && this.fHref.length() > 1
+					&& this.fTree.fDriver.getCurrentUrl().endsWith(this.fHref.replaceFirst("^\\./", ""));
+		}
+
+		@Override
+		public ITreeRow getNextRow() throws IllegalAccessError {
+			if (this.isExpanded && !this.fChildren.isEmpty()) {
+				return this.fChildren.get(0);
+			}
+			for (MenuRow row = this; row != null; row = row.fParent) {
+				List<MenuRow> siblings = row.fParent == null ? this.fTree.fRootRows : row.fParent.fChildren;
+				if (siblings != null && row.fIndex + 1 < siblings.size()) {
+					return siblings.get(row.fIndex + 1);
+				}
+			}
+			throw new IllegalAccessError("[" + this.fText + "] is the last entry of the menu.");
+		}
+
+		@Override
+		public int getTablePositionCounter() {
+			return this.fPosition;
+		}
+
+		@Override
+		public void expandTree() {
+			this.fTree.expandPath(getPath());
+		}
+
+		/**
+		 * State when the menu has been read.
+		 */
+		@Override
+		public boolean isExpanded() {
+			return this.isExpanded;
+		}
+
+		@Override
+		public boolean isLeaf() {
+			return this.fChildren.isEmpty();
+		}
+
+		@Override
+		public String toString() {
+			return Arrays.toString(getPath());
+		}
+	}
+}
@@ -9,12 +9,17 @@ import org.openqa.selenium.WebElement;
 
 import com.whistl.selenium.pages.AbstractPage;
 import com.whistl.selenium.util.EnterTextUtils;
+import com.whistl.selenium.util.LocatorTemplate;
 import com.whistl.selenium.util.RenewableWebElement;
 
 public class GoogleHomePage extends AbstractPage {
 
 	public static final By SEARCH_INPUT_TEXT_FINDER = By.xpath(".//input[@name='q']");
 	public static final String SEARCH_LIST = ".//ul[@role='listbox']/li[%s]//div[@class='aypzV']";
+	/** Parsed {@link #SEARCH_LIST}. */
+	private static final LocatorTemplate SEARCH_LIST_FINDER = LocatorTemplate.xpath(SEARCH_LIST);
+	/** All search results. */
+	private static final By ALL_SEARCH_RESULTS_FINDER = SEARCH_LIST_FINDER.bind("*");
 	
 
 	public GoogleHomePage(AbstractPage parentPage) throws Exception {
@@ -30,7 +35,7 @@ public class GoogleHomePage extends AbstractPage {
 	
 	public List<String> getSearchResultsList(){
 		List<String> searchResultText = new ArrayList<String>();
-		List<WebElement> searchResults=   getDriver().findElements(By.xpath(String.format(SEARCH_LIST, "*")));;
+		List<WebElement> searchResults=   getDriver().findElements(ALL_SEARCH_RESULTS_FINDER);
        
 		int length = searchResults.size();
 		for (int i =0 ; i< length;i++) {
@@ -42,7 +47,7 @@ public class GoogleHomePage extends AbstractPage {
 	
 	
 	public void clickOnNthSearchResult(int i) {
-		RenewableWebElement nthSearchResult =waitForElement(By.xpath(String.format(SEARCH_LIST, i)));
+		RenewableWebElement nthSearchResult =waitForElement(SEARCH_LIST_FINDER.bind(Integer.valueOf(i)));
 		nthSearchResult.click();
 	}
 	
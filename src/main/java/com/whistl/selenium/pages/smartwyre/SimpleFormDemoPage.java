@@ -1,10 +1,13 @@
 package com.whistl.selenium.pages.smartwyre;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
 import com.whistl.selenium.pages.AbstractPage;
-import com.whistl.selenium.util.EnterTextUtils;
+import com.whistl.selenium.util.FormFiller;
 
 public class SimpleFormDemoPage extends AbstractPage {
 
@@ -23,7 +26,7 @@ public class SimpleFormDemoPage extends AbstractPage {
 	
 	
 	public void enterInputMessage(String inputMessage) {
-		EnterTextUtils.enterInput(inputMessage, "Entered Message is "+ inputMessage, "Input Message is "+ inputMessage, INPUT_FIELD_FINDER, getDriver());
+		new FormFiller(getDriver()).set(INPUT_FIELD_FINDER, inputMessage).fill("Input Message is " + inputMessage);
 	}
 	
 	
@@ -36,9 +39,10 @@ public class SimpleFormDemoPage extends AbstractPage {
 	
 	public void enterValueInBothInputBox(int a, int b) {
 		
-		EnterTextUtils.enterInput(Integer.toString(a), "Entered String Value is "+Integer.toString(a) , "Entered Value", SUM1_FINDER, getDriver());
-	
-		EnterTextUtils.enterInput(Integer.toString(b), "Entered String Value is "+Integer.toString(b) , "Entered Value", SUM2_FINDER, getDriver());
+		Map<By, String> values = new LinkedHashMap<By, String>();
+		values.put(SUM1_FINDER, Integer.toString(a));
+		values.put(SUM2_FINDER, Integer.toString(b));
+		new FormFiller(getDriver()).setAll(values).fill("Entered Value");
 
 		waitForElement(GET_TOTAL_FINDER, WAIT_TIME_LIMIT).click();
 		
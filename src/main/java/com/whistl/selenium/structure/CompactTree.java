@@ -0,0 +1,336 @@
+package com.whistl.selenium.structure;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Memory compact storage for large trees, e.g. scraped from an application with tens of thousands of nodes. All nodes
+ * live in flat arrays (parent, first child, last child and next sibling indexes); the displayed names are kept once in
+ * a name pool. {@link CompactTreeNode} objects are light views created on demand, so the tree itself doesn't hold one
+ * object per node.<br>
+ * Usage:<br>
+ * {@code CompactTree tree = new CompactTree();}<br>
+ * {@code CompactTreeNode root = tree.createNode("root");}<br>
+ * {@code root.addChild(tree.createNode("child"));}<br>
+ * Appending a child through {@link CompactTreeNode#addChild(CompactTreeNode)} checks that the child is not the root of
+ * the parent's tree, which costs one step per level of the parent. Builders within this package, like
+ * {@link #copyOf(ITreeNode)} and {@link TreeSnapshot#readCompact(java.io.InputStream)}, only append new nodes and skip
+ * that check, so they append in O(1). None of the methods recurses, so deep trees can't overflow the stack.
+ */
+public class CompactTree {
+
+	/** Marks a missing node. */
+	static final int NONE = -1;
+	/** Initial number of nodes. */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** Parent of each node. */
+	private int[] fParents;
+	/** First child of each node. */
+	private int[] fFirstChildren;
+	/** Last child of each node; makes appending a child O(1). */
+	private int[] fLastChildren;
+	/** Next sibling of each node. */
+	private int[] fNextSiblings;
+	/** Index of the displayed name of each node within {@link #fNames}. */
+	private int[] fNameRefs;
+	/** Number of nodes. */
+	private int fSize;
+	/** Node added to a parent last. */
+	private int fLastAdded = NONE;
+
+	/** Distinct displayed names. */
+	private String[] fNames = new String[INITIAL_CAPACITY];
+	/** Displayed name to its index within {@link #fNames}. */
+	private final Map<String, Integer> fNameIds = new HashMap<String, Integer>();
+
+	/**
+	 * Constructor.
+	 */
+	public CompactTree() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param expectedSize
+	 *            expected number of nodes
+	 */
+	public CompactTree(final int expectedSize) {
+		int capacity = Math.max(expectedSize, 1);
+		this.fParents = new int[capacity];
+		this.fFirstChildren = new int[capacity];
+		this.fLastChildren = new int[capacity];
+		this.fNextSiblings = new int[capacity];
+		this.fNameRefs = new int[capacity];
+	}
+
+	/**
+	 * Copy a tree, e.g. a {@link TreeNode} structure.
+	 *
+	 * @param root
+	 *            root of the tree to copy
+	 * @param <K>
+	 *            node type of the copied tree
+	 * @return root of the copy
+	 */
+	public static <K extends ITreeNode<K>> CompactTreeNode copyOf(final K root) {
+		CompactTree tree = new CompactTree();
+		CompactTreeNode copy = tree.createNode(root.getDisplayedName());
+		// children still to copy and the copy of their parent, per level
+		Deque<Iterator<K>> pending = new ArrayDeque<Iterator<K>>();
+		Deque<CompactTreeNode> targets = new ArrayDeque<CompactTreeNode>();
+		pending.push(root.getChildren().iterator());
+		targets.push(copy);
+		while (!pending.isEmpty()) {
+			Iterator<K> children = pending.peek();
+			if (!children.hasNext()) {
+				pending.pop();
+				targets.pop();
+				continue;
+			}
+			K child = children.next();
+			CompactTreeNode childCopy = tree.createNode(child.getDisplayedName());
+			targets.peek().appendChild(childCopy);
+			pending.push(child.getChildren().iterator());
+			targets.push(childCopy);
+		}
+		return copy;
+	}
+
+	/**
+	 * Create a node without parent.
+	 *
+	 * @param displayedName
+	 *            displayed name
+	 * @return the node
+	 */
+	public CompactTreeNode createNode(final String displayedName) {
+		if (this.fSize == this.fParents.length) {
+			grow();
+		}
+		int node = this.fSize++;
+		this.fParents[node] = NONE;
+		this.fFirstChildren[node] = NONE;
+		this.fLastChildren[node] = NONE;
+		this.fNextSiblings[node] = NONE;
+		this.fNameRefs[node] = getNameRef(displayedName);
+		return new CompactTreeNode(this, node);
+	}
+
+	/**
+	 * @return number of nodes
+	 */
+	public int size() {
+		return this.fSize;
+	}
+
+	/**
+	 * @return number of distinct displayed names
+	 */
+	public int getNameCount() {
+		return this.fNameIds.size();
+	}
+
+	/**
+	 * Get the node added to a parent last, in O(1). For a tree built top down this is the node the next one is
+	 * usually related to.
+	 *
+	 * @return last added node or {@code null} if no node has been added to a parent yet
+	 */
+	public CompactTreeNode getLastAddedNode() {
+		return this.fLastAdded == NONE ? null : new CompactTreeNode(this, this.fLastAdded);
+	}
+
+	/**
+	 * Get a node.
+	 *
+	 * @param node
+	 *            index of the node
+	 * @return view of the node or {@code null} for {@link #NONE}
+	 */
+	CompactTreeNode getNode(final int node) {
+		return node == NONE ? null : new CompactTreeNode(this, node);
+	}
+
+	/**
+	 * Append the child to the children of the parent. Since the child has no parent, it can only be an ancestor of the
+	 * parent if it is the root of the parent's tree; checking that costs one step per level of the parent.
+	 *
+	 * @param parent
+	 *            index of the parent
+	 * @param child
+	 *            index of the child
+	 */
+	void addChild(final int parent, final int child) {
+		checkNoParent(child);
+		int root = parent;
+		while (this.fParents[root] != NONE) {
+			root = this.fParents[root];
+		}
+		if (root == child) {
+			throw new IllegalArgumentException("[" + getName(child) + "] can't be a child of its descendant ["
+					+ getName(parent) + "].");
+		}
+		appendChild(parent, child);
+	}
+
+	/**
+	 * Append the child to the children of the parent in O(1), without checking for a cycle. Meant for builders, which
+	 * only append nodes created for the purpose.
+	 *
+	 * @param parent
+	 *            index of the parent
+	 * @param child
+	 *            index of the child; must not be the root of the parent's tree
+	 */
+	void appendChild(final int parent, final int child) {
+		checkNoParent(child);
+		this.fParents[child] = parent;
+		if (this.fLastChildren[parent] == NONE) {
+			this.fFirstChildren[parent] = child;
+		} else {
+			this.fNextSiblings[this.fLastChildren[parent]] = child;
+		}
+		this.fLastChildren[parent] = child;
+		this.fLastAdded = child;
+	}
+
+	/**
+	 * @param node
+	 *            index of the node
+	 * @return index of the parent
+	 */
+	int getParent(final int node) {
+		return this.fParents[node];
+	}
+
+	/**
+	 * @param node
+	 *            index of the node
+	 * @return index of the first child
+	 */
+	int getFirstChild(final int node) {
+		return this.fFirstChildren[node];
+	}
+
+	/**
+	 * @param node
+	 *            index of the node
+	 * @return index of the last child
+	 */
+	int getLastChild(final int node) {
+		return this.fLastChildren[node];
+	}
+
+	/**
+	 * @param node
+	 *            index of the node
+	 * @return index of the next sibling
+	 */
+	int getNextSibling(final int node) {
+		return this.fNextSiblings[node];
+	}
+
+	/**
+	 * @param node
+	 *            index of the node
+	 * @return displayed name
+	 */
+	String getName(final int node) {
+		int nameRef = this.fNameRefs[node];
+		return nameRef == NONE ? null : this.fNames[nameRef];
+	}
+
+	/**
+	 * @param node
+	 *            index of the node
+	 * @param displayedName
+	 *            displayed name
+	 */
+	void setName(final int node, final String displayedName) {
+		this.fNameRefs[node] = getNameRef(displayedName);
+	}
+
+	/**
+	 * Print the node and everything below it in the format of {@link TreeNode#toString()}: one line per node, indented
+	 * with one {@code -} per level. Works without recursion, so deep trees can't overflow the stack.
+	 *
+	 * @param node
+	 *            index of the node
+	 * @return printed structure
+	 */
+	String print(final int node) {
+		StringBuilder sb = new StringBuilder(32 * Math.min(this.fSize, 1024));
+		sb.append(getName(node)).append('\n');
+		int depth = 1;
+		int current = this.fFirstChildren[node];
+		while (current != NONE) {
+			for (int i = 0; i < depth; i++) {
+				sb.append('-');
+			}
+			sb.append(getName(current)).append('\n');
+			if (this.fFirstChildren[current] != NONE) {
+				current = this.fFirstChildren[current];
+				depth++;
+				continue;
+			}
+			// climb up until a node has a next sibling, but not above the printed node
+			while (current != node && this.fNextSiblings[current] == NONE) {
+				current = this.fParents[current];
+				depth--;
+			}
+			current = current == node ? NONE : this.fNextSiblings[current];
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @param node
+	 *            index of the node to append
+	 */
+	private void checkNoParent(final int node) {
+		if (this.fParents[node] != NONE) {
+			throw new IllegalStateException("[" + getName(node) + "] has already a parent.");
+		}
+	}
+
+	/**
+	 * @param displayedName
+	 *            displayed name
+	 * @return index of the name within the pool; added if new
+	 */
+	private int getNameRef(final String displayedName) {
+		if (displayedName == null) {
+			return NONE;
+		}
+		Integer nameRef = this.fNameIds.get(displayedName);
+		if (nameRef == null) {
+			int size = this.fNameIds.size();
+			if (size == this.fNames.length) {
+				this.fNames = Arrays.copyOf(this.fNames, size * 2);
+			}
+			this.fNames[size] = displayedName;
+			nameRef = Integer.valueOf(size);
+			this.fNameIds.put(displayedName, nameRef);
+		}
+		return nameRef.intValue();
+	}
+
+	/**
+	 * Double the capacity.
+	 */
+	private void grow() {
+		int capacity = this.fParents.length * 2;
+		this.fParents = Arrays.copyOf(this.fParents, capacity);
+		this.fFirstChildren = Arrays.copyOf(this.fFirstChildren, capacity);
+		this.fLastChildren = Arrays.copyOf(this.fLastChildren, capacity);
+		this.fNextSiblings = Arrays.copyOf(this.fNextSiblings, capacity);
+		this.fNameRefs = Arrays.copyOf(this.fNameRefs, capacity);
+	}
+}
@@ -0,0 +1,200 @@
+package com.whistl.selenium.structure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Node of a {@link CompactTree}. The node is a view on the arrays of the tree; two views on the same node are equal.
+ */
+public final class CompactTreeNode implements ITreeNode<CompactTreeNode> {
+
+	/** Tree holding the node. */
+	private final CompactTree fTree;
+	/** Index of the node within the tree. */
+	private final int fIndex;
+
+	/**
+	 * Constructor. Use {@link CompactTree#createNode(String)}.
+	 *
+	 * @param tree
+	 *            tree holding the node
+	 * @param index
+	 *            index of the node within the tree
+	 */
+	CompactTreeNode(final CompactTree tree, final int index) {
+		this.fTree = tree;
+		this.fIndex = index;
+	}
+
+	/**
+	 * @return tree holding the node
+	 */
+	public CompactTree getTree() {
+		return this.fTree;
+	}
+
+	/**
+	 * The list is created on each call; prefer {@link #getFirstChild()} and {@link #getNextSibling()} for large
+	 * trees.
+	 */
+	@Override
+	public List<CompactTreeNode> getChildren() {
+		int child = this.fTree.getFirstChild(this.fIndex);
+		if (child == CompactTree.NONE) {
+			return Collections.emptyList();
+		}
+		List<CompactTreeNode> children = new ArrayList<CompactTreeNode>();
+		for (; child != CompactTree.NONE; child = this.fTree.getNextSibling(child)) {
+			children.add(new CompactTreeNode(this.fTree, child));
+		}
+		return children;
+	}
+
+	/**
+	 * @return first child or {@code null} if there are no children
+	 */
+	public CompactTreeNode getFirstChild() {
+		return this.fTree.getNode(this.fTree.getFirstChild(this.fIndex));
+	}
+
+	/**
+	 * @return next sibling or {@code null} if this is the last child
+	 */
+	public CompactTreeNode getNextSibling() {
+		return this.fTree.getNode(this.fTree.getNextSibling(this.fIndex));
+	}
+
+	/**
+	 * The child must be a node of the same tree without parent.
+	 */
+	@Override
+	public void addChild(final CompactTreeNode child) {
+		checkSameTree(child);
+		this.fTree.addChild(this.fIndex, child.fIndex);
+	}
+
+	/**
+	 * Append the child like {@link #addChild(CompactTreeNode)} does, in O(1) without checking for a cycle. For
+	 * builders within this package.
+	 *
+	 * @param child
+	 *            new node of the same tree without parent
+	 */
+	void appendChild(final CompactTreeNode child) {
+		this.fTree.appendChild(this.fIndex, child.fIndex);
+	}
+
+	@Override
+	public String getDisplayedName() {
+		return this.fTree.getName(this.fIndex);
+	}
+
+	@Override
+	public void setDisplayedName(final String displayedName) {
+		this.fTree.setName(this.fIndex, displayedName);
+	}
+
+	@Override
+	public boolean hasChildren() {
+		return this.fTree.getFirstChild(this.fIndex) != CompactTree.NONE;
+	}
+
+	@Override
+	public CompactTreeNode getParent() {
+		return this.fTree.getNode(this.fTree.getParent(this.fIndex));
+	}
+
+	/**
+	 * Same as {@code parent.addChild(this)}. A node can't be moved to another parent.
+	 */
+	@Override
+	public void setParent(final CompactTreeNode parent) {
+		checkSameTree(parent);
+		if (this.fTree.getParent(this.fIndex) != parent.fIndex) {
+			this.fTree.addChild(parent.fIndex, this.fIndex);
+		}
+	}
+
+	@Override
+	public CompactTreeNode getLastChild() {
+		return this.fTree.getNode(this.fTree.getLastChild(this.fIndex));
+	}
+
+	/**
+	 * Follows the last children down like {@link TreeNode#getLastAddedNode()}, without creating any lists. Use
+	 * {@link CompactTree#getLastAddedNode()} for the node added last to the whole tree.
+	 */
+	@Override
+	public CompactTreeNode getLastAddedNode() {
+		int lastAdded = CompactTree.NONE;
+		for (int child = this.fTree.getLastChild(this.fIndex); child != CompactTree.NONE; child = this.fTree
+				.getLastChild(child)) {
+			lastAdded = child;
+		}
+		return this.fTree.getNode(lastAdded);
+	}
+
+	/**
+	 * Copy the node and everything below it into {@link TreeNode} objects. Works without recursion, so deep trees
+	 * can't overflow the stack.
+	 *
+	 * @return root of the copy
+	 */
+	public TreeNode toTreeNode() {
+		TreeNode copy = new TreeNode();
+		copy.setDisplayedName(getDisplayedName());
+		// copy of the parent of the current node
+		TreeNode parentCopy = copy;
+		int current = this.fTree.getFirstChild(this.fIndex);
+		while (current != CompactTree.NONE) {
+			TreeNode childCopy = new TreeNode();
+			childCopy.setDisplayedName(this.fTree.getName(current));
+			parentCopy.addChild(childCopy);
+			if (this.fTree.getFirstChild(current) != CompactTree.NONE) {
+				current = this.fTree.getFirstChild(current);
+				parentCopy = childCopy;
+				continue;
+			}
+			// climb up until a node has a next sibling, but not above the copied node
+			while (current != this.fIndex && this.fTree.getNextSibling(current) == CompactTree.NONE) {
+				current = this.fTree.getParent(current);
+				parentCopy = parentCopy.getParent();
+			}
+			current = current == this.fIndex ? CompactTree.NONE : this.fTree.getNextSibling(current);
+		}
+		return copy;
+	}
+
+	/**
+	 * @param node
+	 *            node to check
+	 */
+	private void checkSameTree(final CompactTreeNode node) {
+		if (node.fTree != this.fTree) {
+			throw new IllegalArgumentException("[" + node.getDisplayedName() + "] belongs to another tree.");
+		}
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CompactTreeNode)) {
+			return false;
+		}
+		CompactTreeNode other = (CompactTreeNode) obj;
+		return this.fTree == other.fTree && this.fIndex == other.fIndex;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * System.identityHashCode(this.fTree) + this.fIndex;
+	}
+
+	@Override
+	public String toString() {
+		return this.fTree.print(this.fIndex);
+	}
+}
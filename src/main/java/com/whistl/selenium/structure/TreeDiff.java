@@ -0,0 +1,353 @@
+package com.whistl.selenium.structure;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two tree structures, e.g. a {@link TreeSnapshot} taken before and the tree shown now. Every node gets a
+ * hash over its name and the hashes of its children (Merkle tree), so equal subtrees are recognised by one comparison
+ * and skipped; only the changed branches are visited and reported.<br>
+ * Children are matched by their displayed name; siblings with the same name are matched in order. An added or removed
+ * subtree is reported once at its root.
+ */
+public final class TreeDiff {
+
+	/** FNV-1a offset basis. */
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	/** FNV-1a prime. */
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * Kind of a change.
+	 */
+	public enum ChangeType {
+		/** The subtree exists only in the new tree. */
+		ADDED,
+		/** The subtree exists only in the old tree. */
+		REMOVED,
+		/** The node has the same children, but in another order. */
+		REORDERED
+	}
+
+	/**
+	 * Utility class.
+	 */
+	private TreeDiff() {
+	}
+
+	/**
+	 * Compare the trees.
+	 *
+	 * @param oldRoot
+	 *            root of the old tree
+	 * @param newRoot
+	 *            root of the new tree
+	 * @param <A>
+	 *            node type of the old tree
+	 * @param <B>
+	 *            node type of the new tree
+	 * @return changes in depth first order; empty if the trees are equal
+	 */
+	public static <A extends ITreeNode<A>, B extends ITreeNode<B>> List<Change> diff(final A oldRoot,
+			final B newRoot) {
+		// not an IdentityHashMap: CompactTreeNode views are equal, but not the same
+		Map<A, Long> oldHashes = new HashMap<A, Long>();
+		Map<B, Long> newHashes = new HashMap<B, Long>();
+		long oldHash = hash(oldRoot, oldHashes);
+		long newHash = hash(newRoot, newHashes);
+		if (oldHash == newHash) {
+			return Collections.emptyList();
+		}
+		List<Change> changes = new ArrayList<Change>();
+		List<String> path = new ArrayList<String>();
+		if (!equal(oldRoot.getDisplayedName(), newRoot.getDisplayedName())) {
+			// different roots can't be matched
+			changes.add(new Change(ChangeType.REMOVED, path, oldRoot.getDisplayedName()));
+			changes.add(new Change(ChangeType.ADDED, path, newRoot.getDisplayedName()));
+			return changes;
+		}
+		compare(oldRoot, newRoot, oldHashes, newHashes, path, changes);
+		return changes;
+	}
+
+	/**
+	 * Compute the hash of the subtree: the node's name, followed by the hashes of its children in order. The subtree is
+	 * walked without recursion, so deep trees can't overflow the stack.
+	 *
+	 * @param root
+	 *            root of the subtree
+	 * @param hashes
+	 *            computed hashes of all nodes of the subtree
+	 * @param <K>
+	 *            node type
+	 * @return hash of the subtree
+	 */
+	public static <K extends ITreeNode<K>> long hash(final K root, final Map<K, Long> hashes) {
+		// nodes whose children are still being hashed, innermost first
+		Deque<HashFrame<K>> pending = new ArrayDeque<HashFrame<K>>();
+		pending.push(new HashFrame<K>(root));
+		long hash = 0L;
+		while (!pending.isEmpty()) {
+			HashFrame<K> frame = pending.peek();
+			if (frame.children.hasNext()) {
+				pending.push(new HashFrame<K>(frame.children.next()));
+				continue;
+			}
+			// all children done: post-order
+			pending.pop();
+			hash = mix(frame.hash);
+			hashes.put(frame.node, Long.valueOf(hash));
+			HashFrame<K> parent = pending.peek();
+			if (parent != null) {
+				parent.hash = (parent.hash ^ hash) * FNV_PRIME;
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Compare the children of two nodes with the same name but different hashes, and so on down all changed branches.
+	 * The branches are walked without recursion, so deep trees can't overflow the stack.
+	 *
+	 * @param oldRoot
+	 *            node of the old tree
+	 * @param newRoot
+	 *            node of the new tree
+	 * @param oldHashes
+	 *            hashes of the old tree
+	 * @param newHashes
+	 *            hashes of the new tree
+	 * @param path
+	 *            names from the root down to the nodes
+	 * @param changes
+	 *            found changes
+	 * @param <A>
+	 *            node type of the old tree
+	 * @param <B>
+	 *            node type of the new tree
+	 */
+	private static <A extends ITreeNode<A>, B extends ITreeNode<B>> void compare(final A oldRoot, final B newRoot,
+			final Map<A, Long> oldHashes, final Map<B, Long> newHashes, final List<String> path,
+			final List<Change> changes) {
+		// node pairs whose children are still being compared, innermost first
+		Deque<CompareFrame<A, B>> pending = new ArrayDeque<CompareFrame<A, B>>();
+		pending.push(new CompareFrame<A, B>(oldRoot, newRoot, changes.size()));
+		path.add(newRoot.getDisplayedName());
+		while (!pending.isEmpty()) {
+			CompareFrame<A, B> frame = pending.peek();
+			if (frame.newChildren.hasNext()) {
+				B child = frame.newChildren.next();
+				A oldChild = frame.oldChildren.remove(getMatchKey(child.getDisplayedName(), frame.occurrences));
+				if (oldChild == null) {
+					changes.add(new Change(ChangeType.ADDED, path, child.getDisplayedName()));
+				} else if (!oldHashes.get(oldChild).equals(newHashes.get(child))) {
+					pending.push(new CompareFrame<A, B>(oldChild, child, changes.size()));
+					path.add(child.getDisplayedName());
+				}
+				continue;
+			}
+			pending.pop();
+			for (A oldChild : frame.oldChildren.values()) {
+				changes.add(new Change(ChangeType.REMOVED, path, oldChild.getDisplayedName()));
+			}
+			path.remove(path.size() - 1);
+			if (changes.size() == frame.changeCount) {
+				// same children, different hash: only the order differs
+				changes.add(new Change(ChangeType.REORDERED, path, frame.newNode.getDisplayedName()));
+			}
+		}
+	}
+
+	/**
+	 * @param name
+	 *            displayed name
+	 * @param occurrences
+	 *            number of siblings with the name seen so far
+	 * @return key matching the n-th sibling of a name to the n-th sibling with that name in the other tree
+	 */
+	private static String getMatchKey(final String name, final Map<String, Integer> occurrences) {
+		String key = String.valueOf(name);
+		Integer occurrence = occurrences.get(key);
+		int count = occurrence == null ? 0 : occurrence.intValue();
+		occurrences.put(key, Integer.valueOf(count + 1));
+		return count == 0 ? key : key + '\u0000' + count;
+	}
+
+	/**
+	 * @param name
+	 *            displayed name
+	 * @return FNV-1a hash of the name
+	 */
+	private static long hashName(final String name) {
+		if (name == null) {
+			return 0L;
+		}
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < name.length(); i++) {
+			hash = (hash ^ name.charAt(i)) * FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * Spread the bits (finaliser of MurmurHash3), so similar subtrees get very different hashes.
+	 *
+	 * @param hash
+	 *            hash to mix
+	 * @return mixed hash
+	 */
+	private static long mix(final long hash) {
+		long h = hash;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * @param a
+	 *            first name
+	 * @param b
+	 *            second name
+	 * @return {@code true} if both are {@code null} or equal
+	 */
+	private static boolean equal(final String a, final String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	/**
+	 * Node whose subtree hash is being computed.
+	 *
+	 * @param <K>
+	 *            node type
+	 */
+	private static final class HashFrame<K extends ITreeNode<K>> {
+		/** The node. */
+		private final K node;
+		/** Children not hashed yet. */
+		private final Iterator<K> children;
+		/** Hash of the name and the children hashed so far. */
+		private long hash;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param treeNode
+		 *            the node
+		 */
+		HashFrame(final K treeNode) {
+			this.node = treeNode;
+			this.children = treeNode.getChildren().iterator();
+			this.hash = hashName(treeNode.getDisplayedName());
+		}
+	}
+
+	/**
+	 * Pair of nodes with the same name but different hashes, whose children are being compared.
+	 *
+	 * @param <A>
+	 *            node type of the old tree
+	 * @param <B>
+	 *            node type of the new tree
+	 */
+	private static final class CompareFrame<A extends ITreeNode<A>, B extends ITreeNode<B>> {
+		/** Node of the new tree. */
+		private final B newNode;
+		/** Children of the old node not matched yet. Key is the match key. */
+		private final Map<String, A> oldChildren = new LinkedHashMap<String, A>();
+		/** Children of the new node not compared yet. */
+		private final Iterator<B> newChildren;
+		/** Number of siblings per name among the new children compared so far. */
+		private final Map<String, Integer> occurrences = new HashMap<String, Integer>();
+		/** Number of changes found before this pair. */
+		private final int changeCount;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param oldNode
+		 *            node of the old tree
+		 * @param newTreeNode
+		 *            node of the new tree
+		 * @param changesBefore
+		 *            number of changes found before this pair
+		 */
+		CompareFrame(final A oldNode, final B newTreeNode, final int changesBefore) {
+			this.newNode = newTreeNode;
+			this.newChildren = newTreeNode.getChildren().iterator();
+			this.changeCount = changesBefore;
+			Map<String, Integer> oldOccurrences = new HashMap<String, Integer>();
+			for (A child : oldNode.getChildren()) {
+				this.oldChildren.put(getMatchKey(child.getDisplayedName(), oldOccurrences), child);
+			}
+		}
+	}
+
+	/**
+	 * One changed branch.
+	 */
+	public static final class Change {
+		/** Kind of the change. */
+		private final ChangeType fType;
+		/** Names from the root down to the parent of the changed node. */
+		private final List<String> fPath;
+		/** Displayed name of the changed node. */
+		private final String fName;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param type
+		 *            kind of the change
+		 * @param path
+		 *            names from the root down to the parent of the changed node; copied
+		 * @param name
+		 *            displayed name of the changed node
+		 */
+		Change(final ChangeType type, final List<String> path, final String name) {
+			this.fType = type;
+			this.fPath = Collections.unmodifiableList(new ArrayList<String>(path));
+			this.fName = name;
+		}
+
+		/**
+		 * @return kind of the change
+		 */
+		public ChangeType getType() {
+			return this.fType;
+		}
+
+		/**
+		 * @return names from the root down to the parent of the changed node
+		 */
+		public List<String> getPath() {
+			return this.fPath;
+		}
+
+		/**
+		 * @return displayed name of the changed node
+		 */
+		public String getName() {
+			return this.fName;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(this.fType).append(' ');
+			for (String name : this.fPath) {
+				sb.append(name).append(" / ");
+			}
+			return sb.append(this.fName).toString();
+		}
+	}
+}
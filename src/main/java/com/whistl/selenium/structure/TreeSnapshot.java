@@ -0,0 +1,361 @@
+package com.whistl.selenium.structure;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams tree structures to and from a compact binary format, which is much faster to write and read than XML for
+ * large trees. Nodes are written in depth first order:
+ * <ul>
+ * <li>header: the magic bytes {@code WTS} and the format version</li>
+ * <li>per node: the name, then the number of children as variable length integer</li>
+ * <li>name: {@code 0} for no name; {@code 1}, the byte length and the UTF-8 bytes for a name not written before;
+ * otherwise the number of the name written before plus 2</li>
+ * </ul>
+ * Repeated names, which are typical for scraped trees, take one or two bytes. Neither writing nor reading recurses, so
+ * deep trees can't overflow the stack.
+ */
+public final class TreeSnapshot {
+
+	/** Magic bytes at the start of a snapshot. */
+	private static final byte[] MAGIC = { 'W', 'T', 'S' };
+	/** Version of the format. */
+	private static final int VERSION = 1;
+	/** Name tag of a node without name. */
+	private static final int NO_NAME = 0;
+	/** Name tag of a name written for the first time. */
+	private static final int NEW_NAME = 1;
+	/** Offset added to the number of a name written before. */
+	private static final int NAME_REF_OFFSET = 2;
+	/** Size of the stream buffers. */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Utility class.
+	 */
+	private TreeSnapshot() {
+	}
+
+	/**
+	 * Write the tree to a file.
+	 *
+	 * @param root
+	 *            root of the tree
+	 * @param file
+	 *            target file; overwritten if it exists
+	 * @param <K>
+	 *            node type
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	public static <K extends ITreeNode<K>> void write(final K root, final File file) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+		try {
+			write(root, out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Write the tree to a stream. The stream is not closed.
+	 *
+	 * @param root
+	 *            root of the tree
+	 * @param out
+	 *            target stream; should be buffered
+	 * @param <K>
+	 *            node type
+	 * @throws IOException
+	 *             if the stream can't be written
+	 */
+	public static <K extends ITreeNode<K>> void write(final K root, final OutputStream out) throws IOException {
+		out.write(MAGIC);
+		out.write(VERSION);
+		Map<String, Integer> nameIds = new HashMap<String, Integer>();
+		List<K> rootChildren = root.getChildren();
+		writeNode(root.getDisplayedName(), rootChildren.size(), out, nameIds);
+		// children still to write, per level
+		Deque<Iterator<K>> pending = new ArrayDeque<Iterator<K>>();
+		pending.push(rootChildren.iterator());
+		while (!pending.isEmpty()) {
+			Iterator<K> children = pending.peek();
+			if (!children.hasNext()) {
+				pending.pop();
+				continue;
+			}
+			K child = children.next();
+			List<K> grandChildren = child.getChildren();
+			writeNode(child.getDisplayedName(), grandChildren.size(), out, nameIds);
+			pending.push(grandChildren.iterator());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Read a tree from a file.
+	 *
+	 * @param file
+	 *            snapshot file
+	 * @return root of the tree
+	 * @throws IOException
+	 *             if the file can't be read or is not a snapshot
+	 */
+	public static TreeNode read(final File file) throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+		try {
+			return read(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Read a tree from a stream into {@link TreeNode} objects. The stream is not closed.
+	 *
+	 * @param in
+	 *            source stream; should be buffered
+	 * @return root of the tree
+	 * @throws IOException
+	 *             if the stream can't be read or is not a snapshot
+	 */
+	public static TreeNode read(final InputStream in) throws IOException {
+		readHeader(in);
+		List<String> names = new ArrayList<String>();
+		TreeNode root = new TreeNode();
+		root.setDisplayedName(readName(in, names));
+		// nodes still expecting children and the number of children expected
+		Deque<TreeNode> parents = new ArrayDeque<TreeNode>();
+		Deque<int[]> remaining = new ArrayDeque<int[]>();
+		push(parents, remaining, root, readVarInt(in));
+		while (!parents.isEmpty()) {
+			TreeNode child = new TreeNode();
+			child.setDisplayedName(readName(in, names));
+			TreeNode parent = parents.peek();
+			parent.addChild(child);
+			if (--remaining.peek()[0] == 0) {
+				parents.pop();
+				remaining.pop();
+			}
+			push(parents, remaining, child, readVarInt(in));
+		}
+		return root;
+	}
+
+	/**
+	 * Read a tree from a stream into a {@link CompactTree}, which takes much less memory for large trees. The stream is
+	 * not closed.
+	 *
+	 * @param in
+	 *            source stream; should be buffered
+	 * @return root of the tree
+	 * @throws IOException
+	 *             if the stream can't be read or is not a snapshot
+	 */
+	public static CompactTreeNode readCompact(final InputStream in) throws IOException {
+		readHeader(in);
+		List<String> names = new ArrayList<String>();
+		CompactTree tree = new CompactTree();
+		CompactTreeNode root = tree.createNode(readName(in, names));
+		Deque<CompactTreeNode> parents = new ArrayDeque<CompactTreeNode>();
+		Deque<int[]> remaining = new ArrayDeque<int[]>();
+		push(parents, remaining, root, readVarInt(in));
+		while (!parents.isEmpty()) {
+			CompactTreeNode child = tree.createNode(readName(in, names));
+			// a new node can't be an ancestor, so the cycle check is skipped
+			parents.peek().appendChild(child);
+			if (--remaining.peek()[0] == 0) {
+				parents.pop();
+				remaining.pop();
+			}
+			push(parents, remaining, child, readVarInt(in));
+		}
+		return root;
+	}
+
+	/**
+	 * Remember the node as parent, if it has children.
+	 *
+	 * @param parents
+	 *            nodes expecting children
+	 * @param remaining
+	 *            number of children expected per node
+	 * @param node
+	 *            node read
+	 * @param childCount
+	 *            number of children of the node
+	 * @param <K>
+	 *            node type
+	 */
+	private static <K> void push(final Deque<K> parents, final Deque<int[]> remaining, final K node,
+			final int childCount) {
+		if (childCount > 0) {
+			parents.push(node);
+			remaining.push(new int[] { childCount });
+		}
+	}
+
+	/**
+	 * Write the name and the number of children of a node.
+	 *
+	 * @param name
+	 *            displayed name of the node
+	 * @param childCount
+	 *            number of children of the node
+	 * @param out
+	 *            target stream
+	 * @param nameIds
+	 *            names written before and their numbers
+	 * @throws IOException
+	 *             if the stream can't be written
+	 */
+	private static void writeNode(final String name, final int childCount, final OutputStream out,
+			final Map<String, Integer> nameIds) throws IOException {
+		if (name == null) {
+			writeVarInt(out, NO_NAME);
+		} else {
+			Integer nameId = nameIds.get(name);
+			if (nameId == null) {
+				nameIds.put(name, Integer.valueOf(nameIds.size()));
+				byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+				writeVarInt(out, NEW_NAME);
+				writeVarInt(out, bytes.length);
+				out.write(bytes);
+			} else {
+				writeVarInt(out, nameId.intValue() + NAME_REF_OFFSET);
+			}
+		}
+		writeVarInt(out, childCount);
+	}
+
+	/**
+	 * Read the name of a node.
+	 *
+	 * @param in
+	 *            source stream
+	 * @param names
+	 *            names read before, in order
+	 * @return the name
+	 * @throws IOException
+	 *             if the stream can't be read or is corrupt
+	 */
+	private static String readName(final InputStream in, final List<String> names) throws IOException {
+		int tag = readVarInt(in);
+		if (tag == NO_NAME) {
+			return null;
+		}
+		if (tag == NEW_NAME) {
+			byte[] bytes = new byte[readVarInt(in)];
+			readFully(in, bytes);
+			String name = new String(bytes, StandardCharsets.UTF_8);
+			names.add(name);
+			return name;
+		}
+		int nameId = tag - NAME_REF_OFFSET;
+		if (nameId >= names.size()) {
+			throw new IOException("Corrupt tree snapshot: name " + nameId + " has not been defined.");
+		}
+		return names.get(nameId);
+	}
+
+	/**
+	 * Check the header.
+	 *
+	 * @param in
+	 *            source stream
+	 * @throws IOException
+	 *             if the stream is not a snapshot of a supported version
+	 */
+	private static void readHeader(final InputStream in) throws IOException {
+		byte[] magic = new byte[MAGIC.length];
+		readFully(in, magic);
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (magic[i] != MAGIC[i]) {
+				throw new IOException("Not a tree snapshot.");
+			}
+		}
+		int version = in.read();
+		if (version != VERSION) {
+			throw new IOException("Unsupported tree snapshot version " + version + ".");
+		}
+	}
+
+	/**
+	 * Write a non-negative number using 7 bits per byte.
+	 *
+	 * @param out
+	 *            target stream
+	 * @param value
+	 *            number to write
+	 * @throws IOException
+	 *             if the stream can't be written
+	 */
+	private static void writeVarInt(final OutputStream out, final int value) throws IOException {
+		int remainder = value;
+		while ((remainder & ~0x7F) != 0) {
+			out.write((remainder & 0x7F) | 0x80);
+			remainder >>>= 7;
+		}
+		out.write(remainder);
+	}
+
+	/**
+	 * Read a number written by {@link #writeVarInt(OutputStream, int)}.
+	 *
+	 * @param in
+	 *            source stream
+	 * @return the number
+	 * @throws IOException
+	 *             if the stream can't be read or is corrupt
+	 */
+	private static int readVarInt(final InputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.read();
+			if (b < 0) {
+				throw new EOFException("Tree snapshot ends unexpectedly.");
+			}
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Corrupt tree snapshot: number too long.");
+	}
+
+	/**
+	 * Fill the buffer.
+	 *
+	 * @param in
+	 *            source stream
+	 * @param bytes
+	 *            buffer
+	 * @throws IOException
+	 *             if the stream ends before
+	 */
+	private static void readFully(final InputStream in, final byte[] bytes) throws IOException {
+		int offset = 0;
+		while (offset < bytes.length) {
+			int read = in.read(bytes, offset, bytes.length - offset);
+			if (read < 0) {
+				throw new EOFException("Tree snapshot ends unexpectedly.");
+			}
+			offset += read;
+		}
+	}
+}
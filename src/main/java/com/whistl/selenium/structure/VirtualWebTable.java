@@ -0,0 +1,270 @@
+package com.whistl.selenium.structure;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.whistl.selenium.util.JavaScriptUtil;
+
+/**
+ * {@link ITable} for grids with virtual scrolling, where only the visible rows exist in the page. The rows are
+ * streamed by scrolling the viewport one screen at a time and reading the rendered rows with one script call per
+ * screen.<br>
+ * Screens overlap, and grids render rows outside the visible area (overscan), possibly more than a screen. Rows are
+ * therefore de-duplicated by key against all rows rendered for the previous screen, overscan included. The rendered
+ * rows are a contiguous range moving down with each screen, so a row rendered for an earlier screen and again now was
+ * rendered for the previous screen as well. Memory stays bounded by the rendered rows, also when scanning grids with
+ * 100k rows. The key is the value of a row attribute (e.g. {@code aria-rowindex} or {@code data-id}); without a key
+ * attribute the row text is used, which drops a row repeating the text of a row rendered for the previous screen.<br>
+ * Usage:<br>
+ * {@code VirtualWebTable grid = new VirtualWebTable(driver, By.cssSelector(".grid-viewport"), "[role=row]", "aria-rowindex", null);}<br>
+ * {@code for (VirtualWebTableRow row : grid) { ... }} or {@code grid.stream().filter(...)}
+ */
+public class VirtualWebTable implements ITable<VirtualWebTableRow>, Iterable<VirtualWebTableRow> {
+
+	/** Time given to the grid to render the rows after scrolling. */
+	public static final long DEFAULT_SETTLE_MILLIS = 50L;
+
+	/** JavaScript snippet scrolling the viewport and reading the rendered rows. Located within the project. */
+	private static final String READ_ROWS_JS_FILE = "/javascript/readVisibleRows.js";
+	/** JavaScript snippet scrolling the viewport and clicking a row. Located within the project. */
+	private static final String SELECT_ROW_JS_FILE = "/javascript/selectVisibleRow.js";
+	/** JavaScript snippet as read from {@link #READ_ROWS_JS_FILE}. */
+	private static final String READ_ROWS_JS = JavaScriptUtil.loadSnippet(READ_ROWS_JS_FILE);
+	/** JavaScript snippet as read from {@link #SELECT_ROW_JS_FILE}. */
+	private static final String SELECT_ROW_JS = JavaScriptUtil.loadSnippet(SELECT_ROW_JS_FILE);
+
+	/** WebDriver displaying the grid. */
+	private final WebDriver fDriver;
+	/** Finder of the scrolled element. */
+	private final By fViewportFinder;
+	/** CSS selector of the rows within the viewport. */
+	private final String fRowSelector;
+	/** Attribute identifying a row; {@code null} to use the row text. */
+	private final String fKeyAttribute;
+	/** Class marking a selected row; {@code null} to rely on {@code aria-selected} only. */
+	private final String fSelectedClass;
+	/** Time given to the grid to render the rows after scrolling. */
+	private long fSettleMillis = DEFAULT_SETTLE_MILLIS;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param driver
+	 *            WebDriver displaying the grid
+	 * @param viewportFinder
+	 *            finder of the scrolled element
+	 * @param rowSelector
+	 *            CSS selector of the rows within the viewport
+	 * @param keyAttribute
+	 *            attribute identifying a row; {@code null} to use the row text
+	 * @param selectedClass
+	 *            class marking a selected row; {@code null} to rely on {@code aria-selected} only
+	 */
+	public VirtualWebTable(final WebDriver driver, final By viewportFinder, final String rowSelector,
+			final String keyAttribute, final String selectedClass) {
+		this.fDriver = driver;
+		this.fViewportFinder = viewportFinder;
+		this.fRowSelector = rowSelector;
+		this.fKeyAttribute = keyAttribute;
+		this.fSelectedClass = selectedClass;
+	}
+
+	/**
+	 * Set the time given to the grid to render the rows after scrolling.
+	 *
+	 * @param settleMillis
+	 *            time in milliseconds
+	 */
+	public void setSettleMillis(final long settleMillis) {
+		this.fSettleMillis = settleMillis;
+	}
+
+	@Override
+	public VirtualWebTableRow selectByText(final String rowText) {
+		VirtualWebTableRow row = findRow(rowText);
+		if (row == null) {
+			throw new NoSuchElementException("Grid " + this.fViewportFinder + " has no row [" + rowText + "]");
+		}
+		row.select();
+		return row;
+	}
+
+	/**
+	 * Stream the grid from the top until a row has the text or one of its cells has it.
+	 *
+	 * @param text
+	 *            row or cell text
+	 * @return the first such row or {@code null} if there is none
+	 */
+	public VirtualWebTableRow findRow(final String text) {
+		for (VirtualWebTableRow row : this) {
+			if (row.getText().equals(text) || row.hasCellText(text)) {
+				return row;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Stream the rows from the top. The grid is scrolled while iterating.
+	 */
+	@Override
+	public Iterator<VirtualWebTableRow> iterator() {
+		return new ScreenIterator(0L, 0);
+	}
+
+	/**
+	 * Stream the rows from the top. The grid is scrolled while the stream is consumed, so it must not be parallel.
+	 *
+	 * @return lazy stream of the rows
+	 */
+	public Stream<VirtualWebTableRow> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Get the row following the given one.
+	 *
+	 * @param row
+	 *            row read before
+	 * @return next row
+	 * @throws IllegalAccessError
+	 *             if the row is the last one or can't be found any more
+	 */
+	VirtualWebTableRow getNextRow(final VirtualWebTableRow row) throws IllegalAccessError {
+		Iterator<VirtualWebTableRow> rows = new ScreenIterator(row.getScrollTop(), 0);
+		while (rows.hasNext()) {
+			if (rows.next().getKey().equals(row.getKey())) {
+				if (rows.hasNext()) {
+					return rows.next().atPosition(row.getTablePositionCounter() + 1);
+				}
+				break;
+			}
+		}
+		throw new IllegalAccessError("[" + row.getText() + "] is the last row of " + this);
+	}
+
+	/**
+	 * Scroll to the screen the row has been read from and click it.
+	 *
+	 * @param row
+	 *            row to click
+	 */
+	void selectRow(final VirtualWebTableRow row) {
+		Object selected = ((JavascriptExecutor) this.fDriver).executeAsyncScript(SELECT_ROW_JS, findViewport(),
+				this.fRowSelector, this.fKeyAttribute, Long.valueOf(row.getScrollTop()), row.getKey(),
+				Long.valueOf(this.fSettleMillis));
+		if (!Boolean.TRUE.equals(selected)) {
+			throw new NoSuchElementException("Grid " + this.fViewportFinder + " has no row [" + row.getKey()
+					+ "] any more.");
+		}
+	}
+
+	/**
+	 * @return the scrolled element
+	 */
+	private WebElement findViewport() {
+		return this.fDriver.findElement(this.fViewportFinder);
+	}
+
+	@Override
+	public String toString() {
+		return "VirtualWebTable " + this.fViewportFinder;
+	}
+
+	/**
+	 * Reads one screen after the other while rows are requested.
+	 */
+	private final class ScreenIterator implements Iterator<VirtualWebTableRow> {
+		/** Scrolled element. */
+		private final WebElement fViewport;
+		/** Rows read, but not yet returned. */
+		private final Deque<VirtualWebTableRow> fPending = new ArrayDeque<VirtualWebTableRow>();
+		/** Keys of all rows rendered for the previous screen, overscan included. */
+		private Set<String> fPreviousKeys = Collections.emptySet();
+		/** Scroll position of the next screen. */
+		private long fScrollTop;
+		/** Position given to the next new row. */
+		private int fNextPosition;
+		/** Has the last screen been read? */
+		private boolean isAtEnd;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param scrollTop
+		 *            scroll position of the first screen
+		 * @param firstPosition
+		 *            position given to the first row
+		 */
+		ScreenIterator(final long scrollTop, final int firstPosition) {
+			this.fViewport = findViewport();
+			this.fScrollTop = scrollTop;
+			this.fNextPosition = firstPosition;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.fPending.isEmpty() && !this.isAtEnd) {
+				readScreen();
+			}
+			return !this.fPending.isEmpty();
+		}
+
+		@Override
+		public VirtualWebTableRow next() {
+			if (!hasNext()) {
+				// the iterator contract requires the exception of java.util
+				throw new java.util.NoSuchElementException("No more rows in " + VirtualWebTable.this);
+			}
+			return this.fPending.removeFirst();
+		}
+
+		/**
+		 * Scroll to the next screen and queue its new rows.
+		 */
+		@SuppressWarnings("unchecked")
+		private void readScreen() {
+			Map<String, Object> screen = (Map<String, Object>) ((JavascriptExecutor) VirtualWebTable.this.fDriver)
+					.executeAsyncScript(READ_ROWS_JS, this.fViewport, VirtualWebTable.this.fRowSelector,
+							VirtualWebTable.this.fKeyAttribute, VirtualWebTable.this.fSelectedClass,
+							Long.valueOf(this.fScrollTop), Long.valueOf(VirtualWebTable.this.fSettleMillis));
+			List<Map<String, Object>> rows = (List<Map<String, Object>>) screen.get("rows");
+			long scrollTop = ((Number) screen.get("scrollTop")).longValue();
+			long step = ((Number) screen.get("step")).longValue();
+
+			Set<String> keys = new HashSet<String>(rows.size() * 4 / 3 + 1);
+			for (Map<String, Object> row : rows) {
+				String key = (String) row.get("key");
+				keys.add(key);
+				if (!this.fPreviousKeys.contains(key)) {
+					List<String> cells = (List<String>) row.get("cells");
+					this.fPending.addLast(new VirtualWebTableRow(VirtualWebTable.this, key, (String) row.get("text"),
+							cells.toArray(new String[cells.size()]), Boolean.TRUE.equals(row.get("selected")),
+							scrollTop, this.fNextPosition++));
+				}
+			}
+			this.fPreviousKeys = keys;
+			// a viewport, which doesn't move any more, is at its end as well
+			this.isAtEnd = Boolean.TRUE.equals(screen.get("atEnd")) || step <= 0 || scrollTop < this.fScrollTop;
+			this.fScrollTop = scrollTop + step;
+		}
+	}
+}
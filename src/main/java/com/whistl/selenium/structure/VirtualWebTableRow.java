@@ -0,0 +1,151 @@
+package com.whistl.selenium.structure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Row of a {@link VirtualWebTable} as read while streaming the grid. The row keeps the scroll position it has been
+ * read at, so it can be scrolled into view again.
+ */
+public class VirtualWebTableRow implements ITableRow<VirtualWebTableRow> {
+
+	/** Grid the row belongs to. */
+	private final VirtualWebTable fTable;
+	/** Key identifying the row. */
+	private final String fKey;
+	/** Cell texts separated by a space. */
+	private final String fText;
+	/** Cell texts. */
+	private final String[] fCells;
+	/** Selection state when read. */
+	private final boolean isSelected;
+	/** Scroll position of the screen the row has been read from. */
+	private final long fScrollTop;
+	/** Position in the stream, starting with 0. */
+	private final int fPosition;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param table
+	 *            grid the row belongs to
+	 * @param key
+	 *            key identifying the row
+	 * @param text
+	 *            cell texts separated by a space
+	 * @param cells
+	 *            cell texts
+	 * @param selected
+	 *            selection state when read
+	 * @param scrollTop
+	 *            scroll position of the screen the row has been read from
+	 * @param position
+	 *            position in the stream
+	 */
+	VirtualWebTableRow(final VirtualWebTable table, final String key, final String text, final String[] cells,
+			final boolean selected, final long scrollTop, final int position) {
+		this.fTable = table;
+		this.fKey = key;
+		this.fText = text;
+		this.fCells = cells;
+		this.isSelected = selected;
+		this.fScrollTop = scrollTop;
+		this.fPosition = position;
+	}
+
+	/**
+	 * @return key identifying the row
+	 */
+	public String getKey() {
+		return this.fKey;
+	}
+
+	@Override
+	public String getText() {
+		return this.fText;
+	}
+
+	/**
+	 * @return cell texts
+	 */
+	public List<String> getCells() {
+		return Collections.unmodifiableList(Arrays.asList(this.fCells));
+	}
+
+	/**
+	 * Get the text of a cell.
+	 *
+	 * @param column
+	 *            column, starting with 0
+	 * @return text of the cell or {@code null} if the row has no such cell
+	 */
+	public String getCellText(final int column) {
+		return column < this.fCells.length ? this.fCells[column] : null;
+	}
+
+	/**
+	 * @param text
+	 *            text to find
+	 * @return {@code true} if one of the cells has the text
+	 */
+	boolean hasCellText(final String text) {
+		for (String cell : this.fCells) {
+			if (cell.equals(text)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return scroll position of the screen the row has been read from
+	 */
+	long getScrollTop() {
+		return this.fScrollTop;
+	}
+
+	/**
+	 * @param position
+	 *            position in the stream
+	 * @return copy of the row at the position
+	 */
+	VirtualWebTableRow atPosition(final int position) {
+		return new VirtualWebTableRow(this.fTable, this.fKey, this.fText, this.fCells, this.isSelected,
+				this.fScrollTop, position);
+	}
+
+	@Override
+	public void select() {
+		this.fTable.selectRow(this);
+	}
+
+	/**
+	 * Selection state when the row has been read.
+	 */
+	@Override
+	public boolean isSelected() {
+		return this.isSelected;
+	}
+
+	/**
+	 * Scrolls the grid back to this row and reads on from there.
+	 */
+	@Override
+	public VirtualWebTableRow getNextRow() throws IllegalAccessError {
+		return this.fTable.getNextRow(this);
+	}
+
+	/**
+	 * Position in the stream. Equals the position in the grid, if streamed from the top.
+	 */
+	@Override
+	public int getTablePositionCounter() {
+		return this.fPosition;
+	}
+
+	@Override
+	public String toString() {
+		return this.fPosition + ": " + this.fText;
+	}
+}
@@ -0,0 +1,326 @@
+package com.whistl.selenium.structure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.whistl.selenium.util.JavaScriptUtil;
+
+/**
+ * {@link ITable} backed by a table of the page. The whole table (cell texts, row indexes and selection state) is read
+ * with one script call into column arrays, so assertions on large grids don't cost one WebDriver call per row or cell.
+ * {@link #selectByText(String)} looks the text up in a hash index built over those arrays.<br>
+ * The content is read on first use and kept until {@link #refresh()} is called or a row is selected.
+ */
+public class WebTable implements ITable<WebTableRow> {
+
+	/** Rows read by default: body rows of a HTML table. */
+	public static final String DEFAULT_ROW_SELECTOR = "tbody > tr";
+
+	/** JavaScript snippet reading the table. Located within the project. */
+	private static final String READ_TABLE_JS_FILE = "/javascript/readTable.js";
+	/** JavaScript snippet selecting a row. Located within the project. */
+	private static final String SELECT_ROW_JS_FILE = "/javascript/selectTableRow.js";
+	/** JavaScript snippet as read from {@link #READ_TABLE_JS_FILE}. */
+	private static final String READ_TABLE_JS = JavaScriptUtil.loadSnippet(READ_TABLE_JS_FILE);
+	/** JavaScript snippet as read from {@link #SELECT_ROW_JS_FILE}. */
+	private static final String SELECT_ROW_JS = JavaScriptUtil.loadSnippet(SELECT_ROW_JS_FILE);
+
+	/** WebDriver displaying the table. */
+	private final WebDriver fDriver;
+	/** Finder of the table element. */
+	private final By fTableFinder;
+	/** CSS selector of the rows within the table element. */
+	private final String fRowSelector;
+	/** Class marking a selected row; {@code null} to rely on {@code aria-selected} only. */
+	private final String fSelectedClass;
+
+	/** Number of rows read; -1 if the table has not been read yet. */
+	private int fRowCount = -1;
+	/** Text of each row: the cell texts separated by a space. */
+	private String[] fRowTexts;
+	/** Cell texts per column, then per row. {@code null} for missing cells. */
+	private String[][] fColumns;
+	/** DOM row index of each row. */
+	private int[] fRowIndexes;
+	/** Selection state of each row. */
+	private boolean[] fSelected;
+	/** Row text to the first row having it. */
+	private Map<String, Integer> fRowTextIndex;
+	/** Cell text to the first row having it. Built on the first lookup, which misses {@link #fRowTextIndex}. */
+	private Map<String, Integer> fCellTextIndex;
+
+	/**
+	 * Constructor for a HTML table; the body rows are read.
+	 *
+	 * @param driver
+	 *            WebDriver displaying the table
+	 * @param tableFinder
+	 *            finder of the table element
+	 */
+	public WebTable(final WebDriver driver, final By tableFinder) {
+		this(driver, tableFinder, DEFAULT_ROW_SELECTOR, null);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param driver
+	 *            WebDriver displaying the table
+	 * @param tableFinder
+	 *            finder of the table element
+	 * @param rowSelector
+	 *            CSS selector of the rows within the table element
+	 * @param selectedClass
+	 *            class marking a selected row; {@code null} to rely on {@code aria-selected} only
+	 */
+	public WebTable(final WebDriver driver, final By tableFinder, final String rowSelector,
+			final String selectedClass) {
+		this.fDriver = driver;
+		this.fTableFinder = tableFinder;
+		this.fRowSelector = rowSelector;
+		this.fSelectedClass = selectedClass;
+	}
+
+	@Override
+	public WebTableRow selectByText(final String rowText) {
+		WebTableRow row = findRow(rowText);
+		if (row == null) {
+			throw new NoSuchElementException("Table " + this.fTableFinder + " has no row [" + rowText + "]");
+		}
+		row.select();
+		return row;
+	}
+
+	/**
+	 * Find the first row by its text or, if no row has the text, by the text of one of its cells.
+	 *
+	 * @param text
+	 *            row or cell text
+	 * @return the row or {@code null} if there is none
+	 */
+	public WebTableRow findRow(final String text) {
+		ensureLoaded();
+		Integer position = this.fRowTextIndex.get(text);
+		if (position == null) {
+			position = getCellTextIndex().get(text);
+		}
+		return position == null ? null : new WebTableRow(this, position.intValue());
+	}
+
+	/**
+	 * Get a row.
+	 *
+	 * @param position
+	 *            position of the row, starting with 0
+	 * @return the row
+	 */
+	public WebTableRow getRow(final int position) {
+		checkPosition(position);
+		return new WebTableRow(this, position);
+	}
+
+	/**
+	 * @return number of rows
+	 */
+	public int getRowCount() {
+		ensureLoaded();
+		return this.fRowCount;
+	}
+
+	/**
+	 * @return number of columns of the widest row
+	 */
+	public int getColumnCount() {
+		ensureLoaded();
+		return this.fColumns.length;
+	}
+
+	/**
+	 * Get the text of a cell.
+	 *
+	 * @param position
+	 *            position of the row, starting with 0
+	 * @param column
+	 *            column, starting with 0
+	 * @return text of the cell or {@code null} if the row has no such cell
+	 */
+	public String getCellText(final int position, final int column) {
+		checkPosition(position);
+		return column < this.fColumns.length ? this.fColumns[column][position] : null;
+	}
+
+	/**
+	 * Get the texts of a column.
+	 *
+	 * @param column
+	 *            column, starting with 0
+	 * @return texts in row order; {@code null} for rows without the cell
+	 */
+	public List<String> getColumn(final int column) {
+		ensureLoaded();
+		return Collections.unmodifiableList(Arrays.asList(this.fColumns[column]));
+	}
+
+	/**
+	 * Forget the content, so the table is read again on next use.
+	 */
+	public void refresh() {
+		this.fRowCount = -1;
+		this.fRowTexts = null;
+		this.fColumns = null;
+		this.fRowIndexes = null;
+		this.fSelected = null;
+		this.fRowTextIndex = null;
+		this.fCellTextIndex = null;
+	}
+
+	/**
+	 * @param position
+	 *            position of the row
+	 * @return text of the row
+	 */
+	String getRowText(final int position) {
+		checkPosition(position);
+		return this.fRowTexts[position];
+	}
+
+	/**
+	 * @param position
+	 *            position of the row
+	 * @return DOM row index of the row
+	 */
+	int getRowIndex(final int position) {
+		checkPosition(position);
+		return this.fRowIndexes[position];
+	}
+
+	/**
+	 * @param position
+	 *            position of the row
+	 * @return selection state of the row
+	 */
+	boolean isRowSelected(final int position) {
+		checkPosition(position);
+		return this.fSelected[position];
+	}
+
+	/**
+	 * Click the row. The row is verified against its text, so a changed table is not clicked at the wrong place.
+	 *
+	 * @param position
+	 *            position of the row
+	 * @param rowText
+	 *            expected text of the row
+	 */
+	void selectRow(final int position, final String rowText) {
+		Object selected = ((JavascriptExecutor) this.fDriver).executeScript(SELECT_ROW_JS, findTable(),
+				this.fRowSelector, Integer.valueOf(position), rowText);
+		// the selection state changed; the content may have changed as well
+		refresh();
+		if (!Boolean.TRUE.equals(selected)) {
+			throw new NoSuchElementException("Table " + this.fTableFinder + " has no row [" + rowText
+					+ "] at position " + position + " any more.");
+		}
+	}
+
+	/**
+	 * Read the table, if needed.
+	 */
+	private void ensureLoaded() {
+		if (this.fRowCount < 0) {
+			load();
+		}
+	}
+
+	/**
+	 * @param position
+	 *            position to check
+	 */
+	private void checkPosition(final int position) {
+		ensureLoaded();
+		if (position < 0 || position >= this.fRowCount) {
+			throw new IndexOutOfBoundsException("Table " + this.fTableFinder + " has " + this.fRowCount
+					+ " rows, row " + position + " requested.");
+		}
+	}
+
+	/**
+	 * @return the table element
+	 */
+	private WebElement findTable() {
+		return this.fDriver.findElement(this.fTableFinder);
+	}
+
+	/**
+	 * Read the whole table with one script call.
+	 */
+	@SuppressWarnings("unchecked")
+	private void load() {
+		Map<String, Object> content = (Map<String, Object>) ((JavascriptExecutor) this.fDriver).executeScript(
+				READ_TABLE_JS, findTable(), this.fRowSelector, this.fSelectedClass);
+		List<Object> texts = (List<Object>) content.get("texts");
+		List<List<Object>> cells = (List<List<Object>>) content.get("cells");
+		List<Object> rowIndexes = (List<Object>) content.get("rowIndexes");
+		List<Object> selected = (List<Object>) content.get("selected");
+
+		int rowCount = texts.size();
+		String[] rowTexts = new String[rowCount];
+		int[] indexes = new int[rowCount];
+		boolean[] selection = new boolean[rowCount];
+		// sized for the default load factor, so the index is never rehashed
+		Map<String, Integer> rowTextIndex = new HashMap<String, Integer>(rowCount * 4 / 3 + 1);
+		for (int i = 0; i < rowCount; i++) {
+			rowTexts[i] = (String) texts.get(i);
+			indexes[i] = ((Number) rowIndexes.get(i)).intValue();
+			selection[i] = Boolean.TRUE.equals(selected.get(i));
+			if (!rowTextIndex.containsKey(rowTexts[i])) {
+				rowTextIndex.put(rowTexts[i], Integer.valueOf(i));
+			}
+		}
+		String[][] columns = new String[cells.size()][];
+		for (int c = 0; c < columns.length; c++) {
+			columns[c] = cells.get(c).toArray(new String[rowCount]);
+		}
+
+		this.fRowTexts = rowTexts;
+		this.fColumns = columns;
+		this.fRowIndexes = indexes;
+		this.fSelected = selection;
+		this.fRowTextIndex = rowTextIndex;
+		this.fCellTextIndex = null;
+		this.fRowCount = rowCount;
+	}
+
+	/**
+	 * @return cell text to the first row having it
+	 */
+	private Map<String, Integer> getCellTextIndex() {
+		if (this.fCellTextIndex == null) {
+			Map<String, Integer> cellTextIndex = new HashMap<String, Integer>();
+			// row by row, so the first row wins
+			for (int i = 0; i < this.fRowCount; i++) {
+				for (String[] column : this.fColumns) {
+					if (column[i] != null && !cellTextIndex.containsKey(column[i])) {
+						cellTextIndex.put(column[i], Integer.valueOf(i));
+					}
+				}
+			}
+			this.fCellTextIndex = cellTextIndex;
+		}
+		return this.fCellTextIndex;
+	}
+
+	@Override
+	public String toString() {
+		return "WebTable " + this.fTableFinder;
+	}
+}
@@ -0,0 +1,84 @@
+package com.whistl.selenium.structure;
+
+/**
+ * Row of a {@link WebTable}. The texts come from the content read by the table, so reading them doesn't call the
+ * browser.
+ */
+public class WebTableRow implements ITableRow<WebTableRow> {
+
+	/** Table the row belongs to. */
+	private final WebTable fTable;
+	/** Position of the row, starting with 0. */
+	private final int fPosition;
+	/** Text of the row when it has been found. */
+	private final String fText;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param table
+	 *            table the row belongs to
+	 * @param position
+	 *            position of the row, starting with 0
+	 */
+	WebTableRow(final WebTable table, final int position) {
+		this.fTable = table;
+		this.fPosition = position;
+		this.fText = table.getRowText(position);
+	}
+
+	@Override
+	public String getText() {
+		return this.fText;
+	}
+
+	/**
+	 * Get the text of a cell.
+	 *
+	 * @param column
+	 *            column, starting with 0
+	 * @return text of the cell or {@code null} if the row has no such cell
+	 */
+	public String getCellText(final int column) {
+		return this.fTable.getCellText(this.fPosition, column);
+	}
+
+	/**
+	 * @return DOM row index ({@code rowIndex}) of the row within its table
+	 */
+	public int getRowIndex() {
+		return this.fTable.getRowIndex(this.fPosition);
+	}
+
+	@Override
+	public void select() {
+		this.fTable.selectRow(this.fPosition, this.fText);
+	}
+
+	/**
+	 * The table is read again after a selection, so this reflects the selection state of the page.
+	 */
+	@Override
+	public boolean isSelected() {
+		return this.fPosition < this.fTable.getRowCount() && this.fText.equals(this.fTable.getRowText(this.fPosition))
+				&& this.fTable.isRowSelected(this.fPosition);
+	}
+
+	@Override
+	public WebTableRow getNextRow() throws IllegalAccessError {
+		if (this.fPosition + 1 >= this.fTable.getRowCount()) {
+			throw new IllegalAccessError("[" + this.fText + "] is the last row of " + this.fTable);
+		}
+		return this.fTable.getRow(this.fPosition + 1);
+	}
+
+	@Override
+	public int getTablePositionCounter() {
+		return this.fPosition;
+	}
+
+	@Override
+	public String toString() {
+		return this.fPosition + ": " + this.fText;
+	}
+}
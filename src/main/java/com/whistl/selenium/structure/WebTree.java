@@ -0,0 +1,441 @@
+package com.whistl.selenium.structure;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.whistl.selenium.test.Logger;
+import com.whistl.selenium.util.JavaScriptUtil;
+
+/**
+ * {@link ITree} backed by a tree of the page. Only the nodes on a requested path are expanded, with one script call
+ * per level, which expands the node and reads its children. The children are cached as {@link TreeNode} objects, so a
+ * path visited before costs no expansion at all.<br>
+ * {@link #getExpandedRowsCount()} counts the visible rows once and then adds the rows shown by every expansion done by
+ * this class. Nodes collapsed by the application itself are not noticed; call {@link #invalidate()} in that case.<br>
+ * The defaults follow the WAI-ARIA tree pattern ({@code role=treeitem}, {@code role=group}, {@code aria-expanded}).
+ */
+public class WebTree implements ITree<TreeNode, WebTreeRow> {
+
+	/** Default selector of a tree item. */
+	public static final String DEFAULT_ITEM_SELECTOR = "[role=treeitem]";
+	/** Default selector of the element holding the children of an item. */
+	public static final String DEFAULT_GROUP_SELECTOR = "[role=group]";
+	/** Time given to an expanded node to show its children. */
+	public static final long DEFAULT_EXPAND_TIMEOUT_MILLIS = 5000L;
+
+	/** JavaScript snippet expanding a node and reading its children. Located within the project. */
+	private static final String EXPAND_NODE_JS_FILE = "/javascript/expandTreeNode.js";
+	/** JavaScript snippet as read from {@link #EXPAND_NODE_JS_FILE}. */
+	private static final String EXPAND_NODE_JS = JavaScriptUtil.loadSnippet(EXPAND_NODE_JS_FILE);
+	/** JavaScript snippet clicking the label of an item. */
+	private static final String SELECT_NODE_JS = "var label = arguments[1] ? "
+			+ "arguments[0].querySelector(arguments[1]) : null; (label || arguments[0]).click();";
+
+	/** WebDriver displaying the tree. */
+	private final WebDriver fDriver;
+	/** Finder of the tree element. */
+	private final By fTreeFinder;
+	/** CSS selector of a tree item. */
+	private final String fItemSelector;
+	/** CSS selector of the label within an item; {@code null} for the item itself. */
+	private final String fLabelSelector;
+	/** CSS selector of the expander within an item; {@code null} to click the label. */
+	private final String fToggleSelector;
+	/** CSS selector of the element holding the children of an item. */
+	private final String fGroupSelector;
+	/** Time given to an expanded node to show its children. */
+	private long fExpandTimeoutMillis = DEFAULT_EXPAND_TIMEOUT_MILLIS;
+
+	/** Root of the cached structure; {@code null} if not read yet. */
+	private TreeNode fRoot;
+	/** Page state of the cached nodes. */
+	private final Map<TreeNode, NodeState> fStates = new IdentityHashMap<TreeNode, NodeState>();
+	/** Number of visible rows. */
+	private int fExpandedRowsCount;
+	/** Last selected node. */
+	private TreeNode fSelection;
+
+	/**
+	 * Constructor for a WAI-ARIA tree.
+	 *
+	 * @param driver
+	 *            WebDriver displaying the tree
+	 * @param treeFinder
+	 *            finder of the tree element
+	 */
+	public WebTree(final WebDriver driver, final By treeFinder) {
+		this(driver, treeFinder, DEFAULT_ITEM_SELECTOR, null, null, DEFAULT_GROUP_SELECTOR);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param driver
+	 *            WebDriver displaying the tree
+	 * @param treeFinder
+	 *            finder of the tree element
+	 * @param itemSelector
+	 *            CSS selector of a tree item
+	 * @param labelSelector
+	 *            CSS selector of the label within an item; {@code null} for the item itself
+	 * @param toggleSelector
+	 *            CSS selector of the expander within an item; {@code null} to click the label
+	 * @param groupSelector
+	 *            CSS selector of the element holding the children of an item
+	 */
+	public WebTree(final WebDriver driver, final By treeFinder, final String itemSelector,
+			final String labelSelector, final String toggleSelector, final String groupSelector) {
+		this.fDriver = driver;
+		this.fTreeFinder = treeFinder;
+		this.fItemSelector = itemSelector;
+		this.fLabelSelector = labelSelector;
+		this.fToggleSelector = toggleSelector;
+		this.fGroupSelector = groupSelector;
+	}
+
+	/**
+	 * Set the time given to an expanded node to show its children.
+	 *
+	 * @param expandTimeoutMillis
+	 *            time in milliseconds
+	 */
+	public void setExpandTimeoutMillis(final long expandTimeoutMillis) {
+		this.fExpandTimeoutMillis = expandTimeoutMillis;
+	}
+
+	@Override
+	public WebTreeRow selectByPath(final String... elementNames) {
+		if (elementNames.length == 0) {
+			throw new IllegalArgumentException("The path to a tree node can't be empty.");
+		}
+		try {
+			return select(resolve(elementNames));
+		} catch (StaleElementReferenceException e) {
+			Logger.logStepResult("Tree " + this.fTreeFinder + " has changed. Reading it again.", false);
+			invalidate();
+			return select(resolve(elementNames));
+		}
+	}
+
+	@Override
+	public TreeNode getTreeStructureFromPath(final String... elementNames) {
+		try {
+			return gather(resolve(elementNames));
+		} catch (StaleElementReferenceException e) {
+			Logger.logStepResult("Tree " + this.fTreeFinder + " has changed. Reading it again.", false);
+			invalidate();
+			return gather(resolve(elementNames));
+		}
+	}
+
+	@Override
+	public TreeNode getTreeStructureFromSelection() throws IllegalStateException {
+		if (this.fSelection == null) {
+			throw new IllegalStateException("Nothing has been selected in tree " + this.fTreeFinder + " yet.");
+		}
+		return gather(this.fSelection);
+	}
+
+	@Override
+	public int getExpandedRowsCount() {
+		getRoot();
+		return this.fExpandedRowsCount;
+	}
+
+	/**
+	 * Forget the cached structure, so the tree is read again on next use.
+	 */
+	public void invalidate() {
+		this.fRoot = null;
+		this.fStates.clear();
+		this.fExpandedRowsCount = 0;
+		this.fSelection = null;
+	}
+
+	/**
+	 * Get the row of a cached node.
+	 *
+	 * @param node
+	 *            cached node
+	 * @return row of the node
+	 */
+	WebTreeRow getRow(final TreeNode node) {
+		return new WebTreeRow(this, node);
+	}
+
+	/**
+	 * Click the label of the node.
+	 *
+	 * @param node
+	 *            cached node
+	 * @return row of the node
+	 */
+	WebTreeRow select(final TreeNode node) {
+		((JavascriptExecutor) this.fDriver).executeScript(SELECT_NODE_JS, getState(node).fElement,
+				this.fLabelSelector);
+		this.fSelection = node;
+		return getRow(node);
+	}
+
+	/**
+	 * @param node
+	 *            cached node
+	 * @return {@code true} if the page marks the node as selected; without {@code aria-selected}, if it has been
+	 *         selected last using this tree
+	 */
+	boolean isSelected(final TreeNode node) {
+		String selected = getState(node).fElement.getAttribute("aria-selected");
+		return selected == null ? node == this.fSelection : "true".equals(selected);
+	}
+
+	/**
+	 * @param node
+	 *            cached node
+	 * @return expansion state as known
+	 */
+	boolean isExpanded(final TreeNode node) {
+		return getState(node).isExpanded;
+	}
+
+	/**
+	 * @param node
+	 *            cached node
+	 * @return {@code true} if the node can't be expanded
+	 */
+	boolean isLeaf(final TreeNode node) {
+		return getState(node).isLeaf;
+	}
+
+	/**
+	 * Get the children of the node, expanding it if they are not cached yet.
+	 *
+	 * @param node
+	 *            cached node or the root
+	 * @return children
+	 */
+	@SuppressWarnings("unchecked")
+	List<TreeNode> expand(final TreeNode node) {
+		NodeState state = getState(node);
+		if (state.isLoaded) {
+			return node.getChildren();
+		}
+		boolean isRoot = node == this.fRoot;
+		Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) this.fDriver).executeAsyncScript(
+				EXPAND_NODE_JS, state.fElement, Boolean.valueOf(isRoot), this.fItemSelector, this.fLabelSelector,
+				this.fToggleSelector, this.fGroupSelector, Long.valueOf(this.fExpandTimeoutMillis));
+		for (Map<String, Object> child : (List<Map<String, Object>>) result.get("children")) {
+			TreeNode childNode = new TreeNode();
+			childNode.setDisplayedName((String) child.get("name"));
+			node.addChild(childNode);
+			this.fStates.put(childNode, new NodeState((WebElement) child.get("element"),
+					Boolean.TRUE.equals(child.get("expanded")), Boolean.TRUE.equals(child.get("leaf"))));
+		}
+		int visible = ((Number) result.get("visible")).intValue();
+		if (isRoot) {
+			this.fExpandedRowsCount = visible;
+		} else if (Boolean.TRUE.equals(result.get("expandedNow"))) {
+			// the rows below the node were hidden before
+			this.fExpandedRowsCount += visible;
+		}
+		state.isLoaded = true;
+		state.isExpanded = true;
+		return node.getChildren();
+	}
+
+	/**
+	 * Get the row following the node in display order. Expanded nodes continue with their first child.
+	 *
+	 * @param node
+	 *            cached node
+	 * @return next row
+	 * @throws IllegalAccessError
+	 *             if the node is the last visible one
+	 */
+	WebTreeRow getNextRow(final TreeNode node) throws IllegalAccessError {
+		NodeState state = getState(node);
+		if (state.isExpanded && !state.isLeaf) {
+			List<TreeNode> children = expand(node);
+			if (!children.isEmpty()) {
+				return getRow(children.get(0));
+			}
+		}
+		for (TreeNode current = node; current.getParent() != null; current = current.getParent()) {
+			List<TreeNode> siblings = current.getParent().getChildren();
+			int index = indexOf(siblings, current);
+			if (index + 1 < siblings.size()) {
+				return getRow(siblings.get(index + 1));
+			}
+		}
+		throw new IllegalAccessError("[" + node.getDisplayedName() + "] is the last row of tree " + this.fTreeFinder);
+	}
+
+	/**
+	 * Count the visible rows before the node using the cached structure.
+	 *
+	 * @param node
+	 *            cached node
+	 * @return position among the visible rows, starting with 0
+	 */
+	int getPosition(final TreeNode node) {
+		int position = 0;
+		for (TreeNode current = node; current.getParent() != null; current = current.getParent()) {
+			List<TreeNode> siblings = current.getParent().getChildren();
+			int index = indexOf(siblings, current);
+			for (int i = 0; i < index; i++) {
+				position += countVisibleRows(siblings.get(i));
+			}
+			if (current.getParent() != this.fRoot) {
+				// the parent row itself
+				position++;
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Walk the path, expanding each node on it, which is not cached yet.
+	 *
+	 * @param elementNames
+	 *            path of the node
+	 * @return cached node; the root for an empty path
+	 */
+	private TreeNode resolve(final String... elementNames) {
+		TreeNode node = getRoot();
+		for (int depth = 0; depth < elementNames.length; depth++) {
+			TreeNode child = null;
+			for (TreeNode candidate : expand(node)) {
+				if (candidate.getDisplayedName().equals(elementNames[depth])) {
+					child = candidate;
+					break;
+				}
+			}
+			if (child == null) {
+				throw new NoSuchElementException("Tree " + this.fTreeFinder + " has no node "
+						+ Arrays.toString(Arrays.copyOf(elementNames, depth + 1)));
+			}
+			node = child;
+		}
+		return node;
+	}
+
+	/**
+	 * Expand everything below the node.
+	 *
+	 * @param node
+	 *            cached node
+	 * @return the node with its complete substructure
+	 */
+	private TreeNode gather(final TreeNode node) {
+		if (!getState(node).isLeaf) {
+			for (TreeNode child : expand(node)) {
+				gather(child);
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * @return root of the cached structure, read if needed
+	 */
+	private TreeNode getRoot() {
+		if (this.fRoot == null) {
+			TreeNode root = new TreeNode();
+			root.setDisplayedName(String.valueOf(this.fTreeFinder));
+			this.fRoot = root;
+			this.fStates.put(root, new NodeState(this.fDriver.findElement(this.fTreeFinder), true, false));
+			expand(root);
+		}
+		return this.fRoot;
+	}
+
+	/**
+	 * @param node
+	 *            cached node
+	 * @return state of the node
+	 */
+	private NodeState getState(final TreeNode node) {
+		NodeState state = this.fStates.get(node);
+		if (state == null) {
+			throw new IllegalArgumentException("[" + node.getDisplayedName() + "] is not a node of tree "
+					+ this.fTreeFinder + " (any more).");
+		}
+		return state;
+	}
+
+	/**
+	 * @param node
+	 *            cached node
+	 * @return number of visible rows of the node and below, as far as cached
+	 */
+	private int countVisibleRows(final TreeNode node) {
+		int count = 1;
+		NodeState state = getState(node);
+		if (state.isExpanded) {
+			for (TreeNode child : node.getChildren()) {
+				count += countVisibleRows(child);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @param nodes
+	 *            siblings
+	 * @param node
+	 *            node to find
+	 * @return index of the very node, not an equal one
+	 */
+	private static int indexOf(final List<TreeNode> nodes, final TreeNode node) {
+		for (int i = 0; i < nodes.size(); i++) {
+			if (nodes.get(i) == node) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return "WebTree " + this.fTreeFinder;
+	}
+
+	/**
+	 * Page state of a cached node.
+	 */
+	private static final class NodeState {
+		/** Item element; the tree element for the root. */
+		private final WebElement fElement;
+		/** Is the node a leaf? */
+		private final boolean isLeaf;
+		/** Is the node expanded? */
+		private boolean isExpanded;
+		/** Have the children been read? */
+		private boolean isLoaded;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param element
+		 *            item element
+		 * @param expanded
+		 *            is the node expanded?
+		 * @param leaf
+		 *            is the node a leaf?
+		 */
+		NodeState(final WebElement element, final boolean expanded, final boolean leaf) {
+			this.fElement = element;
+			this.isExpanded = expanded;
+			this.isLeaf = leaf;
+			this.isLoaded = leaf;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.whistl.selenium.structure;
+
+/**
+ * Row of a {@link WebTree}, backed by one of its cached nodes.
+ */
+public class WebTreeRow implements ITreeRow {
+
+	/** Tree the row belongs to. */
+	private final WebTree fTree;
+	/** Cached node of the row. */
+	private final TreeNode fNode;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param tree
+	 *            tree the row belongs to
+	 * @param node
+	 *            cached node of the row
+	 */
+	WebTreeRow(final WebTree tree, final TreeNode node) {
+		this.fTree = tree;
+		this.fNode = node;
+	}
+
+	/**
+	 * @return cached node of the row; its children are filled once the row has been expanded
+	 */
+	public TreeNode getNode() {
+		return this.fNode;
+	}
+
+	@Override
+	public String getText() {
+		return this.fNode.getDisplayedName();
+	}
+
+	@Override
+	public void select() {
+		this.fTree.select(this.fNode);
+	}
+
+	@Override
+	public boolean isSelected() {
+		return this.fTree.isSelected(this.fNode);
+	}
+
+	@Override
+	public ITreeRow getNextRow() throws IllegalAccessError {
+		return this.fTree.getNextRow(this.fNode);
+	}
+
+	/**
+	 * Position among the visible rows, as far as they are cached.
+	 */
+	@Override
+	public int getTablePositionCounter() {
+		return this.fTree.getPosition(this.fNode);
+	}
+
+	@Override
+	public void expandTree() {
+		this.fTree.expand(this.fNode);
+	}
+
+	@Override
+	public boolean isExpanded() {
+		return this.fTree.isExpanded(this.fNode);
+	}
+
+	@Override
+	public boolean isLeaf() {
+		return this.fTree.isLeaf(this.fNode);
+	}
+
+	@Override
+	public String toString() {
+		return this.fNode.getDisplayedName();
+	}
+}
@@ -4,18 +4,16 @@ import java.io.File;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.Dimension;
-import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchWindowException;
-import org.openqa.selenium.Platform;
+import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.remote.Augmenter;
-import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
@@ -28,7 +26,13 @@ import org.testng.annotations.Parameters;
 import com.whistl.selenium.pages.AbstractPage;
 import com.whistl.selenium.test.evaluation.IResultEvaluator;
 import com.whistl.selenium.util.CaptureScreenshots;
+import com.whistl.selenium.util.DriverFactory;
 import com.whistl.selenium.util.ElementHighlighter;
+import com.whistl.selenium.util.LocatorAnalyzer;
+import com.whistl.selenium.util.WindowTracker;
+import com.whistl.selenium.util.remote.CommandLatencyMetrics;
+import com.whistl.selenium.util.remote.InstrumentedCommandExecutor;
+import com.whistl.selenium.util.remote.PooledHttpClientFactory;
 
 /**
  * Starts the session based on the test suite parameter <b>{@code testTarget}
@@ -69,15 +73,13 @@ public abstract class AbstractTest {
 	/** Screenshot store folder. */
 	private String fScreenshotStoreFolder;
 
-	/**
-	 * Minimal length of a valid html page. Productive pages should be at least
-	 * this long.
-	 */
-	private static final int MIN_HTML_PAGE_LENGTH = 50;
 	
 	/** Platform to be tested on. */
 	private PlatformTypeEnum platformTypeEnum;
 
+	/** Is the browser running without a visible window? */
+	private boolean isHeadless;
+
 	/**
 	 * This method is run before the test. It opens the {@link webSite} in the
 	 * {@link browser} and preconfigures the {@link screenshotStoreFolder} for
@@ -98,62 +100,80 @@ public abstract class AbstractTest {
 	 *            default: WINDOWS, should something different be used, this
 	 *            value can override it. Make sure to use the same platform as
 	 *            used in node.json configuration. For allowed values see
-	 *            {@link Platform}
+	 *            {@link org.openqa.selenium.Platform}
 	 * @param testTarget
 	 *            the start website to open in the browser
 	 * @param screenshotStoreFolder
 	 *            the folder to store images
+	 * @param gridConnectTimeout
+	 *            time to establish a connection to the Selenium Grid server
+	 *            (in milliseconds)
+	 * @param gridReadTimeout
+	 *            time to wait for the response of the Selenium Grid server to
+	 *            a command (in milliseconds)
+	 * @param browserProfile
+	 *            name of the {@link BrowserProfileEnum} to start the browser
+	 *            with (default: {@code default})
+	 * @param blockedDomains
+	 *            comma separated domains the browser should not contact. Used
+	 *            by the {@link BrowserProfileEnum#PERFORMANCE} profile only.
+	 * @param windowSize
+	 *            size of the browser window, e.g. {@code 1366x768}. The
+	 *            window is maximised if empty.
+	 * @param locatorAnalysis
+	 *            {@code true} to time the locators and report slow or fragile
+	 *            ones (see {@link LocatorAnalyzer})
 	 * @throws MalformedURLException
 	 *             if the gridServer parameter is not correct
 	 */
 
 	@BeforeClass(groups = { "default" }, alwaysRun = true)
 	@Parameters({ "browserStack", "gridServer", "port", "driverPath", "geckodriverPath","os",
-			"platform", "testTarget", "screenshotStoreFolder" })
+			"platform", "testTarget", "screenshotStoreFolder", "gridConnectTimeout", "gridReadTimeout",
+			"browserProfile", "blockedDomains", "windowSize", "locatorAnalysis" })
 	protected final void startSession(@Optional("") final String browserStack,
 			@Optional("") final String gridServer,
 			@Optional("4444") final String port,
 			@Optional() final String driverPath,@Optional() final String geckodriverPath,
 			@Optional("WINDOWS") final String operatingSystem,
 			@Optional() final String platform,@Optional() final String testTarget,
-			@Optional() final String screenshotStoreFolder) throws MalformedURLException {
+			@Optional() final String screenshotStoreFolder,
+			@Optional("10000") final String gridConnectTimeout,
+			@Optional("120000") final String gridReadTimeout,
+			@Optional("default") final String browserProfile,
+			@Optional("") final String blockedDomains,
+			@Optional("") final String windowSize,
+			@Optional("false") final String locatorAnalysis) throws MalformedURLException {
 
 		this.fScreenshotStoreFolder = screenshotStoreFolder;
+		if (Boolean.parseBoolean(locatorAnalysis)) {
+			LocatorAnalyzer.INSTANCE.setEnabled(true);
+		}
 		// do the @pre
 		ensurePreConditions();
 
 		// initialise driver
-		DesiredCapabilities capabilities;
 		this.platformTypeEnum = PlatformTypeEnum.getByName(platform);
-	//	String callingClassName = this.getClass().getSimpleName();
-		switch (this.platformTypeEnum) {
-		case CHROME:
-			capabilities = DesiredCapabilities.chrome();
-			// multiple platforms (operating systems) possible
-			capabilities.setPlatform(Platform.valueOf(operatingSystem));
-			if (useGridServer(gridServer)) {
-				setDriver(new RemoteWebDriver(
-						getGridServerURL(gridServer, port), capabilities));
-				// add capture screenshot capabilities
-				augmentRemoteWebDriverCapabilities();
-			} else {
-				applyDriver("webdriver.chrome.driver", driverPath);
-                ChromeOptions options = new ChromeOptions();
-                options.merge(capabilities);
-				ChromeDriver chromeDriver = new ChromeDriver(options);
-				setDriver(chromeDriver);
+		BrowserCapabilityBuilder capabilityBuilder = new BrowserCapabilityBuilder(
+				this.platformTypeEnum).operatingSystem(operatingSystem)
+				.profile(BrowserProfileEnum.getByName(browserProfile))
+				.blockedDomains(Arrays.asList(blockedDomains.split(",")));
+		this.isHeadless = capabilityBuilder.isHeadless();
+		if (useGridServer(gridServer)) {
+			setDriver(createRemoteDriver(getGridServerURL(gridServer, port),
+					capabilityBuilder.build(),
+					Long.valueOf(gridConnectTimeout),
+					Long.valueOf(gridReadTimeout)));
+			// add capture screenshot capabilities
+			augmentRemoteWebDriverCapabilities();
+		} else {
+			if (this.platformTypeEnum.getDriverProperty() != null) {
+				// Firefox has its own driver path parameter
+				applyDriver(this.platformTypeEnum.getDriverProperty(),
+						this.platformTypeEnum == PlatformTypeEnum.FIREFOX ? geckodriverPath
+								: driverPath);
 			}
-			break;
-
-		case SAFARI:
-			//to be written
-			break;
-
-		case FIREFOX:
-			//to be written
-			break;
-		case IE:
-			break;
+			setDriver(capabilityBuilder.createLocalDriver());
 		}
 		checkPreConditions();
 
@@ -170,9 +190,12 @@ public abstract class AbstractTest {
 
 		if (this.platformTypeEnum.isWeb().booleanValue()) {
 
-			// setupScreenToSize(new Dimension(browserWindowWidth,
-			// browserWindowHeight));
-			if (this.platformTypeEnum.isMaximizable().booleanValue()) {
+			Dimension windowDimension = CrossBrowserRunner
+					.parseWindowSize(windowSize);
+			if (windowDimension != null) {
+				setupScreenToSize(windowDimension);
+			} else if (this.platformTypeEnum.isMaximizable().booleanValue()
+					&& !this.isHeadless) {
 				maximiseWindow();
 			}
 
@@ -320,14 +343,41 @@ public abstract class AbstractTest {
 	}
 
 	/**
-	 * RemoteWebDriver does not implement the
-	 * {@link org.openqa.selenium.TakesScreenshot TakesScreenshot} class if the
-	 * driver does have the Capabilities to take a screenshot then Augmenter
-	 * will add the TakesScreenshot methods to the instance.
+	 * Create a driver talking to the Selenium Grid server. All drivers share
+	 * the connection pool of {@link PooledHttpClientFactory} and record the
+	 * command latencies in {@link CommandLatencyMetrics}.
+	 * 
+	 * @param gridServerURL
+	 *            URL of the hub
+	 * @param capabilities
+	 *            requested capabilities
+	 * @param connectTimeout
+	 *            time to establish a connection (in milliseconds)
+	 * @param readTimeout
+	 *            time to wait for the response of a command (in milliseconds)
+	 * @return remote driver
+	 */
+	private static RemoteWebDriver createRemoteDriver(final URL gridServerURL,
+			final Capabilities capabilities, final Long connectTimeout,
+			final Long readTimeout) {
+		return new RemoteWebDriver(new InstrumentedCommandExecutor(
+				gridServerURL, new PooledHttpClientFactory(connectTimeout,
+						readTimeout)), capabilities);
+	}
+
+	/**
+	 * Should the driver not implement the
+	 * {@link org.openqa.selenium.TakesScreenshot TakesScreenshot} class but
+	 * have the Capabilities to take a screenshot, then Augmenter will add the
+	 * TakesScreenshot methods to the instance. RemoteWebDriver implements it
+	 * already, so the (proxying) augmentation is skipped for it.
 	 * 
 	 * @see org.openqa.selenium.remote.Augmenter
 	 */
 	private void augmentRemoteWebDriverCapabilities() {
+		if (getDriver() instanceof TakesScreenshot) {
+			return;
+		}
 		WebDriver augmentedDriver = new Augmenter().augment(getDriver());
 		// now store for further usage
 		setDriver(augmentedDriver);
@@ -344,23 +394,10 @@ public abstract class AbstractTest {
 	 */
 	protected final void callURLInNewWindow(final String url,
 			final IResultEvaluator evaluator) {
-		// open a new window
-		JavascriptExecutor jsExecutor = (JavascriptExecutor) getDriver();
-		jsExecutor.executeScript("window.open()");
-		String[] windowHandles = new String[] {};
-		// get the handles for currently open browser windows (should be 2)
-		windowHandles = getDriver().getWindowHandles().toArray(windowHandles);
-		// verify the number of open windows
-		assert windowHandles.length == 2 : "Unexpected number of open windows.";
-
-		// go to the last opened window
-		for (String windowHandle : windowHandles) {
-			getDriver().switchTo().window(windowHandle);
-			if (getDriver().getPageSource().length() < MIN_HTML_PAGE_LENGTH) {
-				// this should be the newly opened window
-				break;
-			}
-		}
+		String originalWindowHandle = getDriver().getWindowHandle();
+		WindowTracker tracker = WindowTracker.of(getDriver());
+		// open a new window and go to it
+		tracker.openBlankWindow();
 		// call
 		getDriver().navigate().to(url);
 
@@ -370,9 +407,8 @@ public abstract class AbstractTest {
 		Logger.INSTANCE.logStepResult("urlExecuted");
 		// evaluator.evaluateCallResult(getDriver());
 		// close the window
-		getDriver().close();
-		getDriver().switchTo().window(
-				getDriver().getWindowHandles().iterator().next());
+		tracker.closeCurrentWindow();
+		getDriver().switchTo().window(originalWindowHandle);
 	}
 
 	/**
@@ -409,7 +445,6 @@ public abstract class AbstractTest {
 	 * @param windowDimension
 	 *            {@link Dimension} containing width and height
 	 */
-	@SuppressWarnings("unused")
 	private void setupScreenToSize(final Dimension windowDimension) {
 		getDriver().manage().window().setSize(windowDimension);
 	}
@@ -471,8 +506,20 @@ public abstract class AbstractTest {
 				Logger.logStepResult("driver.quit was not successfully sent",
 						Boolean.FALSE);
 			}
+			DriverFactory.releaseDriver(getDriver());
 		}
 		Logger.INSTANCE.logStepResult("Session closed.", Boolean.FALSE);
+		if (!CommandLatencyMetrics.INSTANCE.isEmpty()) {
+			Logger.logStepResult("Grid command latencies so far:"
+					+ System.lineSeparator()
+					+ CommandLatencyMetrics.INSTANCE.getReport(), Boolean.FALSE);
+		}
+		if (LocatorAnalyzer.INSTANCE.isEnabled()
+				&& !LocatorAnalyzer.INSTANCE.isEmpty()) {
+			Logger.logStepResult("Locators ranked by cost so far:"
+					+ System.lineSeparator()
+					+ LocatorAnalyzer.INSTANCE.getReport(), Boolean.FALSE);
+		}
 	}
 
 	/**
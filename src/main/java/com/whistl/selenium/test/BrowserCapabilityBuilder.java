@@ -0,0 +1,186 @@
+package com.whistl.selenium.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.ie.InternetExplorerDriver;
+import org.openqa.selenium.ie.InternetExplorerOptions;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariOptions;
+
+/**
+ * Builds the browser options for a {@link PlatformTypeEnum}. The same options are used for local execution and for
+ * the Selenium Grid server, so a suite behaves the same on both paths. Usage:<br>
+ * {@code new BrowserCapabilityBuilder(PlatformTypeEnum.FIREFOX).operatingSystem("MAC").profile(profile).build()}<br>
+ * The builder holds no shared state, so sessions for different browsers can be started in parallel.
+ */
+public class BrowserCapabilityBuilder {
+
+	/** Browser to build the options for. */
+	private final PlatformTypeEnum fPlatformType;
+	/** Operating system requested from the grid. {@code null} for any. */
+	private Platform fOperatingSystem;
+	/** Profile to start the browser with. */
+	private BrowserProfileEnum fProfile = BrowserProfileEnum.DEFAULT;
+	/** Domains the browser should not contact. */
+	private List<String> fBlockedDomains = Collections.emptyList();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param platformType
+	 *            browser to build the options for
+	 */
+	public BrowserCapabilityBuilder(final PlatformTypeEnum platformType) {
+		if (platformType == null) {
+			throw new IllegalArgumentException("The platform has to be set to build browser options.");
+		}
+		this.fPlatformType = platformType;
+	}
+
+	/**
+	 * Request a specific operating system. Make sure to use the same platform as used in node.json configuration.
+	 *
+	 * @param operatingSystem
+	 *            name of a {@link Platform}; {@code null} or empty for any
+	 * @return this builder
+	 */
+	public BrowserCapabilityBuilder operatingSystem(final String operatingSystem) {
+		if (operatingSystem == null || operatingSystem.trim().length() == 0) {
+			this.fOperatingSystem = null;
+		} else {
+			this.fOperatingSystem = Platform.valueOf(operatingSystem.trim());
+		}
+		return this;
+	}
+
+	/**
+	 * Set the profile to start the browser with.
+	 *
+	 * @param profile
+	 *            browser profile; {@code null} for {@link BrowserProfileEnum#DEFAULT}
+	 * @return this builder
+	 */
+	public BrowserCapabilityBuilder profile(final BrowserProfileEnum profile) {
+		this.fProfile = profile == null ? BrowserProfileEnum.DEFAULT : profile;
+		return this;
+	}
+
+	/**
+	 * Set the domains the browser should not contact. Used by {@link BrowserProfileEnum#PERFORMANCE} only.
+	 *
+	 * @param blockedDomains
+	 *            domains to block
+	 * @return this builder
+	 */
+	public BrowserCapabilityBuilder blockedDomains(final Collection<String> blockedDomains) {
+		this.fBlockedDomains = blockedDomains == null ? Collections.<String> emptyList()
+				: new ArrayList<String>(blockedDomains);
+		return this;
+	}
+
+	/**
+	 * Build the browser specific options.
+	 *
+	 * @return {@link ChromeOptions}, {@link FirefoxOptions}, {@link SafariOptions} or {@link InternetExplorerOptions}
+	 *         depending on the platform
+	 */
+	public MutableCapabilities build() {
+		MutableCapabilities options;
+		switch (this.fPlatformType) {
+		case CHROME:
+			options = this.fProfile.applyTo(new ChromeOptions(), this.fBlockedDomains);
+			break;
+		case FIREFOX:
+			options = this.fProfile.applyTo(new FirefoxOptions(), this.fBlockedDomains);
+			break;
+		case SAFARI:
+			SafariOptions safariOptions = new SafariOptions();
+			// no Web Inspector or timeline recording while testing
+			safariOptions.setAutomaticInspection(false);
+			safariOptions.setAutomaticProfiling(false);
+			options = safariOptions;
+			logUnsupportedProfile();
+			break;
+		case IE:
+			InternetExplorerOptions ieOptions = new InternetExplorerOptions();
+			// start from a clean session, since cookies can't be deleted reliably otherwise
+			ieOptions.destructivelyEnsureCleanSession();
+			options = ieOptions;
+			logUnsupportedProfile();
+			break;
+		default:
+			throw new IllegalStateException("No options defined for platform " + this.fPlatformType);
+		}
+		if (this.fOperatingSystem != null) {
+			options.setCapability(CapabilityType.PLATFORM_NAME, this.fOperatingSystem);
+		}
+		return options;
+	}
+
+	/**
+	 * Start a local browser with the built options. The driver executable has to be known beforehand (see
+	 * {@link PlatformTypeEnum#getDriverProperty()}).
+	 *
+	 * @return started driver
+	 */
+	public WebDriver createLocalDriver() {
+		MutableCapabilities options = build();
+		switch (this.fPlatformType) {
+		case CHROME:
+			return new ChromeDriver((ChromeOptions) options);
+		case FIREFOX:
+			return new FirefoxDriver((FirefoxOptions) options);
+		case SAFARI:
+			return new SafariDriver((SafariOptions) options);
+		case IE:
+			return new InternetExplorerDriver((InternetExplorerOptions) options);
+		default:
+			throw new IllegalStateException("No local driver defined for platform " + this.fPlatformType);
+		}
+	}
+
+	/**
+	 * @return the browser the options are built for
+	 */
+	public PlatformTypeEnum getPlatformType() {
+		return this.fPlatformType;
+	}
+
+	/**
+	 * @return the profile the browser is started with
+	 */
+	public BrowserProfileEnum getProfile() {
+		return this.fProfile;
+	}
+
+	/**
+	 * Will the started browser run without a visible window?
+	 *
+	 * @return {@code true} if the profile is headless and supported by the browser
+	 */
+	public boolean isHeadless() {
+		return this.fProfile.isHeadless().booleanValue()
+				&& (this.fPlatformType == PlatformTypeEnum.CHROME || this.fPlatformType == PlatformTypeEnum.FIREFOX);
+	}
+
+	/**
+	 * The profile changes nothing for browsers without headless mode. Let the user know.
+	 */
+	private void logUnsupportedProfile() {
+		if (this.fProfile != BrowserProfileEnum.DEFAULT) {
+			Logger.logStepResult("Browser profile [" + this.fProfile + "] is not supported by ["
+					+ this.fPlatformType + "], using the default one.", false);
+		}
+	}
+}
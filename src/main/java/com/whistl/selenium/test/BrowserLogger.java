@@ -10,16 +10,17 @@ import com.whistl.selenium.util.RenewableWebElement;
 
 /**
  * Use this enum to log URL at the time of test failure.<br>
- * An enum is used for implementation in order to make it a thread safe and serializable singleton.
+ * An enum is used for implementation in order to make it a thread safe and serializable singleton. Driver and platform
+ * are kept per thread, so tests running in parallel (see {@link CrossBrowserRunner}) log their own browser.
  */
 public enum BrowserLogger {
 	/** The only instance of the logger. */
 	INSTANCE;
 
 	/** WebDriver set to capture the screen. */
-	private WebDriver fDriver;
+	private final ThreadLocal<WebDriver> fDriver = new ThreadLocal<WebDriver>();
 	/** Platform used. */
-	private PlatformTypeEnum fPlatformType;
+	private final ThreadLocal<PlatformTypeEnum> fPlatformType = new ThreadLocal<PlatformTypeEnum>();
 
 	/**
 	 * Set the WebDriver, which is going to be used.
@@ -28,7 +29,7 @@ public enum BrowserLogger {
 	 *            displaying the page.
 	 */
 	public void setDriver(final WebDriver driver) {
-		this.fDriver = driver;
+		this.fDriver.set(driver);
 	}
 
 	/**
@@ -43,10 +44,10 @@ public enum BrowserLogger {
 	 */
 	public void logUrl(final String url, final boolean captureScreenshot) throws OperationNotSupportedException {
 		if (url != null && url.length() > 0) {
-			this.fDriver.navigate().to(url);
+			this.fDriver.get().navigate().to(url);
 		}
 		try {
-			Logger.logStepResult("Url:[" + this.fDriver.getCurrentUrl() + "]", captureScreenshot);
+			Logger.logStepResult("Url:[" + this.fDriver.get().getCurrentUrl() + "]", captureScreenshot);
 		} catch (WebDriverException e) {
 			throw new OperationNotSupportedException();
 		}
@@ -69,7 +70,8 @@ public enum BrowserLogger {
 
 	/**
 	 * Documents the step the same way as {@link #logStepResult(String)} does. Additionally highlights the
-	 * <b>element</b>.
+	 * <b>element</b> on the screenshot; without {@link Logger#isCaptureMode() capture mode} the highlight would not be
+	 * seen, so the browser is not called at all.
 	 * 
 	 * @param message
 	 *            to log as part of the file name
@@ -81,9 +83,16 @@ public enum BrowserLogger {
 	public static void logStepResult(final String message, final RenewableWebElement element,
 			final String callingClassName) {
 		try {
+			if (!Logger.INSTANCE.isCaptureMode()) {
+				logStepResult(message, callingClassName);
+				return;
+			}
 			ElementHighlighter.INSTANCE.highlightElement(element);
-			logStepResult(message, callingClassName);
-			ElementHighlighter.INSTANCE.restoreElement(element);
+			try {
+				logStepResult(message, callingClassName);
+			} finally {
+				ElementHighlighter.INSTANCE.restoreElement(element);
+			}
 		} catch (Exception e) {
 			// Do Nothing
 			System.err.println(e.getMessage());
@@ -96,7 +105,7 @@ public enum BrowserLogger {
 	 * @return {@link PlatformTypeEnum}
 	 */
 	public final PlatformTypeEnum getPlatformType() {
-		return this.fPlatformType;
+		return this.fPlatformType.get();
 	}
 
 	/**
@@ -106,6 +115,6 @@ public enum BrowserLogger {
 	 *            platform
 	 */
 	public void setPlatformType(final PlatformTypeEnum platformType) {
-		this.fPlatformType = platformType;
+		this.fPlatformType.set(platformType);
 	}
 }
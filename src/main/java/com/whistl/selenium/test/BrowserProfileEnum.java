@@ -0,0 +1,188 @@
+package com.whistl.selenium.test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+/**
+ * Enumeration of browser profiles. A profile defines how the browser is started independently of the browser type,
+ * e.g. whether it has a visible window or whether images are loaded.<br>
+ * The profile is selected per suite via the parameter {@code browserProfile} (TestNG) or the property
+ * {@code browserProfile} (config.properties).
+ */
+public enum BrowserProfileEnum {
+
+	/** Browser as the user sees it: visible window, all resources loaded. */
+	DEFAULT("default", Boolean.FALSE),
+
+	/**
+	 * Browser for functional-only suites: no window, no images, no web fonts, no extensions, no GPU work. Requests to
+	 * blocked domains fail immediately. Supported by Chrome and Firefox; other browsers ignore it.
+	 */
+	PERFORMANCE("performance", Boolean.TRUE);
+
+	/** Window width used if there is no window to maximise. */
+	public static final int HEADLESS_WINDOW_WIDTH = 1920;
+	/** Window height used if there is no window to maximise. */
+	public static final int HEADLESS_WINDOW_HEIGHT = 1080;
+
+	/** Name of the profile as used in the configuration. */
+	private String fName;
+
+	/** Is the browser started without a visible window? */
+	private Boolean fIsHeadless;
+
+	/**
+	 * internal mapping of names to enumeration entries for quick access by name.
+	 */
+	private static Map<String, BrowserProfileEnum> allElementsMap;
+
+	static {
+		allElementsMap = new HashMap<String, BrowserProfileEnum>();
+		for (BrowserProfileEnum profile : BrowserProfileEnum.values()) {
+			allElementsMap.put(profile.fName, profile);
+		}
+	}
+
+	/**
+	 * Internal constructor.
+	 *
+	 * @param name
+	 *            the name of the profile
+	 * @param isHeadless
+	 *            is the browser started without a visible window
+	 */
+	private BrowserProfileEnum(final String name, final Boolean isHeadless) {
+		this.fName = name;
+		this.fIsHeadless = isHeadless;
+	}
+
+	/**
+	 * Use this method to get the corresponding enumeration entry by name.
+	 *
+	 * @param name
+	 *            the name of the profile
+	 * @return enumeration entry for the name or {@link #DEFAULT} if the name is empty or unknown
+	 */
+	public static BrowserProfileEnum getByName(final String name) {
+		if (name == null) {
+			return DEFAULT;
+		}
+		BrowserProfileEnum profile = allElementsMap.get(name.trim().toLowerCase());
+		return profile == null ? DEFAULT : profile;
+	}
+
+	/**
+	 * Is the browser started without a visible window? Such a window can't be maximised.
+	 *
+	 * @return {@code true} if headless
+	 */
+	public Boolean isHeadless() {
+		return this.fIsHeadless;
+	}
+
+	/**
+	 * Apply the profile to the Chrome options.
+	 *
+	 * @param options
+	 *            options to be modified
+	 * @param blockedDomains
+	 *            domains, which should not be contacted by the browser. A leading {@code *.} matches all subdomains.
+	 *            Ignored by the {@link #DEFAULT} profile.
+	 * @return the modified options
+	 */
+	public ChromeOptions applyTo(final ChromeOptions options, final Collection<String> blockedDomains) {
+		if (this == DEFAULT) {
+			return options;
+		}
+		options.setHeadless(true);
+		options.addArguments("--window-size=" + HEADLESS_WINDOW_WIDTH + "," + HEADLESS_WINDOW_HEIGHT,
+				"--disable-gpu", "--disable-extensions", "--disable-remote-fonts",
+				"--blink-settings=imagesEnabled=false", "--disable-background-networking");
+		Map<String, Object> prefs = new HashMap<String, Object>();
+		prefs.put("profile.managed_default_content_settings.images", Integer.valueOf(2));
+		options.setExperimentalOption("prefs", prefs);
+		if (blockedDomains != null && !blockedDomains.isEmpty()) {
+			options.addArguments("--host-resolver-rules=" + getHostResolverRules(blockedDomains));
+		}
+		return options;
+	}
+
+	/**
+	 * Apply the profile to the Firefox options.
+	 *
+	 * @param options
+	 *            options to be modified
+	 * @param blockedDomains
+	 *            domains, which should not be contacted by the browser. Firefox can't block whole domain trees, so a
+	 *            leading {@code *.} is ignored. Ignored by the {@link #DEFAULT} profile.
+	 * @return the modified options
+	 */
+	public FirefoxOptions applyTo(final FirefoxOptions options, final Collection<String> blockedDomains) {
+		if (this == DEFAULT) {
+			return options;
+		}
+		options.setHeadless(true);
+		options.addArguments("-width=" + HEADLESS_WINDOW_WIDTH, "-height=" + HEADLESS_WINDOW_HEIGHT);
+		options.addPreference("permissions.default.image", 2);
+		options.addPreference("gfx.downloadable_fonts.enabled", false);
+		options.addPreference("layers.acceleration.disabled", true);
+		options.addPreference("extensions.enabledScopes", 0);
+		options.addPreference("app.update.enabled", false);
+		if (blockedDomains != null && !blockedDomains.isEmpty()) {
+			options.addPreference("network.dns.localDomains", getLocalDomains(blockedDomains));
+		}
+		return options;
+	}
+
+	/**
+	 * Create the Firefox list of domains resolved to the local host. Nothing is expected to answer there, so the
+	 * requests fail immediately.
+	 *
+	 * @param blockedDomains
+	 *            domains to block
+	 * @return comma separated domains as expected by {@code network.dns.localDomains}
+	 */
+	static String getLocalDomains(final Collection<String> blockedDomains) {
+		StringBuilder domains = new StringBuilder();
+		for (String domain : blockedDomains) {
+			String trimmedDomain = domain.trim();
+			if (trimmedDomain.startsWith("*.")) {
+				trimmedDomain = trimmedDomain.substring(2);
+			}
+			if (trimmedDomain.length() == 0) {
+				continue;
+			}
+			if (domains.length() > 0) {
+				domains.append(',');
+			}
+			domains.append(trimmedDomain);
+		}
+		return domains.toString();
+	}
+
+	/**
+	 * Create the Chrome host resolver rules mapping each domain to a failing lookup.
+	 *
+	 * @param blockedDomains
+	 *            domains to block
+	 * @return rules as expected by {@code --host-resolver-rules}
+	 */
+	static String getHostResolverRules(final Collection<String> blockedDomains) {
+		StringBuilder rules = new StringBuilder();
+		for (String domain : blockedDomains) {
+			String trimmedDomain = domain.trim();
+			if (trimmedDomain.length() == 0) {
+				continue;
+			}
+			if (rules.length() > 0) {
+				rules.append(", ");
+			}
+			rules.append("MAP ").append(trimmedDomain).append(" ~NOTFOUND");
+		}
+		return rules.toString();
+	}
+}
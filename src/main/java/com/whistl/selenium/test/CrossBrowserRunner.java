@@ -0,0 +1,277 @@
+package com.whistl.selenium.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.Dimension;
+import org.testng.ITestNGListener;
+import org.testng.TestNG;
+import org.testng.xml.Parser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Runs a TestNG suite (plain TestNG tests or the Cucumber {@code TestRunner}) across a matrix of
+ * {@link PlatformTypeEnum browsers} and window sizes at the same time.<br>
+ * Every {@code <test>} of the suite is copied once per browser and window size. The copies get the parameters
+ * {@code platform} and {@code windowSize} and their own screenshot folder, and are executed in parallel (one thread
+ * per copy unless limited). The results end up in one TestNG report; {@link CrossBrowserTimingReporter} adds a timing
+ * comparison per browser.<br>
+ * Usage:<br>
+ * {@code CrossBrowserRunner resources/testng/seleniumDemoTestng.xml chrome,firefox [1920x1080,1366x768] [threads]}
+ */
+public final class CrossBrowserRunner {
+
+	/** Parameter holding the name of the browser (see {@link PlatformTypeEnum}). */
+	public static final String PLATFORM_PARAMETER = "platform";
+	/** Parameter holding the window size, e.g. {@code 1366x768}. Empty to maximise the window. */
+	public static final String WINDOW_SIZE_PARAMETER = "windowSize";
+	/** Parameter holding the screenshot folder. */
+	public static final String SCREENSHOT_FOLDER_PARAMETER = "screenshotStoreFolder";
+	/** Parameter holding the driver path for local execution. */
+	private static final String DRIVER_PATH_PARAMETER = "driverPath";
+	/** Parameter holding the gecko driver path for local execution. */
+	private static final String GECKODRIVER_PATH_PARAMETER = "geckodriverPath";
+
+	/** Separator of the values in the command line arguments. */
+	private static final String LIST_SEPARATOR = ",";
+	/** Format of a window size: width x height. */
+	private static final Pattern WINDOW_SIZE_PATTERN = Pattern.compile("(\\d+)\\s*[xX]\\s*(\\d+)");
+
+	/**
+	 * Utility class.
+	 */
+	private CrossBrowserRunner() {
+	}
+
+	/**
+	 * Run the suite.
+	 *
+	 * @param args
+	 *            suite file, comma separated browsers, optionally comma separated window sizes and the maximal number
+	 *            of parallel tests
+	 * @throws IOException
+	 *             if the suite file can't be read
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: CrossBrowserRunner <suite.xml> <browser,browser,...> "
+					+ "[<width>x<height>,...] [<threads>]");
+			System.exit(2);
+		}
+		List<PlatformTypeEnum> platforms = getPlatforms(args[1]);
+		List<String> windowSizes = args.length > 2 ? split(args[2]) : Collections.<String> emptyList();
+		int threadCount = args.length > 3 ? Integer.parseInt(args[3].trim()) : 0;
+
+		TestNG testNG = createTestNG(args[0], platforms, windowSizes, threadCount);
+		testNG.run();
+		System.exit(testNG.getStatus());
+	}
+
+	/**
+	 * Create a TestNG instance running the fanned out suite.
+	 *
+	 * @param suiteFile
+	 *            path to the suite file
+	 * @param platforms
+	 *            browsers to run on
+	 * @param windowSizes
+	 *            window sizes to run with ({@code width}x{@code height}); empty to run with a maximised window only
+	 * @param threadCount
+	 *            maximal number of tests running at the same time; 0 or less for one thread per copy
+	 * @return TestNG ready to run
+	 * @throws IOException
+	 *             if the suite file can't be read
+	 */
+	public static TestNG createTestNG(final String suiteFile, final List<PlatformTypeEnum> platforms,
+			final List<String> windowSizes, final int threadCount) throws IOException {
+		List<XmlSuite> suites = new ArrayList<XmlSuite>(new Parser(suiteFile).parse());
+		for (XmlSuite suite : suites) {
+			fanOut(suite, platforms, windowSizes, threadCount);
+		}
+		TestNG testNG = new TestNG();
+		testNG.setXmlSuites(suites);
+		testNG.addListener((ITestNGListener) new CrossBrowserTimingReporter());
+		return testNG;
+	}
+
+	/**
+	 * Replace the tests of the suite by one copy per browser and window size and let the copies run in parallel.
+	 *
+	 * @param suite
+	 *            suite to modify
+	 * @param platforms
+	 *            browsers to run on
+	 * @param windowSizes
+	 *            window sizes to run with; empty to run with a maximised window only
+	 * @param threadCount
+	 *            maximal number of tests running at the same time; 0 or less for one thread per copy
+	 */
+	public static void fanOut(final XmlSuite suite, final List<PlatformTypeEnum> platforms,
+			final List<String> windowSizes, final int threadCount) {
+		if (platforms.isEmpty()) {
+			throw new IllegalArgumentException("At least one browser is needed to run suite " + suite.getName());
+		}
+		List<String> sizes = windowSizes.isEmpty() ? Collections.singletonList("") : windowSizes;
+		for (String size : sizes) {
+			// fail before anything runs
+			parseWindowSize(size);
+		}
+
+		List<XmlTest> originalTests = new ArrayList<XmlTest>(suite.getTests());
+		suite.getTests().clear();
+		for (XmlTest originalTest : originalTests) {
+			for (PlatformTypeEnum platform : platforms) {
+				for (String size : sizes) {
+					createVariant(originalTest, platform, size);
+				}
+			}
+		}
+		suite.setParallel(XmlSuite.ParallelMode.TESTS);
+		suite.setThreadCount(threadCount > 0 ? threadCount : suite.getTests().size());
+	}
+
+	/**
+	 * Copy the test for one browser and window size. The copy is added to the suite of the original test.
+	 *
+	 * @param originalTest
+	 *            test to copy
+	 * @param platform
+	 *            browser to run on
+	 * @param windowSize
+	 *            window size; empty to maximise
+	 * @return the copy
+	 */
+	private static XmlTest createVariant(final XmlTest originalTest, final PlatformTypeEnum platform,
+			final String windowSize) {
+		String variantName = getVariantName(platform, windowSize);
+		// the clone adds itself to the suite
+		XmlTest variant = (XmlTest) originalTest.clone();
+		variant.setName(originalTest.getName() + " [" + variantName + "]");
+
+		Map<String, String> parameters = new HashMap<String, String>(originalTest.getLocalParameters());
+		parameters.put(PLATFORM_PARAMETER, platform.getName());
+		parameters.put(WINDOW_SIZE_PARAMETER, windowSize);
+		// the copies run at the same time, so they must not overwrite each other's screenshots
+		String screenshotFolder = originalTest.getParameter(SCREENSHOT_FOLDER_PARAMETER);
+		if (screenshotFolder != null) {
+			parameters.put(SCREENSHOT_FOLDER_PARAMETER, screenshotFolder + File.separator + variantName);
+		}
+		if (!platform.getName().equals(originalTest.getParameter(PLATFORM_PARAMETER))) {
+			// the configured driver belongs to another browser
+			applyDefaultDriverPath(parameters, platform);
+		}
+		variant.setParameters(parameters);
+
+		List<XmlClass> classes = new ArrayList<XmlClass>();
+		for (XmlClass originalClass : originalTest.getXmlClasses()) {
+			XmlClass xmlClass = (XmlClass) originalClass.clone();
+			// not copied by clone()
+			xmlClass.setParameters(new HashMap<String, String>(originalClass.getLocalParameters()));
+			xmlClass.setXmlTest(variant);
+			classes.add(xmlClass);
+		}
+		variant.setXmlClasses(classes);
+		return variant;
+	}
+
+	/**
+	 * Point the driver path parameters to the project's driver of the browser, if there is one.
+	 *
+	 * @param parameters
+	 *            parameters of the test copy
+	 * @param platform
+	 *            browser of the test copy
+	 */
+	private static void applyDefaultDriverPath(final Map<String, String> parameters,
+			final PlatformTypeEnum platform) {
+		String driverPathParameter = platform == PlatformTypeEnum.FIREFOX ? GECKODRIVER_PATH_PARAMETER
+				: DRIVER_PATH_PARAMETER;
+		parameters.remove(DRIVER_PATH_PARAMETER);
+		parameters.remove(GECKODRIVER_PATH_PARAMETER);
+		String defaultDriverPath = platform.getDefaultDriverPath();
+		if (defaultDriverPath != null && new File(defaultDriverPath).exists()) {
+			parameters.put(driverPathParameter, defaultDriverPath);
+		}
+	}
+
+	/**
+	 * Name of one cell of the matrix, e.g. {@code chrome_1366x768}.
+	 *
+	 * @param platform
+	 *            browser
+	 * @param windowSize
+	 *            window size; empty for a maximised window
+	 * @return name used in test names and screenshot folders
+	 */
+	static String getVariantName(final PlatformTypeEnum platform, final String windowSize) {
+		Dimension dimension = parseWindowSize(windowSize);
+		if (dimension == null) {
+			return platform.getName();
+		}
+		return platform.getName() + "_" + dimension.getWidth() + "x" + dimension.getHeight();
+	}
+
+	/**
+	 * Parse a window size as used by the parameter {@link #WINDOW_SIZE_PARAMETER}.
+	 *
+	 * @param windowSize
+	 *            size like {@code 1366x768}
+	 * @return the size or {@code null} if the parameter is {@code null} or empty
+	 */
+	public static Dimension parseWindowSize(final String windowSize) {
+		if (windowSize == null || windowSize.trim().length() == 0) {
+			return null;
+		}
+		Matcher matcher = WINDOW_SIZE_PATTERN.matcher(windowSize.trim());
+		if (!matcher.matches()) {
+			throw new IllegalArgumentException("Window size [" + windowSize
+					+ "] is not valid. Expected format is <width>x<height>, e.g. 1366x768.");
+		}
+		return new Dimension(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+	}
+
+	/**
+	 * Resolve the browser names.
+	 *
+	 * @param platformNames
+	 *            comma separated browser names
+	 * @return browsers in the given order
+	 */
+	private static List<PlatformTypeEnum> getPlatforms(final String platformNames) {
+		List<PlatformTypeEnum> platforms = new ArrayList<PlatformTypeEnum>();
+		for (String name : split(platformNames)) {
+			PlatformTypeEnum platform = PlatformTypeEnum.getByName(name);
+			if (platform == null) {
+				throw new IllegalArgumentException("Unknown browser [" + name + "]");
+			}
+			platforms.add(platform);
+		}
+		return platforms;
+	}
+
+	/**
+	 * Split a comma separated argument ignoring empty values.
+	 *
+	 * @param values
+	 *            comma separated values
+	 * @return trimmed values
+	 */
+	private static List<String> split(final String values) {
+		List<String> result = new ArrayList<String>();
+		for (String value : values.split(LIST_SEPARATOR)) {
+			if (value.trim().length() > 0) {
+				result.add(value.trim());
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,270 @@
+package com.whistl.selenium.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.IReporter;
+import org.testng.IResultMap;
+import org.testng.ISuite;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Writes a table comparing the duration of every test method on every browser and window size to
+ * {@value #REPORT_FILE_NAME} in the TestNG output directory. Meant to be used together with {@link CrossBrowserRunner},
+ * but works for any suite defining the parameter {@code platform} per test.<br>
+ * Failed executions are marked with {@code *}, skipped ones with {@code s}.
+ */
+public class CrossBrowserTimingReporter implements IReporter {
+
+	/** Name of the written report. */
+	public static final String REPORT_FILE_NAME = "cross-browser-timing.txt";
+
+	/** Width of the first column. */
+	private static final int NAME_COLUMN_WIDTH = 60;
+	/** Width of the duration columns. */
+	private static final int DURATION_COLUMN_WIDTH = 18;
+
+	@Override
+	public void generateReport(final List<XmlSuite> xmlSuites, final List<ISuite> suites,
+			final String outputDirectory) {
+		// row -> variant -> timing
+		Map<String, Map<String, Timing>> rows = new LinkedHashMap<String, Map<String, Timing>>();
+		Map<String, Long> wallTimes = new LinkedHashMap<String, Long>();
+		Set<String> variants = new LinkedHashSet<String>();
+
+		for (ISuite suite : suites) {
+			for (ISuiteResult suiteResult : suite.getResults().values()) {
+				ITestContext context = suiteResult.getTestContext();
+				String variant = getVariantName(context);
+				variants.add(variant);
+				Long wallTime = wallTimes.get(variant);
+				wallTimes.put(variant, Long.valueOf((wallTime == null ? 0 : wallTime.longValue())
+						+ context.getEndDate().getTime() - context.getStartDate().getTime()));
+
+				String testName = getOriginalTestName(context.getName(), variant);
+				collect(rows, testName, variant, context.getPassedTests(), ' ');
+				collect(rows, testName, variant, context.getFailedTests(), '*');
+				collect(rows, testName, variant, context.getFailedButWithinSuccessPercentageTests(), '*');
+				collect(rows, testName, variant, context.getSkippedTests(), 's');
+			}
+		}
+		if (variants.isEmpty()) {
+			return;
+		}
+
+		String report = createReport(rows, wallTimes, new ArrayList<String>(variants));
+		File reportFile = new File(outputDirectory, REPORT_FILE_NAME);
+		try {
+			reportFile.getParentFile().mkdirs();
+			Files.write(reportFile.toPath(), report.getBytes(StandardCharsets.UTF_8));
+			Logger.logStepResult("Cross browser timing written to [" + reportFile.getAbsolutePath() + "]", false);
+		} catch (IOException e) {
+			Logger.logStepResult("Cannot write the cross browser timing: " + e.getMessage(), false);
+		}
+	}
+
+	/**
+	 * Add the durations of the results to the rows.
+	 *
+	 * @param rows
+	 *            collected timings
+	 * @param testName
+	 *            name of the test as given in the suite
+	 * @param variant
+	 *            browser and window size the results belong to
+	 * @param results
+	 *            results to add
+	 * @param marker
+	 *            marker for the result status
+	 */
+	private static void collect(final Map<String, Map<String, Timing>> rows, final String testName,
+			final String variant, final IResultMap results, final char marker) {
+		for (ITestResult result : results.getAllResults()) {
+			String rowName = testName + " / " + result.getMethod().getRealClass().getSimpleName() + "."
+					+ result.getName();
+			if (result.getParameters().length > 0) {
+				rowName += Arrays.toString(result.getParameters());
+			}
+			Map<String, Timing> row = rows.get(rowName);
+			if (row == null) {
+				row = new LinkedHashMap<String, Timing>();
+				rows.put(rowName, row);
+			}
+			Timing timing = row.get(variant);
+			if (timing == null) {
+				timing = new Timing();
+				row.put(variant, timing);
+			}
+			timing.add(result.getEndMillis() - result.getStartMillis(), marker);
+		}
+	}
+
+	/**
+	 * Format the table.
+	 *
+	 * @param rows
+	 *            collected timings
+	 * @param wallTimes
+	 *            duration of all tests per variant
+	 * @param variants
+	 *            columns
+	 * @return report
+	 */
+	private static String createReport(final Map<String, Map<String, Timing>> rows, final Map<String, Long> wallTimes,
+			final List<String> variants) {
+		StringBuilder sb = new StringBuilder();
+		appendCell(sb, "test [ms]", NAME_COLUMN_WIDTH, true);
+		for (String variant : variants) {
+			appendCell(sb, variant, DURATION_COLUMN_WIDTH, false);
+		}
+		appendCell(sb, "slowest/fastest", DURATION_COLUMN_WIDTH, false);
+		sb.append(System.lineSeparator());
+
+		for (Map.Entry<String, Map<String, Timing>> row : rows.entrySet()) {
+			appendCell(sb, row.getKey(), NAME_COLUMN_WIDTH, true);
+			long fastest = Long.MAX_VALUE;
+			long slowest = 0;
+			for (String variant : variants) {
+				Timing timing = row.getValue().get(variant);
+				if (timing == null) {
+					appendCell(sb, "-", DURATION_COLUMN_WIDTH, false);
+					continue;
+				}
+				appendCell(sb, timing.toString(), DURATION_COLUMN_WIDTH, false);
+				fastest = Math.min(fastest, timing.fMillis);
+				slowest = Math.max(slowest, timing.fMillis);
+			}
+			appendCell(sb, getRatio(slowest, fastest), DURATION_COLUMN_WIDTH, false);
+			sb.append(System.lineSeparator());
+		}
+
+		appendCell(sb, "wall time", NAME_COLUMN_WIDTH, true);
+		long fastest = Long.MAX_VALUE;
+		long slowest = 0;
+		for (String variant : variants) {
+			long wallTime = wallTimes.get(variant).longValue();
+			appendCell(sb, String.valueOf(wallTime), DURATION_COLUMN_WIDTH, false);
+			fastest = Math.min(fastest, wallTime);
+			slowest = Math.max(slowest, wallTime);
+		}
+		appendCell(sb, getRatio(slowest, fastest), DURATION_COLUMN_WIDTH, false);
+		sb.append(System.lineSeparator());
+		return sb.toString();
+	}
+
+	/**
+	 * @param slowest
+	 *            longest duration
+	 * @param fastest
+	 *            shortest duration
+	 * @return ratio of the durations or {@code -} if it can't be computed
+	 */
+	private static String getRatio(final long slowest, final long fastest) {
+		if (fastest <= 0 || fastest == Long.MAX_VALUE) {
+			return "-";
+		}
+		return String.format("%.2f", Double.valueOf(slowest / (double) fastest));
+	}
+
+	/**
+	 * Append a cell padded (or cut) to the width.
+	 *
+	 * @param sb
+	 *            target
+	 * @param value
+	 *            content of the cell
+	 * @param width
+	 *            width of the cell
+	 * @param leftAligned
+	 *            {@code true} for text, {@code false} for numbers
+	 */
+	private static void appendCell(final StringBuilder sb, final String value, final int width,
+			final boolean leftAligned) {
+		String cell = value.length() >= width ? value.substring(0, width - 1) : value;
+		int padding = width - cell.length();
+		if (leftAligned) {
+			sb.append(cell);
+		}
+		for (int i = 0; i < padding; i++) {
+			sb.append(' ');
+		}
+		if (!leftAligned) {
+			sb.append(cell);
+		}
+	}
+
+	/**
+	 * Get the browser and window size the test ran with.
+	 *
+	 * @param context
+	 *            test
+	 * @return variant name, the test name if the test defines no browser
+	 */
+	private static String getVariantName(final ITestContext context) {
+		XmlTest xmlTest = context.getCurrentXmlTest();
+		PlatformTypeEnum platform = PlatformTypeEnum.getByName(
+				xmlTest.getParameter(CrossBrowserRunner.PLATFORM_PARAMETER));
+		if (platform == null) {
+			return context.getName();
+		}
+		return CrossBrowserRunner.getVariantName(platform,
+				xmlTest.getParameter(CrossBrowserRunner.WINDOW_SIZE_PARAMETER));
+	}
+
+	/**
+	 * Remove the variant suffix added by {@link CrossBrowserRunner}.
+	 *
+	 * @param testName
+	 *            name of the executed test
+	 * @param variant
+	 *            variant name
+	 * @return name of the test as given in the suite file
+	 */
+	private static String getOriginalTestName(final String testName, final String variant) {
+		String suffix = " [" + variant + "]";
+		return testName.endsWith(suffix) ? testName.substring(0, testName.length() - suffix.length()) : testName;
+	}
+
+	/**
+	 * Duration of one test method for one variant. Methods running several times (data providers) are summed up.
+	 */
+	private static final class Timing {
+		/** Summed up duration. */
+		private long fMillis;
+		/** Status marker; failures win over skips. */
+		private char fMarker = ' ';
+
+		/**
+		 * Add one execution.
+		 *
+		 * @param millis
+		 *            duration
+		 * @param marker
+		 *            status marker of the execution
+		 */
+		void add(final long millis, final char marker) {
+			this.fMillis += millis;
+			if (marker == '*' || this.fMarker == ' ') {
+				this.fMarker = marker;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.fMillis + (this.fMarker == ' ' ? "" : String.valueOf(this.fMarker));
+		}
+	}
+}
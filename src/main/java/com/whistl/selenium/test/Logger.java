@@ -18,30 +18,45 @@ public enum Logger {
 
 	// /** Time to sleep after a log entry. In milliseconds. */
 	// private static final Long TIME_TO_SLEEP = 1000L;
-	/** capture screenshots mode. */
-	private Boolean isCaptureMode;
+	/** capture screenshots mode. Per thread, since tests may run in parallel. */
+	private final ThreadLocal<Boolean> isCaptureMode = new ThreadLocal<Boolean>();
 	/** format to print out the time. */
 	private static String timeFormat = "%02d:%02d:%02d:%03d";
-	/** start time of the test. */
-	private static long startTimeMillis;
+	/** start time of the test. Per thread, so a session starting doesn't reset the times of the running ones. */
+	private static final ThreadLocal<Long> startTimeMillis = new ThreadLocal<Long>() {
+		@Override
+		protected Long initialValue() {
+			return Long.valueOf(System.currentTimeMillis());
+		}
+	};
 
 	/**
 	 * {@code Boolean.TRUE} means that the logging is done via screenshots.<br />
 	 * {@code Boolean.FALSE} means that the logging is done via log output. Make sure to call this before trying to log.
+	 * Applies to the current thread only.
 	 * 
 	 * @param captureMode
 	 *            the captureMode to set
 	 */
 	public void setCaptureMode(final Boolean captureMode) {
-		this.isCaptureMode = captureMode;
+		this.isCaptureMode.set(captureMode);
+	}
+
+	/**
+	 * Is the logging done via screenshots? Use it to skip work, which is visible only on screenshots.
+	 * 
+	 * @return {@code true} if the capture mode has been set to {@code Boolean.TRUE}
+	 */
+	public boolean isCaptureMode() {
+		return Boolean.TRUE.equals(this.isCaptureMode.get());
 	}
 
 	/**
-	 * Reset the logger to start from scratch (e.g. message counting etc.)
+	 * Reset the logger of the current thread to start from scratch (e.g. message counting etc.)
 	 */
 	public static void reset() {
 		CaptureScreenshots.INSTANCE.resetCounter();
-		startTimeMillis = System.currentTimeMillis();
+		startTimeMillis.set(Long.valueOf(System.currentTimeMillis()));
 	}
 
 	/**
@@ -52,10 +67,11 @@ public enum Logger {
 	 *            used for log or as file suffix
 	 */
 	public void logStepResult(final String message) {
-		if (this.isCaptureMode == null) {
+		Boolean captureMode = this.isCaptureMode.get();
+		if (captureMode == null) {
 			throw new IllegalStateException("The capture mode has not yet been set.");
 		}
-		logStepResult(message, this.isCaptureMode);
+		logStepResult(message, captureMode);
 	}
 
 	private static void logMessage(final String message) {
@@ -67,7 +83,7 @@ public enum Logger {
 	}
 
 	private static String getRelativeTime() {
-		long timeDifference = System.currentTimeMillis() - startTimeMillis;
+		long timeDifference = System.currentTimeMillis() - startTimeMillis.get().longValue();
 		long hours, minutes, seconds, millis, rest;
 		hours = TimeUnit.MILLISECONDS.toHours(timeDifference);
 		rest = timeDifference - TimeUnit.HOURS.toMillis(hours);
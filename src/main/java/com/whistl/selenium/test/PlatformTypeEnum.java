@@ -11,20 +11,26 @@ import java.util.Map;
 public enum PlatformTypeEnum {
 
 	/** Internet Explorer 10 On windows 7. */
-	IE("iexplorer", Boolean.TRUE, Boolean.TRUE),
+	IE("iexplorer", Boolean.TRUE, Boolean.TRUE, "webdriver.ie.driver", "drivers/IEDriver/x64/IEDriverServer.exe"),
 
 	/** Mozilla Firefox 22 On windows 7. */
-	FIREFOX("firefox", Boolean.TRUE, Boolean.TRUE),
+	FIREFOX("firefox", Boolean.TRUE, Boolean.TRUE, "webdriver.gecko.driver", "drivers/GeckoDriver/geckodriver"),
 
 	/** Safari (driver needs to be installed separately; beware of developer license expiration). */
-	SAFARI("safari", Boolean.TRUE, Boolean.TRUE),
+	SAFARI("safari", Boolean.TRUE, Boolean.TRUE, null, null),
 
 	/** Google Chrome. **/
-	CHROME("chrome", Boolean.TRUE, Boolean.TRUE);
+	CHROME("chrome", Boolean.TRUE, Boolean.TRUE, "webdriver.chrome.driver", "drivers/ChromeDriver/chromedriver");
 	
 	/** name of the browser. */
 	private String fName;
 
+	/** System property pointing to the driver executable. {@code null} if the browser ships its driver. */
+	private String fDriverProperty;
+
+	/** Path of the driver executable within the project, used when no other path is given. */
+	private String fDefaultDriverPath;
+
 	/** Is it a browser used for web? */
 	private Boolean fIsWeb;
 
@@ -50,11 +56,16 @@ public enum PlatformTypeEnum {
 	 *            the name of the browser
 	 * @param isWeb is this platform on the web
 	 * @param isMaximizable is this platform maximisable? normally {@code true} for browsers
+	 * @param driverProperty system property pointing to the driver executable
+	 * @param defaultDriverPath path of the driver executable within the project
 	 */
-	private PlatformTypeEnum(final String name, final Boolean isWeb, final Boolean isMaximizable) {
+	private PlatformTypeEnum(final String name, final Boolean isWeb, final Boolean isMaximizable,
+			final String driverProperty, final String defaultDriverPath) {
 		this.fName = name;
 		this.fIsWeb = isWeb;
 		this.fIsMaximizable = isMaximizable;
+		this.fDriverProperty = driverProperty;
+		this.fDefaultDriverPath = defaultDriverPath;
 	}
 
 	/**
@@ -85,4 +96,31 @@ public enum PlatformTypeEnum {
 	public Boolean isMaximizable() {
 		return this.fIsMaximizable;
 	}
+
+	/**
+	 * Get the name of the platform as used in the test configuration.
+	 * 
+	 * @return name of the browser
+	 */
+	public String getName() {
+		return this.fName;
+	}
+
+	/**
+	 * Get the system property, which has to point to the driver executable for local execution.
+	 * 
+	 * @return property name or {@code null} if no separate driver executable is needed
+	 */
+	public String getDriverProperty() {
+		return this.fDriverProperty;
+	}
+
+	/**
+	 * Get the path of the driver executable within the project.
+	 * 
+	 * @return path or {@code null} if no separate driver executable is needed
+	 */
+	public String getDefaultDriverPath() {
+		return this.fDefaultDriverPath;
+	}
 }
@@ -16,7 +16,8 @@ import org.openqa.selenium.WebDriver;
 import com.whistl.selenium.util.image.ImageComparator;
 
 /**
- * Use this class to capture screen.
+ * Use this class to capture screen. Driver, store folder and counter are kept per thread, so tests running in parallel
+ * (see {@link com.whistl.selenium.test.CrossBrowserRunner}) capture their own browser.
  */
 public enum CaptureScreenshots {
 	/**
@@ -25,10 +26,20 @@ public enum CaptureScreenshots {
 	INSTANCE;
 
 	/** An index for the next picture to be captured. */
-	private int captureIndex = 0;
+	private final ThreadLocal<Integer> captureIndex = new ThreadLocal<Integer>() {
+		@Override
+		protected Integer initialValue() {
+			return Integer.valueOf(0);
+		}
+	};
 
 	/** Directory for screenshots. */
-	private File outputDir = new File(System.getProperty("java.io.tmpdir"));
+	private final ThreadLocal<File> outputDir = new ThreadLocal<File>() {
+		@Override
+		protected File initialValue() {
+			return new File(System.getProperty("java.io.tmpdir"));
+		}
+	};
 
 	/** Extension for compressed images. */
 	private static final String CAPTURE_COMPRESSED_EXT = "JPG";
@@ -38,7 +49,7 @@ public enum CaptureScreenshots {
 	private static final String DEFAULT_CAPTURE_FILE_EXT = CAPTURE_COMPRESSED_EXT;
 
 	/** WebDriver set to capture the screen. */
-	private WebDriver fDriver;
+	private final ThreadLocal<WebDriver> fDriver = new ThreadLocal<WebDriver>();
 
 	/**
 	 * Private constructor.
@@ -112,7 +123,7 @@ public enum CaptureScreenshots {
 	 *             if there were problems to write to the file
 	 */
 	public void captureScreen(final String message) throws IOException {
-		if (this.fDriver != null && this.fDriver.getWindowHandle() != null) {
+		if (this.fDriver.get() != null && this.fDriver.get().getWindowHandle() != null) {
 			File file = null;
 			captureScreen(file, message);
 		} else {
@@ -160,7 +171,7 @@ public enum CaptureScreenshots {
 				new BufferedImage(subimage.getWidth(), subimage.getHeight(), BufferedImage.TYPE_INT_RGB);
 		imageRGB.createGraphics().drawImage(subimage, 0, 0, Color.WHITE, null);
 		File resultFile =
-				new File(this.outputDir.getAbsolutePath() + File.separator + generateNewCaptureIndex() + "_" + message
+				new File(this.outputDir.get().getAbsolutePath() + File.separator + generateNewCaptureIndex() + "_" + message
 						+ "." + DEFAULT_CAPTURE_FILE_EXT);
 		ImageIO.write(imageRGB, captureFileExt, resultFile);
 		return resultFile;
@@ -180,7 +191,7 @@ public enum CaptureScreenshots {
 	 *             if there were problems writing the file
 	 */
 	private void captureScreen(final File outputFileDir, final String fileExplanation) throws IOException {
-		if (this.fDriver != null) {
+		if (this.fDriver.get() != null) {
 			String outputfilePath;
 			// can capture, since WebDriver is set
 			if (outputFileDir != null) {
@@ -188,10 +199,10 @@ public enum CaptureScreenshots {
 				outputfilePath = outputFileDir.getAbsolutePath();
 			} else {
 				// storing in the default directory
-				outputfilePath = this.outputDir.getAbsolutePath();
+				outputfilePath = this.outputDir.get().getAbsolutePath();
 			}
 			outputfilePath += File.separator + generateNewCaptureIndex() + "_" + fileExplanation;
-			captureScreen(this.fDriver, outputfilePath, DEFAULT_CAPTURE_FILE_EXT);
+			captureScreen(this.fDriver.get(), outputfilePath, DEFAULT_CAPTURE_FILE_EXT);
 		} else {
 			throw new RuntimeException("Trying to capture screen, although the WebDriver has not been set.");
 		}
@@ -205,8 +216,10 @@ public enum CaptureScreenshots {
 	 */
 	private String generateNewCaptureIndex() {
 		String digitsPlaceholder = "0000";
-		int missingDigits = digitsPlaceholder.length() - (this.captureIndex + "").length();
-		return digitsPlaceholder.substring(0, missingDigits) + this.captureIndex++;
+		int index = this.captureIndex.get().intValue();
+		this.captureIndex.set(Integer.valueOf(index + 1));
+		int missingDigits = digitsPlaceholder.length() - (index + "").length();
+		return digitsPlaceholder.substring(0, missingDigits) + index;
 	}
 
 	/**
@@ -230,7 +243,7 @@ public enum CaptureScreenshots {
 						+ "Please provide a location with permission to write in.", e);
 			}
 			// if (storeFolder != null) {
-			this.outputDir = storeFolder;
+			this.outputDir.set(storeFolder);
 			// }
 		}
 	}
@@ -267,7 +280,7 @@ public enum CaptureScreenshots {
 	 */
 	public void resetCounter() {
 		// reset capture index
-		this.captureIndex = 0;
+		this.captureIndex.set(Integer.valueOf(0));
 	}
 
 	/**
@@ -277,7 +290,7 @@ public enum CaptureScreenshots {
 	 *            the {@link WebDriver} displaying the page.
 	 */
 	public void setDriver(final WebDriver driver) {
-		this.fDriver = driver;
+		this.fDriver.set(driver);
 	}
 
 	/**
@@ -288,6 +301,6 @@ public enum CaptureScreenshots {
 	 * @return {@code true} if ready to capture screenshots.
 	 */
 	public boolean isReady() {
-		return (this.fDriver != null);
+		return (this.fDriver.get() != null);
 	}
 }
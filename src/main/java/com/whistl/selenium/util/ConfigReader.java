@@ -1,33 +1,25 @@
 package com.whistl.selenium.util;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.util.Properties;
 
+/**
+ * Gives access to the configuration as {@link Properties}. New code should use {@link ConfigurationManager}, which
+ * also offers typed values.
+ */
 public class ConfigReader {
 
-	
-private Properties prop;
+	/** Properties returned by {@link #init_prop()}. */
+	private Properties prop;
 
-/**
- * This method is 
- * @return
- */
-public Properties init_prop() {
-  prop = new Properties();
-  
-  try {
-  FileInputStream ip = new FileInputStream("resources/Config/config.properties");
-  prop.load(ip);
-  }catch (FileNotFoundException e) {
-	e.printStackTrace();
-}
-  catch (IOException e) {
-  e.printStackTrace();
-  }
-  
-  return prop;
-}
+	/**
+	 * Get the configuration of the current test. The properties file is read only once per run, not per call.
+	 *
+	 * @return copy of the configuration; the keys of the properties file with their values after applying system
+	 *         properties, environment variables and TestNG parameters
+	 */
+	public Properties init_prop() {
+		prop = ConfigurationManager.INSTANCE.getForCurrentTest().toProperties();
+		return prop;
+	}
 
 }
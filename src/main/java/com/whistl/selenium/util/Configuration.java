@@ -0,0 +1,309 @@
+package com.whistl.selenium.util;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.whistl.selenium.test.Logger;
+
+/**
+ * Immutable snapshot of the test configuration. A value is looked up in these layers, the first one defining it
+ * wins:
+ * <ol>
+ * <li>system properties, e.g. {@code -DtestTarget=...}</li>
+ * <li>environment variables named like the key or like the key in upper snake case with the prefix
+ * {@value #ENVIRONMENT_PREFIX}, e.g. {@code SELENIUM_TEST_TARGET}; the prefix keeps common variables like
+ * {@code BROWSER} out</li>
+ * <li>parameters of the running TestNG test (see {@link #withTestNGParameters(Map)})</li>
+ * <li>the properties file</li>
+ * </ol>
+ * Blank values count as not defined. All layers are copied when the snapshot is created, so lookups never read files
+ * and resolved and parsed values are cached. Use {@link ConfigurationManager} to get the shared snapshot.
+ */
+public final class Configuration {
+
+	/** Properties file used if no other file is given. */
+	public static final String DEFAULT_PROPERTIES_FILE = "resources/Config/config.properties";
+	/** Prefix of environment variables named in upper snake case. */
+	public static final String ENVIRONMENT_PREFIX = "SELENIUM_";
+	/** Separator of list values. */
+	public static final char LIST_SEPARATOR = ',';
+
+	/** Marks a key resolved to no value, since concurrent maps can't hold {@code null}. */
+	private static final Object UNDEFINED = new Object();
+
+	/** System properties at load time. */
+	private final Map<String, String> fSystemProperties;
+	/** Environment variables at load time. */
+	private final Map<String, String> fEnvironment;
+	/** Parameters of the TestNG test. */
+	private final Map<String, String> fTestNGParameters;
+	/** Content of the properties file. */
+	private final Map<String, String> fFileProperties;
+	/** Resolved values; {@link #UNDEFINED} for keys without value. */
+	private final ConcurrentMap<String, Object> fResolved = new ConcurrentHashMap<String, Object>();
+	/** Parsed lists. */
+	private final ConcurrentMap<String, List<String>> fLists = new ConcurrentHashMap<String, List<String>>();
+
+	/**
+	 * Constructor. The maps are not copied.
+	 *
+	 * @param systemProperties
+	 *            system properties
+	 * @param environment
+	 *            environment variables
+	 * @param testNGParameters
+	 *            parameters of the TestNG test
+	 * @param fileProperties
+	 *            content of the properties file
+	 */
+	private Configuration(final Map<String, String> systemProperties, final Map<String, String> environment,
+			final Map<String, String> testNGParameters, final Map<String, String> fileProperties) {
+		this.fSystemProperties = systemProperties;
+		this.fEnvironment = environment;
+		this.fTestNGParameters = testNGParameters;
+		this.fFileProperties = fileProperties;
+	}
+
+	/**
+	 * Load the properties file and take a snapshot of the system properties and the environment. A missing or
+	 * unreadable file is logged and treated as empty, so the other layers still work.
+	 *
+	 * @param propertiesFile
+	 *            properties file to read
+	 * @return the configuration
+	 */
+	public static Configuration load(final File propertiesFile) {
+		Map<String, String> fileProperties;
+		try {
+			fileProperties = readProperties(propertiesFile);
+		} catch (IOException e) {
+			Logger.logStepResult("Cannot read configuration " + propertiesFile + ": " + e.getMessage(), false);
+			fileProperties = Collections.emptyMap();
+		}
+		return new Configuration(toMap(System.getProperties()), System.getenv(),
+				Collections.<String, String> emptyMap(), fileProperties);
+	}
+
+	/**
+	 * Get a configuration with the parameters of a TestNG test as additional layer. This configuration is not
+	 * changed; the snapshots of the other layers are shared.
+	 *
+	 * @param parameters
+	 *            parameters of the TestNG test
+	 * @return configuration using the parameters
+	 */
+	public Configuration withTestNGParameters(final Map<String, String> parameters) {
+		if (parameters == null || parameters.isEmpty() && this.fTestNGParameters.isEmpty()) {
+			return this;
+		}
+		return new Configuration(this.fSystemProperties, this.fEnvironment,
+				Collections.unmodifiableMap(new HashMap<String, String>(parameters)), this.fFileProperties);
+	}
+
+	/**
+	 * @param key
+	 *            name of the value
+	 * @return the value or {@code null} if no layer defines it
+	 */
+	public String getString(final String key) {
+		Object value = this.fResolved.get(key);
+		if (value == null) {
+			String resolved = resolve(key);
+			value = resolved == null ? UNDEFINED : resolved;
+			this.fResolved.putIfAbsent(key, value);
+		}
+		return value == UNDEFINED ? null : (String) value;
+	}
+
+	/**
+	 * @param key
+	 *            name of the value
+	 * @param defaultValue
+	 *            value if no layer defines it
+	 * @return the value
+	 */
+	public String getString(final String key, final String defaultValue) {
+		String value = getString(key);
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 * @param key
+	 *            name of the value
+	 * @param defaultValue
+	 *            value if no layer defines it
+	 * @return {@code true} if the value is {@code true} (ignoring case)
+	 */
+	public boolean getBoolean(final String key, final boolean defaultValue) {
+		String value = getString(key);
+		return value == null ? defaultValue : Boolean.parseBoolean(value);
+	}
+
+	/**
+	 * @param key
+	 *            name of the value
+	 * @param defaultValue
+	 *            value if no layer defines it
+	 * @return the value
+	 * @throws NumberFormatException
+	 *             if the value is not an integer
+	 */
+	public int getInt(final String key, final int defaultValue) {
+		String value = getString(key);
+		return value == null ? defaultValue : Integer.parseInt(value);
+	}
+
+	/**
+	 * @param key
+	 *            name of the value
+	 * @return the comma separated items of the value, trimmed and without empty items; empty if no layer defines it
+	 */
+	public List<String> getList(final String key) {
+		List<String> list = this.fLists.get(key);
+		if (list == null) {
+			list = splitList(getString(key));
+			List<String> existing = this.fLists.putIfAbsent(key, list);
+			if (existing != null) {
+				list = existing;
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Get the keys of the properties file with their resolved values, e.g. for code still expecting
+	 * {@link Properties}.
+	 *
+	 * @return new properties; changing them doesn't change the configuration
+	 */
+	public Properties toProperties() {
+		Properties properties = new Properties();
+		for (String key : this.fFileProperties.keySet()) {
+			String value = getString(key);
+			if (value != null) {
+				properties.setProperty(key, value);
+			}
+		}
+		return properties;
+	}
+
+	/**
+	 * Look the value up in the layers.
+	 *
+	 * @param key
+	 *            name of the value
+	 * @return the value or {@code null}
+	 */
+	private String resolve(final String key) {
+		String value = this.fSystemProperties.get(key);
+		if (isBlank(value)) {
+			value = this.fEnvironment.get(key);
+		}
+		if (isBlank(value)) {
+			value = this.fEnvironment.get(toEnvironmentName(key));
+		}
+		if (isBlank(value)) {
+			value = this.fTestNGParameters.get(key);
+		}
+		if (isBlank(value)) {
+			value = this.fFileProperties.get(key);
+		}
+		return isBlank(value) ? null : value.trim();
+	}
+
+	/**
+	 * Read the properties file.
+	 *
+	 * @param propertiesFile
+	 *            file to read
+	 * @return its keys and values
+	 * @throws IOException
+	 *             if the file can't be read
+	 */
+	private static Map<String, String> readProperties(final File propertiesFile) throws IOException {
+		Properties properties = new Properties();
+		InputStream in = new BufferedInputStream(new FileInputStream(propertiesFile));
+		try {
+			properties.load(in);
+		} finally {
+			in.close();
+		}
+		return toMap(properties);
+	}
+
+	/**
+	 * @param properties
+	 *            properties to copy
+	 * @return unmodifiable copy of the properties with string keys and values
+	 */
+	private static Map<String, String> toMap(final Properties properties) {
+		Map<String, String> map = new HashMap<String, String>();
+		for (String name : properties.stringPropertyNames()) {
+			map.put(name, properties.getProperty(name));
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * @param key
+	 *            key in camel case, e.g. {@code testTarget}
+	 * @return key in upper snake case with prefix, e.g. {@code SELENIUM_TEST_TARGET}
+	 */
+	static String toEnvironmentName(final String key) {
+		StringBuilder sb = new StringBuilder(ENVIRONMENT_PREFIX.length() + key.length() + 4);
+		sb.append(ENVIRONMENT_PREFIX);
+		for (int i = 0; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(key.charAt(i - 1))) {
+				sb.append('_');
+			}
+			sb.append(c == '.' || c == '-' ? '_' : Character.toUpperCase(c));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @param value
+	 *            comma separated items or {@code null}
+	 * @return unmodifiable list of the trimmed, non empty items
+	 */
+	private static List<String> splitList(final String value) {
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		List<String> items = new ArrayList<String>();
+		int start = 0;
+		while (start <= value.length()) {
+			int end = value.indexOf(LIST_SEPARATOR, start);
+			if (end < 0) {
+				end = value.length();
+			}
+			String item = value.substring(start, end).trim();
+			if (item.length() > 0) {
+				items.add(item);
+			}
+			start = end + 1;
+		}
+		return Collections.unmodifiableList(items);
+	}
+
+	/**
+	 * @param value
+	 *            value to check
+	 * @return {@code true} for {@code null} and values containing only whitespace
+	 */
+	private static boolean isBlank(final String value) {
+		return value == null || value.trim().length() == 0;
+	}
+}
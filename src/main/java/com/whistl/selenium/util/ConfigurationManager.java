@@ -0,0 +1,166 @@
+package com.whistl.selenium.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import com.whistl.selenium.test.Logger;
+
+/**
+ * Holds the {@link Configuration} shared by all tests. The properties file is read once, on first use; if watching is
+ * started, the file is read again whenever it changes, so a long run picks up changes without restart. Getting the
+ * configuration never reads files.<br>
+ * An enum is used for implementation in order to make it a thread safe and serializable singleton. Usage:
+ * <blockquote>
+ *
+ * <pre>
+ * {@code String target = ConfigurationManager.INSTANCE.getForCurrentTest().getString("testTarget");}
+ * </pre>
+ *
+ * </blockquote>
+ */
+public enum ConfigurationManager {
+	/** The only instance of the manager. */
+	INSTANCE;
+
+	/** Properties file read. */
+	private final File fPropertiesFile = new File(Configuration.DEFAULT_PROPERTIES_FILE);
+	/** Current configuration; {@code null} until first use. */
+	private volatile Configuration fConfiguration;
+	/** Watch service of the running watcher; {@code null} if the file is not watched. */
+	private WatchService fWatchService;
+
+	/**
+	 * @return the current configuration without TestNG parameters
+	 */
+	public Configuration get() {
+		Configuration configuration = this.fConfiguration;
+		if (configuration == null) {
+			synchronized (this) {
+				configuration = this.fConfiguration;
+				if (configuration == null) {
+					configuration = Configuration.load(this.fPropertiesFile);
+					this.fConfiguration = configuration;
+				}
+			}
+		}
+		return configuration;
+	}
+
+	/**
+	 * @return the current configuration with the parameters of the TestNG test running on this thread, if any
+	 */
+	public Configuration getForCurrentTest() {
+		Configuration configuration = get();
+		ITestResult testResult = Reporter.getCurrentTestResult();
+		if (testResult == null) {
+			return configuration;
+		}
+		Map<String, String> parameters = testResult.getTestContext().getCurrentXmlTest().getAllParameters();
+		return configuration.withTestNGParameters(parameters);
+	}
+
+	/**
+	 * Read the properties file again and replace the current configuration. Configurations already handed out don't
+	 * change.
+	 *
+	 * @return the new configuration
+	 */
+	public Configuration reload() {
+		Configuration configuration = Configuration.load(this.fPropertiesFile);
+		this.fConfiguration = configuration;
+		return configuration;
+	}
+
+	/**
+	 * Start reloading the configuration when the properties file changes. Does nothing if already watching.
+	 */
+	public synchronized void startWatching() {
+		if (this.fWatchService != null) {
+			return;
+		}
+		final Path file = this.fPropertiesFile.getAbsoluteFile().toPath();
+		final WatchService watchService;
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+			file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException e) {
+			Logger.logStepResult("Cannot watch configuration " + file + ": " + e.getMessage(), false);
+			return;
+		}
+		this.fWatchService = watchService;
+		Thread watcher = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				watch(watchService, file);
+			}
+		}, "configuration-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	/**
+	 * Stop reloading the configuration. Does nothing if not watching.
+	 */
+	public synchronized void stopWatching() {
+		if (this.fWatchService == null) {
+			return;
+		}
+		try {
+			this.fWatchService.close();
+		} catch (IOException e) {
+			Logger.logStepResult("Cannot stop watching configuration: " + e.getMessage(), false);
+		}
+		this.fWatchService = null;
+	}
+
+	/**
+	 * @return {@code true} if the properties file is watched
+	 */
+	public synchronized boolean isWatching() {
+		return this.fWatchService != null;
+	}
+
+	/**
+	 * Wait for changes of the file until the watch service is closed. Editors often write a file in several steps, so
+	 * all events pending at once lead to one reload.
+	 *
+	 * @param watchService
+	 *            watch service registered for the folder of the file
+	 * @param file
+	 *            watched file
+	 */
+	private void watch(final WatchService watchService, final Path file) {
+		Path fileName = file.getFileName();
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					changed |= fileName.equals(event.context());
+				}
+				key.reset();
+				if (changed) {
+					reload();
+					Logger.logStepResult("Configuration " + file + " reloaded.", false);
+				}
+			}
+		} catch (ClosedWatchServiceException e) {
+			// stopped
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
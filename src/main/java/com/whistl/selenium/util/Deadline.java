@@ -0,0 +1,132 @@
+package com.whistl.selenium.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which the current thread has to be done, e.g. with a wait or a whole scenario. Deadlines nest: a
+ * deadline started while another one is active never ends later than the outer one, so a wait nested in another wait
+ * only gets the time the outer wait has left. Usage:
+ * <blockquote>
+ *
+ * <pre>
+ * Deadline deadline = Deadline.start(timeoutMillis);
+ * try {
+ * 	wait.withTimeout(Duration.ofMillis(deadline.remainingMillis())).until(condition);
+ * } finally {
+ * 	deadline.end();
+ * }
+ * </pre>
+ *
+ * </blockquote>
+ * Deadlines are kept per thread, so tests running in parallel don't share them.
+ */
+public final class Deadline {
+
+	/** Innermost active deadline of the thread. */
+	private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<Deadline>();
+
+	/** Deadline active when this one was started; {@code null} if none. */
+	private final Deadline fParent;
+	/** End as {@link System#nanoTime()}. */
+	private final long fEndNanos;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent
+	 *            deadline active before
+	 * @param endNanos
+	 *            end as {@link System#nanoTime()}
+	 */
+	private Deadline(final Deadline parent, final long endNanos) {
+		this.fParent = parent;
+		this.fEndNanos = endNanos;
+	}
+
+	/**
+	 * Start a deadline for the current thread. It ends after the timeout or with the active deadline, whichever is
+	 * earlier. Make sure to {@link #end()} it in a {@code finally} block.
+	 *
+	 * @param timeoutMillis
+	 *            time from now in milliseconds
+	 * @return the new, now active deadline
+	 */
+	public static Deadline start(final long timeoutMillis) {
+		Deadline parent = CURRENT.get();
+		long endNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(timeoutMillis, 0));
+		if (parent != null && parent.fEndNanos - endNanos < 0) {
+			endNanos = parent.fEndNanos;
+		}
+		Deadline deadline = new Deadline(parent, endNanos);
+		CURRENT.set(deadline);
+		return deadline;
+	}
+
+	/**
+	 * @return innermost active deadline of the current thread; {@code null} if there is none
+	 */
+	public static Deadline current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Limit a timeout to the time the active deadline has left.
+	 *
+	 * @param timeoutMillis
+	 *            requested timeout in milliseconds
+	 * @return the smaller of the timeout and the remaining time; the timeout if there is no active deadline
+	 */
+	public static long limit(final long timeoutMillis) {
+		Deadline deadline = CURRENT.get();
+		return deadline == null ? timeoutMillis : Math.min(timeoutMillis, deadline.remainingMillis());
+	}
+
+	/**
+	 * Forget all deadlines of the current thread, e.g. before a new scenario in case the previous one didn't end its
+	 * deadlines.
+	 */
+	public static void clear() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * End this deadline; the one active before becomes active again. Deadlines started later and not ended yet are
+	 * ended too.
+	 */
+	public void end() {
+		Deadline deadline = CURRENT.get();
+		while (deadline != null && deadline != this) {
+			deadline = deadline.fParent;
+		}
+		if (deadline == null) {
+			// not active anymore, e.g. after clear()
+			return;
+		}
+		if (this.fParent == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(this.fParent);
+		}
+	}
+
+	/**
+	 * @return milliseconds left; 0 if the deadline has passed
+	 */
+	public long remainingMillis() {
+		return Math.max(TimeUnit.NANOSECONDS.toMillis(this.fEndNanos - System.nanoTime()), 0);
+	}
+
+	/**
+	 * @return nanoseconds left; negative if the deadline has passed
+	 */
+	public long remainingNanos() {
+		return this.fEndNanos - System.nanoTime();
+	}
+
+	/**
+	 * @return {@code true} if the deadline has passed
+	 */
+	public boolean isExpired() {
+		return remainingNanos() <= 0;
+	}
+}
@@ -1,20 +1,17 @@
 package com.whistl.selenium.util;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-import org.openqa.selenium.Platform;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
-import org.openqa.selenium.remote.DesiredCapabilities;
-import org.openqa.selenium.safari.SafariDriver;
-import org.openqa.selenium.safari.SafariOptions;
 
+import com.whistl.selenium.test.BrowserCapabilityBuilder;
 import com.whistl.selenium.test.BrowserLogger;
+import com.whistl.selenium.test.BrowserProfileEnum;
 import com.whistl.selenium.test.Logger;
+import com.whistl.selenium.test.PlatformTypeEnum;
 
 
 public class DriverFactory {
@@ -22,46 +19,44 @@ public class DriverFactory {
 
 //private String testTarget;
 	public static ThreadLocal<WebDriver> tlDriver= new ThreadLocal<>();
+	/** Implicit wait of the drivers started. 10 s. */
+	public static final long IMPLICIT_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(10);
 	
 	public static synchronized WebDriver getDriver() {
 		return tlDriver.get();
 	}
 	
 	public WebDriver init_driver(String browser, String testTarget) {
-		if(browser.equals("chrome")) {
-			
-			DesiredCapabilities capabilities=DesiredCapabilities.chrome();
-			capabilities.setPlatform(Platform.valueOf("MAC"));
-			ChromeOptions options = new ChromeOptions();
-			options.merge(capabilities);
-			applyDriver("webdriver.chrome.driver", "drivers/ChromeDriver/chromedriver");
-
-			 tlDriver.set(new ChromeDriver(options));
-
-			
-		}
-		else if(browser.equals("firefox")){
-			
-			DesiredCapabilities capabilities=DesiredCapabilities.firefox();
-			capabilities.setPlatform(Platform.valueOf("MAC"));
-			FirefoxOptions options = new FirefoxOptions();
-			options.merge(capabilities);
-			applyDriver("webdriver.chrome.driver", "drivers/gekoDriver/chromedriver");
-
-			 tlDriver.set(new FirefoxDriver(options));
-		}
-		else if(browser.equals("safari")) {
-			DesiredCapabilities capabilities=DesiredCapabilities.safari();
-			capabilities.setPlatform(Platform.valueOf("MAC"));
-			SafariOptions options = new SafariOptions();
-			options.merge(capabilities);
-			applyDriver("webdriver.chrome.driver", "drivers/gekoDriver/chromedriver");
+		return init_driver(browser, testTarget, BrowserProfileEnum.DEFAULT, Collections.<String> emptyList());
+	}
 
-			 tlDriver.set(new SafariDriver(options));
-		}
-		else {
+	/**
+	 * Start the browser with the given profile and open the test target.
+	 * 
+	 * @param browser
+	 *            name of the browser (see {@link PlatformTypeEnum})
+	 * @param testTarget
+	 *            the start website to open in the browser
+	 * @param profile
+	 *            profile to start the browser with
+	 * @param blockedDomains
+	 *            domains the browser should not contact (used by {@link BrowserProfileEnum#PERFORMANCE})
+	 * @return the started driver
+	 */
+	public WebDriver init_driver(String browser, String testTarget, BrowserProfileEnum profile,
+			List<String> blockedDomains) {
+		PlatformTypeEnum platformType = PlatformTypeEnum.getByName(browser);
+		if (platformType == null) {
 			Logger.logStepResult("Please pass the correct browser value", false);
+			throw new IllegalArgumentException("Unknown browser [" + browser + "]");
+		}
+		if (platformType.getDriverProperty() != null) {
+			applyDriver(platformType.getDriverProperty(), platformType.getDefaultDriverPath());
 		}
+		// the driver of a previous scenario is not used anymore
+		releaseDriver(getDriver());
+		tlDriver.set(new BrowserCapabilityBuilder(platformType).profile(profile).blockedDomains(blockedDomains)
+				.createLocalDriver());
 		
 		BrowserLogger.INSTANCE.setDriver(getDriver());	
 		ElementHighlighter.INSTANCE.setDriver(getDriver());
@@ -71,7 +66,8 @@ public class DriverFactory {
 
 			// delete cookies
          getDriver().manage().deleteAllCookies();
-         getDriver().manage().timeouts().implicitlyWait(10, TimeUnit.SECONDS);
+         // via the registry, so presence checks can suspend it
+         ImplicitWaits.INSTANCE.set(getDriver(), IMPLICIT_WAIT_MILLIS);
 			// now open the web site
 			getDriver().get(testTarget);
 
@@ -81,6 +77,20 @@ public class DriverFactory {
 	
 
 	
+	/**
+	 * Drop the state kept per driver, e.g. the selected frame and the pages of its windows. Call it when the driver is
+	 * quit or replaced, otherwise the state keeps the driver in memory.
+	 * 
+	 * @param driver
+	 *            driver quit or no longer used; nothing is done for {@code null}
+	 */
+	public static void releaseDriver(final WebDriver driver) {
+		if (driver != null) {
+			FrameContext.release(driver);
+			WindowTracker.release(driver);
+		}
+	}
+
 	/**
 	 * Verifies that the driver is available under the defined path and sets the
 	 * system property. Used for local execution of tests.
@@ -1,59 +1,139 @@
 package com.whistl.selenium.util;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 
+/**
+ * Highlights elements for screenshots. Each operation is one script call: the original style is kept on the element
+ * itself by the browser, so nothing has to be read before highlighting and no state is shared between threads. In
+ * {@link HighlightModeEnum#OVERLAY overlay mode} the element isn't touched at all; a box is drawn over it instead.<br>
+ * An enum is used for implementation in order to make it a thread safe and serializable singleton.
+ */
 public enum ElementHighlighter {
 	INSTANCE;
 
-	/** WebDriver set to highlight the elements. */
-	private JavascriptExecutor jsDriver;
-
-	Map<By, String> xpathToStyle = new HashMap<By, String>();
+	/** WebDriver used for elements not knowing their driver. Kept per thread for tests running in parallel. */
+	private final ThreadLocal<JavascriptExecutor> jsDriver = new ThreadLocal<JavascriptExecutor>();
 
 	static final String HIGHLIGHT_STYLE = "background: yellow; border: 2px solid red;";
-	static final String SET_STYLE_ATTRIBUTE_TEMPLATE = "arguments[0].setAttribute('style', '%s');";
-	static final String HIGHLIGHT_ELEMENT_JS = String.format(SET_STYLE_ATTRIBUTE_TEMPLATE, HIGHLIGHT_STYLE);
+	/** Style of the overlay box. Translucent, so the element stays readable. */
+	static final String OVERLAY_STYLE = "background: rgba(255, 255, 0, 0.35); border: 2px solid red;";
+	/** Id of the element hosting the overlay. Created on first use and reused for all later highlights. */
+	static final String OVERLAY_HOST_ID = "__whistl-highlight-overlay";
+	/** Location of the JavaScript drawing the overlay. */
+	private static final String HIGHLIGHT_OVERLAY_JS_FILE = "/javascript/highlightOverlay.js";
+	/** Draw the overlay box over an element. Arguments: element, host id, box style. */
+	static final String HIGHLIGHT_OVERLAY_JS = JavaScriptUtil.loadSnippet(HIGHLIGHT_OVERLAY_JS_FILE);
+	/** Hide the overlay. Argument: host id. Returns {@code false} if no overlay is shown. */
+	static final String HIDE_OVERLAY_JS = "var host = document.getElementById(arguments[0]);" //
+			+ "if (!host || host.style.visibility === 'hidden') { return false; }" //
+			+ "host.style.visibility = 'hidden';" //
+			+ "return true;";
+	/** Property of the element holding its original style while it is highlighted. */
+	static final String ORIGINAL_STYLE_PROPERTY = "__whistlOriginalStyle";
+	/**
+	 * Remember the original style (unless already highlighted) and set the highlight style. Arguments: element,
+	 * highlight style.
+	 */
+	static final String HIGHLIGHT_ELEMENT_JS = "var el = arguments[0];" //
+			+ "if (!('" + ORIGINAL_STYLE_PROPERTY + "' in el)) {" //
+			+ "  el." + ORIGINAL_STYLE_PROPERTY + " = el.getAttribute('style');" //
+			+ "}" //
+			+ "el.setAttribute('style', arguments[1]);";
+	/**
+	 * Set the remembered style again; an element without style attribute gets none. Argument: element. Returns
+	 * {@code false} if the element has not been highlighted.
+	 */
+	static final String RESTORE_ELEMENT_JS = "var el = arguments[0];" //
+			+ "if (!('" + ORIGINAL_STYLE_PROPERTY + "' in el)) { return false; }" //
+			+ "var style = el." + ORIGINAL_STYLE_PROPERTY + ";" //
+			+ "delete el." + ORIGINAL_STYLE_PROPERTY + ";" //
+			+ "if (style === null) { el.removeAttribute('style'); } else { el.setAttribute('style', style); }" //
+			+ "return true;";
+
+	/** How elements are highlighted. */
+	private volatile HighlightModeEnum fMode = HighlightModeEnum.STYLE;
 
 	private ElementHighlighter() {
 	}
 
 	/**
 	 * Highlight the element by setting a predefined bright style. The original style may be set using
-	 * {@link #restoreElement(RenewableWebElement)}.
-	 * 
+	 * {@link #restoreElement(RenewableWebElement)}. Highlighting an element twice keeps the first original style.
+	 * In overlay mode, the overlay is moved over the element.
+	 *
 	 * @param element
+	 *            element to highlight
 	 */
 	public void highlightElement(RenewableWebElement element) {
-
-		// store the original value
-		this.xpathToStyle.put(element.getSearchTerm(), element.getAttribute("style"));
-		// execute the JavaScript to highlight
-		this.jsDriver.executeScript(HIGHLIGHT_ELEMENT_JS, element.getWebElement());
-
+		if (this.fMode == HighlightModeEnum.OVERLAY) {
+			getExecutor(element).executeScript(HIGHLIGHT_OVERLAY_JS, element.getWebElement(), OVERLAY_HOST_ID,
+					OVERLAY_STYLE);
+		} else {
+			getExecutor(element).executeScript(HIGHLIGHT_ELEMENT_JS, element.getWebElement(), HIGHLIGHT_STYLE);
+		}
 	}
 
 	/**
-	 * Restores the style of the element to the original value.
-	 * 
+	 * Restores the style of the element to the original value. In overlay mode, the overlay is hidden; it stays in the
+	 * page for the next highlight.
+	 *
 	 * @param element
+	 *            element highlighted before
+	 * @throws IllegalArgumentException
+	 *             if the element has not been highlighted
 	 */
 	public void restoreElement(RenewableWebElement element) {
-		if (this.xpathToStyle.containsKey(element.getSearchTerm())) {
-			String originalStyle = this.xpathToStyle.remove(element.getSearchTerm());
-			this.jsDriver.executeScript(String.format(SET_STYLE_ATTRIBUTE_TEMPLATE, originalStyle),
-					element.getWebElement());
+		Object restored;
+		if (this.fMode == HighlightModeEnum.OVERLAY) {
+			restored = getExecutor(element).executeScript(HIDE_OVERLAY_JS, OVERLAY_HOST_ID);
 		} else {
+			restored = getExecutor(element).executeScript(RESTORE_ELEMENT_JS, element.getWebElement());
+		}
+		if (!Boolean.TRUE.equals(restored)) {
 			throw new IllegalArgumentException("Cannot restore an element, which has not been highlighted before.");
 		}
 	}
 
+	/**
+	 * Set how elements are highlighted. Change it only while no element is highlighted, since the mode is needed to
+	 * restore the element.
+	 *
+	 * @param mode
+	 *            highlight mode; {@code null} for {@link HighlightModeEnum#STYLE}
+	 */
+	public void setMode(final HighlightModeEnum mode) {
+		this.fMode = mode == null ? HighlightModeEnum.STYLE : mode;
+	}
+
+	/**
+	 * @return how elements are highlighted
+	 */
+	public HighlightModeEnum getMode() {
+		return this.fMode;
+	}
+
+	/**
+	 * Set the driver used for elements created without driver.
+	 *
+	 * @param driver
+	 *            driver of the current thread
+	 */
 	public void setDriver(WebDriver driver) {
-		this.jsDriver = (JavascriptExecutor) driver;
+		this.jsDriver.set((JavascriptExecutor) driver);
+	}
+
+	/**
+	 * @param element
+	 *            element to highlight or restore
+	 * @return the driver of the element, so elements of another thread's browser work too
+	 */
+	private JavascriptExecutor getExecutor(final RenewableWebElement element) {
+		WebDriver driver = element.getDriver();
+		if (driver instanceof JavascriptExecutor) {
+			return (JavascriptExecutor) driver;
+		}
+		return this.jsDriver.get();
 	}
 
 }
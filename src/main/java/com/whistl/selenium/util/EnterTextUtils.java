@@ -8,20 +8,33 @@ import com.whistl.selenium.pages.AbstractPage;
 import com.whistl.selenium.test.BrowserLogger;
 
 public class EnterTextUtils {
+	/**
+	 * Type the value into the input field key by key until the field holds
+	 * it. Meant for fields, which react to single keys (e.g.
+	 * autocompletion); fill other fields with {@link FormFiller}.
+	 * 
+	 * @param inputValue
+	 *            value to type
+	 * @param toStrMessage
+	 *            description of the wait
+	 * @param inputEnteredMessage
+	 *            message to log afterwards
+	 * @param inputFinder
+	 *            how to find the input field
+	 * @param webDdriver
+	 *            WebDriver displaying the field
+	 */
 	public static void enterInput(final String inputValue,
 			final String toStrMessage, final String inputEnteredMessage,
 			final By inputFinder, WebDriver webDdriver) {
 		final RenewableWebElement inputField = AbstractPage.waitForElement(
 				inputFinder, AbstractPage.WAIT_TIME_LIMIT, webDdriver);
-		inputField.clear();
-		AbstractPage.waitForLoad(webDdriver, Long.valueOf(1000));
 		AbstractPage.waitForCondition(new ExpectedCondition<Boolean>() {
 			public Boolean apply(WebDriver driver) {
 				inputField.clear();
 				inputField.sendKeys(inputValue);
-				String value = AbstractPage.fetchAttributeValue(inputFinder,
-						"value", AbstractPage.WAIT_TIME_LIMIT / 3, driver);
-				return inputValue.contentEquals(value);
+				return inputValue.contentEquals(String.valueOf(inputField
+						.getAttribute("value")));
 			}
 
 			public String toString() {
@@ -0,0 +1,296 @@
+package com.whistl.selenium.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import com.whistl.selenium.pages.AbstractPage;
+import com.whistl.selenium.test.BrowserLogger;
+import com.whistl.selenium.test.Logger;
+
+/**
+ * Fills several fields of a form at once. Fields are set by one script call, which uses the native value setter and
+ * fires {@code input} and {@code change} events like typing does, and returns the resulting values for verification.
+ * Fields reacting to single keys (e.g. autocompletion) can be {@link #type(By, String) typed} instead; they are
+ * verified together with one more script call.<br>
+ * Usage:
+ * <blockquote>
+ *
+ * <pre>
+ * new FormFiller(driver).set(NAME_FINDER, "Smith").set(CITY_FINDER, "Berlin").type(SEARCH_FINDER, "Sel").fill();
+ * </pre>
+ *
+ * </blockquote>
+ * Meant for text fields, text areas and selects. A disabled or read-only field fails the fill at once, since typing
+ * into it would not help either.
+ */
+public final class FormFiller {
+
+	/** JavaScript snippet setting the fields. Located within the project. */
+	private static final String FILL_FORM_JS_FILE = "/javascript/fillForm.js";
+	/** JavaScript snippet as read from {@link #FILL_FORM_JS_FILE}. */
+	private static final String FILL_FORM_JS = JavaScriptUtil.loadSnippet(FILL_FORM_JS_FILE);
+	/**
+	 * Reads the values of all elements given; {@code null} for a disabled or read-only element, as
+	 * {@link #FILL_FORM_JS_FILE} returns.
+	 */
+	private static final String READ_VALUES_JS = "var values = [];"
+			+ " for (var i = 0; i < arguments[0].length; i++) { var e = arguments[0][i];"
+			+ " values.push(e.disabled || e.readOnly ? null : e.value); }"
+			+ " return values;";
+	/** Logged after filling by {@link #fill()}. */
+	private static final String DEFAULT_FILLED_MESSAGE = "Filled form";
+
+	/** WebDriver displaying the form. */
+	private final WebDriver fDriver;
+	/** Values of the fields set by script. Key is the finder of the field. */
+	private final Map<By, String> fScriptedValues = new LinkedHashMap<By, String>();
+	/** Values of the fields typed key by key. Key is the finder of the field. */
+	private final Map<By, String> fTypedValues = new LinkedHashMap<By, String>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param driver
+	 *            WebDriver displaying the form
+	 */
+	public FormFiller(final WebDriver driver) {
+		this.fDriver = driver;
+	}
+
+	/**
+	 * Fill the fields by script and verify them.
+	 *
+	 * @param values
+	 *            values of the fields in the order to fill them. Key is the finder of the field.
+	 * @param driver
+	 *            WebDriver displaying the form
+	 */
+	public static void fill(final Map<By, String> values, final WebDriver driver) {
+		new FormFiller(driver).setAll(values).fill();
+	}
+
+	/**
+	 * Set the field by script.
+	 *
+	 * @param finder
+	 *            how to find the field
+	 * @param value
+	 *            value to set
+	 * @return this filler
+	 */
+	public FormFiller set(final By finder, final String value) {
+		this.fTypedValues.remove(finder);
+		this.fScriptedValues.put(finder, checkValue(finder, value));
+		return this;
+	}
+
+	/**
+	 * Set the fields by script.
+	 *
+	 * @param values
+	 *            values of the fields. Key is the finder of the field.
+	 * @return this filler
+	 */
+	public FormFiller setAll(final Map<By, String> values) {
+		for (Map.Entry<By, String> entry : values.entrySet()) {
+			set(entry.getKey(), entry.getValue());
+		}
+		return this;
+	}
+
+	/**
+	 * Type the value into the field key by key. Slower than {@link #set(By, String)}; meant for fields, which react
+	 * to single keys.
+	 *
+	 * @param finder
+	 *            how to find the field
+	 * @param value
+	 *            value to type
+	 * @return this filler
+	 */
+	public FormFiller type(final By finder, final String value) {
+		this.fScriptedValues.remove(finder);
+		this.fTypedValues.put(finder, checkValue(finder, value));
+		return this;
+	}
+
+	/**
+	 * Fill all fields given so far and wait until they hold their values. Fields set by script, which don't hold
+	 * their value afterwards (e.g. because of an input mask), are typed instead.
+	 *
+	 * @throws InvalidElementStateException
+	 *             if a field is disabled or read-only
+	 */
+	public void fill() {
+		fill(DEFAULT_FILLED_MESSAGE);
+	}
+
+	/**
+	 * Fill all fields given so far like {@link #fill()} does and document the step. In
+	 * {@link Logger#isCaptureMode() capture mode} one screenshot is taken after filling, highlighting the field filled
+	 * last.
+	 *
+	 * @param filledMessage
+	 *            message to log afterwards; part of the screenshot's file name
+	 * @throws InvalidElementStateException
+	 *             if a field is disabled or read-only
+	 */
+	@SuppressWarnings("unchecked")
+	public void fill(final String filledMessage) {
+		final List<WebElement> typedElements = new ArrayList<WebElement>();
+		final List<String> typedValues = new ArrayList<String>();
+		// field filled last, highlighted on the screenshot
+		By lastFinder = null;
+		WebElement lastElement = null;
+
+		if (!this.fScriptedValues.isEmpty()) {
+			List<WebElement> elements = findFields(this.fScriptedValues);
+			List<String> values = new ArrayList<String>(this.fScriptedValues.values());
+			List<Object> actualValues = (List<Object>) ((JavascriptExecutor) this.fDriver).executeScript(FILL_FORM_JS,
+					elements, values);
+			int i = 0;
+			for (By finder : this.fScriptedValues.keySet()) {
+				if (actualValues.get(i) == null) {
+					throw newNotEditableException(finder);
+				}
+				if (!values.get(i).equals(actualValues.get(i))) {
+					Logger.logStepResult("Field [" + finder + "] has not accepted the value set by script ["
+							+ actualValues.get(i) + "]. Typing it instead.", false);
+					typedElements.add(elements.get(i));
+					typedValues.add(values.get(i));
+				}
+				lastFinder = finder;
+				lastElement = elements.get(i);
+				i++;
+			}
+		}
+		if (!this.fTypedValues.isEmpty()) {
+			List<WebElement> elements = findFields(this.fTypedValues);
+			// the fields set by script have been checked already
+			List<Object> actualValues = (List<Object>) ((JavascriptExecutor) this.fDriver).executeScript(
+					READ_VALUES_JS, elements);
+			int i = 0;
+			for (By finder : this.fTypedValues.keySet()) {
+				if (actualValues.get(i) == null) {
+					throw newNotEditableException(finder);
+				}
+				lastFinder = finder;
+				lastElement = elements.get(i);
+				i++;
+			}
+			typedElements.addAll(elements);
+			typedValues.addAll(this.fTypedValues.values());
+		}
+		if (!typedElements.isEmpty()) {
+			typeValues(typedElements, typedValues);
+		}
+		Logger.logStepResult("Filled fields " + this.fScriptedValues.keySet() + " and typed into fields "
+				+ this.fTypedValues.keySet(), false);
+		if (lastElement == null) {
+			BrowserLogger.logStepResult(filledMessage, FormFiller.class.toString());
+		} else {
+			BrowserLogger.logStepResult(filledMessage, new RenewableWebElement(this.fDriver, lastElement, lastFinder,
+					true), FormFiller.class.toString());
+		}
+	}
+
+	/**
+	 * Type the values and retype the ones, which the fields don't hold, until all of them do.
+	 *
+	 * @param elements
+	 *            fields to type into
+	 * @param values
+	 *            value per field
+	 */
+	private void typeValues(final List<WebElement> elements, final List<String> values) {
+		for (int i = 0; i < elements.size(); i++) {
+			typeValue(elements.get(i), values.get(i));
+		}
+		AbstractPage.waitForCondition(new ExpectedCondition<Boolean>() {
+			@SuppressWarnings("unchecked")
+			public Boolean apply(final WebDriver driver) {
+				// all values with one call
+				List<Object> actualValues = (List<Object>) ((JavascriptExecutor) driver).executeScript(READ_VALUES_JS,
+						elements);
+				boolean isFilled = true;
+				for (int i = 0; i < elements.size(); i++) {
+					if (!values.get(i).equals(actualValues.get(i))) {
+						typeValue(elements.get(i), values.get(i));
+						isFilled = false;
+					}
+				}
+				return Boolean.valueOf(isFilled);
+			}
+
+			@Override
+			public String toString() {
+				return "Waiting for the fields to hold the typed values " + values + ".";
+			}
+		}, AbstractPage.WAIT_TIME_LIMIT, this.fDriver);
+	}
+
+	/**
+	 * @param element
+	 *            field to type into
+	 * @param value
+	 *            value replacing the content of the field
+	 */
+	private static void typeValue(final WebElement element, final String value) {
+		element.clear();
+		element.sendKeys(value);
+	}
+
+	/**
+	 * Find the fields. A field on the page already costs one call without the implicit wait; missing ones are waited
+	 * for.
+	 *
+	 * @param values
+	 *            values of the fields. Key is the finder of the field.
+	 * @return the fields in the order of the finders
+	 */
+	private List<WebElement> findFields(final Map<By, String> values) {
+		List<WebElement> elements = new ArrayList<WebElement>(values.size());
+		for (By finder : values.keySet()) {
+			List<WebElement> found = ImplicitWaits.INSTANCE.findElementsNow(finder, this.fDriver);
+			if (found.isEmpty()) {
+				elements.add(AbstractPage.waitForElement(finder, AbstractPage.WAIT_TIME_LIMIT, this.fDriver)
+						.getWebElement());
+			} else {
+				elements.add(found.get(0));
+			}
+		}
+		return elements;
+	}
+
+	/**
+	 * @param finder
+	 *            how to find the field
+	 * @return exception naming the field, which is disabled or read-only
+	 */
+	private static InvalidElementStateException newNotEditableException(final By finder) {
+		return new InvalidElementStateException("Field [" + finder + "] is disabled or read-only and can't be filled.");
+	}
+
+	/**
+	 * @param finder
+	 *            how to find the field
+	 * @param value
+	 *            value for the field
+	 * @return the value
+	 */
+	private static String checkValue(final By finder, final String value) {
+		if (value == null) {
+			throw new IllegalArgumentException("The value for field [" + finder + "] can't be null.");
+		}
+		return value;
+	}
+}
@@ -0,0 +1,247 @@
+package com.whistl.selenium.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.whistl.selenium.pages.AbstractPage;
+import com.whistl.selenium.test.Logger;
+
+/**
+ * Keeps track of the frame a driver has selected, so switching to a frame costs as few round trips as possible:
+ * <ul>
+ * <li>A switch to the frame already selected is skipped.</li>
+ * <li>A switch to a frame inside the selected one starts from there, without going back to the top level document
+ * first; a switch to an enclosing frame goes up via {@code parentFrame()} if that is shorter.</li>
+ * <li>Frame elements are cached per path; a stale one is found again.</li>
+ * </ul>
+ * The selected frame is marked in the browser, and the mark is checked with one script call before a switch is
+ * skipped. Therefore switches done elsewhere (e.g. {@code driver.switchTo().defaultContent()}) or a reloaded page
+ * don't lead to a wrong frame. Paths always start at the top level document.<br>
+ * The context keeps its driver and the frame elements in memory until it is {@link #release(WebDriver) released},
+ * which {@link DriverFactory#releaseDriver(WebDriver)} does when the driver is quit or replaced.
+ */
+public final class FrameContext {
+
+	/** Property of the frame's window holding the path it has been selected by. */
+	private static final String MARKER_PROPERTY = "__whistlFramePath";
+	/**
+	 * Returns the mark of the selected frame: an empty string for the top level document, the path of a frame
+	 * selected by this class or {@code null} for any other frame.
+	 */
+	private static final String READ_MARKER_JS = "return window === window.top ? '' : (window." + MARKER_PROPERTY
+			+ " || null);";
+	/** Marks the selected frame. Argument: the path. */
+	private static final String WRITE_MARKER_JS = "window." + MARKER_PROPERTY + " = arguments[0];";
+	/** Separates the finders in a path key; doesn't occur in {@link By#toString()}. */
+	private static final char KEY_SEPARATOR = '\u001f';
+
+	/** Context per driver. Removed by {@link #release(WebDriver)}. */
+	private static final Map<WebDriver, FrameContext> CONTEXTS = new HashMap<WebDriver, FrameContext>();
+
+	/** Driver switching the frames. */
+	private final WebDriver fDriver;
+	/** Path selected last; {@code null} if unknown. */
+	private List<By> fSelectedPath;
+	/** Frame elements. Key is the path key of the frame. */
+	private final Map<String, WebElement> fFrameElements = new HashMap<String, WebElement>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param driver
+	 *            driver switching the frames
+	 */
+	private FrameContext(final WebDriver driver) {
+		this.fDriver = driver;
+	}
+
+	/**
+	 * Get the frame context of the driver.
+	 *
+	 * @param driver
+	 *            driver switching the frames
+	 * @return the context; created on first use
+	 */
+	public static FrameContext of(final WebDriver driver) {
+		synchronized (CONTEXTS) {
+			FrameContext context = CONTEXTS.get(driver);
+			if (context == null) {
+				context = new FrameContext(driver);
+				CONTEXTS.put(driver, context);
+			}
+			return context;
+		}
+	}
+
+	/**
+	 * Forget the context of the driver, so neither the driver nor the frame elements are kept in memory. A later
+	 * {@link #of(WebDriver)} creates a new context.
+	 *
+	 * @param driver
+	 *            driver quit or no longer used
+	 */
+	public static void release(final WebDriver driver) {
+		synchronized (CONTEXTS) {
+			CONTEXTS.remove(driver);
+		}
+	}
+
+	/**
+	 * Select the frame given by the path. Waits for every frame not cached yet.
+	 *
+	 * @param findersForFrames
+	 *            finders of the frames from the top level document down to the frame to select; none for the top
+	 *            level document
+	 */
+	public synchronized void switchTo(final By... findersForFrames) {
+		List<By> target = Arrays.asList(findersForFrames);
+		List<By> current = getVerifiedSelectedPath();
+		if (target.equals(current)) {
+			return;
+		}
+		this.fSelectedPath = null;
+		int depth;
+		if (current != null && isPrefix(current, target)) {
+			// go down from the selected frame
+			depth = current.size();
+		} else if (current != null && isPrefix(target, current)
+				&& current.size() - target.size() <= target.size() + 1) {
+			// go up, each level is one call
+			for (int i = current.size(); i > target.size(); i--) {
+				this.fDriver.switchTo().parentFrame();
+			}
+			depth = target.size();
+		} else {
+			this.fDriver.switchTo().defaultContent();
+			depth = 0;
+		}
+		for (int i = depth; i < target.size(); i++) {
+			enterFrame(target.subList(0, i + 1));
+		}
+		if (!target.isEmpty()) {
+			((JavascriptExecutor) this.fDriver).executeScript(WRITE_MARKER_JS, getKey(target));
+		}
+		this.fSelectedPath = new ArrayList<By>(target);
+	}
+
+	/**
+	 * Select the top level document, unless it is selected already.
+	 */
+	public void switchToDefaultContent() {
+		switchTo();
+	}
+
+	/**
+	 * @return path selected last; empty for the top level document, {@code null} if unknown
+	 */
+	public synchronized List<By> getSelectedPath() {
+		return this.fSelectedPath == null ? null : Collections.unmodifiableList(this.fSelectedPath);
+	}
+
+	/**
+	 * Forget the selected frame and all frame elements, e.g. after another page has been loaded.
+	 */
+	public synchronized void invalidate() {
+		this.fSelectedPath = null;
+		this.fFrameElements.clear();
+	}
+
+	/**
+	 * Check the mark in the browser against the path selected last.
+	 *
+	 * @return path selected last if it is still selected; {@code null} otherwise
+	 */
+	private List<By> getVerifiedSelectedPath() {
+		Object marker = ((JavascriptExecutor) this.fDriver).executeScript(READ_MARKER_JS);
+		if (this.fSelectedPath != null && getKey(this.fSelectedPath).equals(marker)) {
+			return this.fSelectedPath;
+		}
+		if ("".equals(marker)) {
+			// top level document, e.g. after a switch done elsewhere
+			return Collections.emptyList();
+		}
+		return null;
+	}
+
+	/**
+	 * Switch from the parent frame into the last frame of the path.
+	 *
+	 * @param path
+	 *            path of the frame; the parent frame is selected
+	 */
+	private void enterFrame(final List<By> path) {
+		String key = getKey(path);
+		WebElement frame = this.fFrameElements.get(key);
+		if (frame != null) {
+			try {
+				this.fDriver.switchTo().frame(frame);
+				return;
+			} catch (StaleElementReferenceException e) {
+				Logger.logStepResult("Frame [" + path.get(path.size() - 1) + "] has been replaced. Finding it again.",
+						false);
+			} catch (NoSuchFrameException e) {
+				Logger.logStepResult("Frame [" + path.get(path.size() - 1) + "] is gone. Finding it again.", false);
+			}
+			removeFrames(key);
+		}
+		frame = AbstractPage.waitForElement(path.get(path.size() - 1), AbstractPage.WAIT_TIME_LIMIT, this.fDriver)
+				.getWebElement();
+		this.fDriver.switchTo().frame(frame);
+		this.fFrameElements.put(key, frame);
+	}
+
+	/**
+	 * Forget the frame and all frames inside it, since they are found relative to it.
+	 *
+	 * @param key
+	 *            path key of the frame
+	 */
+	private void removeFrames(final String key) {
+		String innerPrefix = key + KEY_SEPARATOR;
+		List<String> removed = new ArrayList<String>();
+		for (String cachedKey : this.fFrameElements.keySet()) {
+			if (cachedKey.equals(key) || cachedKey.startsWith(innerPrefix)) {
+				removed.add(cachedKey);
+			}
+		}
+		this.fFrameElements.keySet().removeAll(removed);
+	}
+
+	/**
+	 * @param prefix
+	 *            possible prefix
+	 * @param path
+	 *            path to check
+	 * @return {@code true} if the path starts with the prefix
+	 */
+	private static boolean isPrefix(final List<By> prefix, final List<By> path) {
+		return prefix.size() <= path.size() && prefix.equals(path.subList(0, prefix.size()));
+	}
+
+	/**
+	 * @param path
+	 *            path of a frame
+	 * @return key of the path
+	 */
+	private static String getKey(final List<By> path) {
+		StringBuilder sb = new StringBuilder();
+		for (By finder : path) {
+			if (sb.length() > 0) {
+				sb.append(KEY_SEPARATOR);
+			}
+			sb.append(finder);
+		}
+		return sb.toString();
+	}
+}
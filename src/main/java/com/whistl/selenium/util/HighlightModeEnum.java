@@ -0,0 +1,60 @@
+package com.whistl.selenium.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enumeration of the ways {@link ElementHighlighter} marks an element on screenshots.<br>
+ * The mode is selected via the property {@code highlightMode} (config.properties).
+ */
+public enum HighlightModeEnum {
+
+	/** The style attribute of the element is replaced. May change the layout of the page. */
+	STYLE("style"),
+
+	/**
+	 * A box is drawn over the element in a separate layer. The page itself is not changed, so nothing moves and no
+	 * style has to be restored.
+	 */
+	OVERLAY("overlay");
+
+	/** Name of the mode as used in the configuration. */
+	private String fName;
+
+	/**
+	 * internal mapping of names to enumeration entries for quick access by name.
+	 */
+	private static Map<String, HighlightModeEnum> allElementsMap;
+
+	static {
+		allElementsMap = new HashMap<String, HighlightModeEnum>();
+		for (HighlightModeEnum mode : HighlightModeEnum.values()) {
+			allElementsMap.put(mode.fName, mode);
+		}
+	}
+
+	/**
+	 * Internal constructor.
+	 *
+	 * @param name
+	 *            the name of the mode
+	 */
+	private HighlightModeEnum(final String name) {
+		this.fName = name;
+	}
+
+	/**
+	 * Use this method to get the corresponding enumeration entry by name.
+	 *
+	 * @param name
+	 *            the name of the mode
+	 * @return enumeration entry for the name or {@link #STYLE} if the name is empty or unknown
+	 */
+	public static HighlightModeEnum getByName(final String name) {
+		if (name == null) {
+			return STYLE;
+		}
+		HighlightModeEnum mode = allElementsMap.get(name.trim().toLowerCase());
+		return mode == null ? STYLE : mode;
+	}
+}
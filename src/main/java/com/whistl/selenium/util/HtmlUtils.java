@@ -5,10 +5,39 @@ import java.util.Map;
 
 /**
  * Html utility methods to work with tags.
- * 
+ *
  */
 public final class HtmlUtils {
 
+	/** Separator of the declarations of a html style. */
+	public static final String STYLE_ENTRY_SEPARATOR = ";";
+	/** Separator of property and value of a html style declaration. */
+	public static final String STYLE_KEY_VALUE_SEPARATOR = ":";
+
+	/**
+	 * Receives the key-value pairs found by
+	 * {@link HtmlUtils#visitKeyValues(CharSequence, String, String, boolean, KeyValueVisitor)} as index ranges of the
+	 * parsed text, so no strings are created unless the visitor needs them.
+	 */
+	public interface KeyValueVisitor {
+		/**
+		 * Visit one key-value pair. Key and value are trimmed.
+		 *
+		 * @param text
+		 *            parsed text
+		 * @param keyStart
+		 *            index of the first character of the key
+		 * @param keyEnd
+		 *            index after the key
+		 * @param valueStart
+		 *            index of the first character of the value
+		 * @param valueEnd
+		 *            index after the value
+		 * @return {@code false} to stop parsing
+		 */
+		boolean visit(CharSequence text, int keyStart, int keyEnd, int valueStart, int valueEnd);
+	}
+
 	/**
 	 * Should not be used, since all methods are static.
 	 */
@@ -17,18 +46,58 @@ public final class HtmlUtils {
 
 	/**
 	 * Split the html style string.
-	 * 
+	 *
 	 * @param htmlStyle
 	 *            original html style string
 	 * @return Map containing keys and values.
 	 */
 	public static Map<String, String> getStyle(final String htmlStyle) {
-		return getKeyValueMap(htmlStyle, ";", ":", false);
+		return getKeyValueMap(htmlStyle, STYLE_ENTRY_SEPARATOR, STYLE_KEY_VALUE_SEPARATOR, false);
+	}
+
+	/**
+	 * Split the html style string into the given map.
+	 *
+	 * @param htmlStyle
+	 *            original html style string
+	 * @param target
+	 *            map to put the keys and values to; not cleared before
+	 * @return the target map
+	 */
+	public static Map<String, String> getStyle(final CharSequence htmlStyle, final Map<String, String> target) {
+		return getKeyValueMap(htmlStyle, STYLE_ENTRY_SEPARATOR, STYLE_KEY_VALUE_SEPARATOR, false, target);
+	}
+
+	/**
+	 * Get the value of one property of a html style without splitting the whole style. Meant for waits checking a
+	 * style repeatedly.
+	 *
+	 * @param htmlStyle
+	 *            original html style string
+	 * @param property
+	 *            name of the property, e.g. {@code display}
+	 * @return value of the last declaration of the property or {@code null} if it is not declared
+	 */
+	public static String getStyleValue(final CharSequence htmlStyle, final String property) {
+		final String[] value = new String[1];
+		visitKeyValues(htmlStyle, STYLE_ENTRY_SEPARATOR, STYLE_KEY_VALUE_SEPARATOR, false, new KeyValueVisitor() {
+
+			@Override
+			public boolean visit(final CharSequence text, final int keyStart, final int keyEnd, final int valueStart,
+					final int valueEnd) {
+				if (regionEquals(text, keyStart, keyEnd, property)) {
+					// later declarations win
+					value[0] = text.subSequence(valueStart, valueEnd).toString();
+				}
+				return true;
+			}
+		});
+		return value[0];
 	}
 
 	/**
 	 * Use to extract a key-value map from an html attribute containing multiple key-value pairs.
-	 * 
+	 *
 	 * @param htmlToParse
 	 *            html attribute to parse
 	 * @param entrySeparator
@@ -42,78 +111,191 @@ public final class HtmlUtils {
 	 */
 	public static Map<String, String> getKeyValueMap(final String htmlToParse, final String entrySeparator,
 			final String keyValueSeparator, final boolean removeValueQuotation) {
-		HashMap<String, String> results = new HashMap<String, String>();
-		String[] entries = htmlToParse.split(getRegexByString(entrySeparator) + "+");
-		String[] keyValuePair = new String[2];
-		for (String entry : entries) {
-			keyValuePair = entry.split(getRegexByString(keyValueSeparator) + "+");
-			if (keyValuePair[0] != null && keyValuePair[0].length() > 0) {
-				// try to remove quotation if required
-				if (removeValueQuotation) {
-					keyValuePair[1] = removeQuotation(keyValuePair[1]);
+		return getKeyValueMap(htmlToParse, entrySeparator, keyValueSeparator, removeValueQuotation,
+				new HashMap<String, String>());
+	}
+
+	/**
+	 * Use to extract key-value pairs from an html attribute into the given map. Keys and values are trimmed; the value
+	 * is everything after the first key-value separator, so values may contain it (e.g. {@code url(http://...)}).
+	 * Entries without key-value separator or with an empty key are ignored.
+	 *
+	 * @param htmlToParse
+	 *            html attribute to parse
+	 * @param entrySeparator
+	 *            separator used to separate one key-value pair from the next one
+	 * @param keyValueSeparator
+	 *            separator used to separate key from value
+	 * @param removeValueQuotation
+	 *            should the flanking quotation signs be removed from values?
+	 * @param target
+	 *            map to put the keys and values to; not cleared before
+	 * @return the target map
+	 */
+	public static Map<String, String> getKeyValueMap(final CharSequence htmlToParse, final String entrySeparator,
+			final String keyValueSeparator, final boolean removeValueQuotation, final Map<String, String> target) {
+		visitKeyValues(htmlToParse, entrySeparator, keyValueSeparator, removeValueQuotation, new KeyValueVisitor() {
+
+			@Override
+			public boolean visit(final CharSequence text, final int keyStart, final int keyEnd, final int valueStart,
+					final int valueEnd) {
+				target.put(text.subSequence(keyStart, keyEnd).toString(),
+						text.subSequence(valueStart, valueEnd).toString());
+				return true;
+			}
+		});
+		return target;
+	}
+
+	/**
+	 * Parse key-value pairs in one pass over the text. Repeated separators count as one.
+	 *
+	 * @param htmlToParse
+	 *            html attribute to parse
+	 * @param entrySeparator
+	 *            separator used to separate one key-value pair from the next one
+	 * @param keyValueSeparator
+	 *            separator used to separate key from value
+	 * @param removeValueQuotation
+	 *            should the flanking quotation signs be removed from values?
+	 * @param visitor
+	 *            receives the key-value pairs in order
+	 */
+	public static void visitKeyValues(final CharSequence htmlToParse, final String entrySeparator,
+			final String keyValueSeparator, final boolean removeValueQuotation, final KeyValueVisitor visitor) {
+		if (entrySeparator.length() == 0 || keyValueSeparator.length() == 0) {
+			throw new IllegalArgumentException("Separators can't be empty.");
+		}
+		int length = htmlToParse.length();
+		int entryStart = 0;
+		while (entryStart < length) {
+			int entryEnd = indexOf(htmlToParse, entrySeparator, entryStart, length);
+			if (entryEnd < 0) {
+				entryEnd = length;
+			}
+			int separator = indexOf(htmlToParse, keyValueSeparator, entryStart, entryEnd);
+			if (separator >= 0) {
+				int keyStart = skipWhitespace(htmlToParse, entryStart, separator);
+				int keyEnd = trimEnd(htmlToParse, keyStart, separator);
+				int valueStart = separator + keyValueSeparator.length();
+				while (startsWith(htmlToParse, keyValueSeparator, valueStart, entryEnd)) {
+					valueStart += keyValueSeparator.length();
+				}
+				valueStart = skipWhitespace(htmlToParse, valueStart, entryEnd);
+				int valueEnd = trimEnd(htmlToParse, valueStart, entryEnd);
+				if (removeValueQuotation && valueEnd - valueStart > 1 && isQuote(htmlToParse.charAt(valueStart))
+						&& htmlToParse.charAt(valueStart) == htmlToParse.charAt(valueEnd - 1)) {
+					valueStart++;
+					valueEnd--;
+				}
+				if (keyEnd > keyStart && !visitor.visit(htmlToParse, keyStart, keyEnd, valueStart, valueEnd)) {
+					return;
 				}
-				results.put(keyValuePair[0], keyValuePair[1]);
 			}
+			entryStart = entryEnd + entrySeparator.length();
 		}
-		return results;
 	}
 
 	/**
-	 * Convert a plain string to a regular expression, which matches exactly the parameter.
-	 * 
-	 * @param plainString
-	 *            any string to be converted
-	 * @return regular expression matching the plainString parameter
+	 * @param text
+	 *            text to search
+	 * @param searched
+	 *            text to find
+	 * @param from
+	 *            index to start searching at
+	 * @param to
+	 *            index the found text has to end before
+	 * @return index of the text or -1 if not found
 	 */
-	private static String getRegexByString(final String plainString) {
-		String regexp = "";
-		char[] letters = plainString.toCharArray();
-
-		for (int i = 0; i < letters.length; i++) {
-			regexp += getCharRegexp(letters[i]);
+	private static int indexOf(final CharSequence text, final String searched, final int from, final int to) {
+		char first = searched.charAt(0);
+		for (int i = from; i <= to - searched.length(); i++) {
+			if (text.charAt(i) == first && startsWith(text, searched, i, to)) {
+				return i;
+			}
 		}
-		return regexp;
+		return -1;
 	}
 
 	/**
-	 * Create a regular expression, which is going to match a specific character.
-	 * 
-	 * @param ch
-	 *            character for regular expression.
-	 * @return regular expression matching the character
+	 * @param text
+	 *            text to check
+	 * @param prefix
+	 *            expected text
+	 * @param start
+	 *            index to check at
+	 * @param to
+	 *            index the expected text has to end before
+	 * @return {@code true} if the text continues with the prefix at the index
 	 */
-	private static String getCharRegexp(final char ch) {
-		String regex = "";
-		if ("\\.^$|?*+[]{}()\\t\\n\\f\\r".indexOf(ch) != -1) {
-			regex += "\\" + ch;
-		} else if (Character.isSpaceChar(ch)) {
-			regex += "[" + ch + "]";
-		} else {
-			regex += ch;
+	private static boolean startsWith(final CharSequence text, final String prefix, final int start, final int to) {
+		if (start + prefix.length() > to) {
+			return false;
 		}
-		return regex;
+		for (int i = 0; i < prefix.length(); i++) {
+			if (text.charAt(start + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param text
+	 *            text to compare
+	 * @param start
+	 *            start of the region
+	 * @param end
+	 *            end of the region
+	 * @param expected
+	 *            expected content
+	 * @return {@code true} if the region equals the expected content
+	 */
+	private static boolean regionEquals(final CharSequence text, final int start, final int end,
+			final String expected) {
+		return end - start == expected.length() && startsWith(text, expected, start, end);
 	}
 
 	/**
-	 * Removes leading and flanking quotation if found. Flanking white spaces are removed as well.
-	 * 
-	 * @param value
-	 *            to truncate quotations from
-	 * @return value without quotation signs, if there were any around it.
+	 * @param text
+	 *            text to check
+	 * @param start
+	 *            index to start at
+	 * @param end
+	 *            index to stop at
+	 * @return index of the first non whitespace character or {@code end}
 	 */
-	private static String removeQuotation(final String value) {
-		if (value == null) {
-			return null;
+	private static int skipWhitespace(final CharSequence text, final int start, final int end) {
+		int i = start;
+		while (i < end && Character.isWhitespace(text.charAt(i))) {
+			i++;
 		}
-		String trimmedValue = value.trim();
-		if (trimmedValue.length() > 1) {
-			String firstChar = trimmedValue.substring(0, 1);
-			String lastChar = trimmedValue.substring(trimmedValue.length() - 1);
-			if (firstChar.equals(lastChar) && firstChar.matches("[\\\"']")) {
-				// this value has leading and flanking quotation signs
-				return trimmedValue.substring(1, trimmedValue.length() - 1);
-			}
+		return i;
+	}
+
+	/**
+	 * @param text
+	 *            text to check
+	 * @param start
+	 *            index not to go below
+	 * @param end
+	 *            index to start at
+	 * @return index after the last non whitespace character or {@code start}
+	 */
+	private static int trimEnd(final CharSequence text, final int start, final int end) {
+		int i = end;
+		while (i > start && Character.isWhitespace(text.charAt(i - 1))) {
+			i--;
 		}
-		return trimmedValue;
+		return i;
+	}
+
+	/**
+	 * @param ch
+	 *            character to check
+	 * @return {@code true} for {@code "} and {@code '}
+	 */
+	private static boolean isQuote(final char ch) {
+		return ch == '"' || ch == '\'';
 	}
 }
@@ -0,0 +1,161 @@
+package com.whistl.selenium.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Remembers the implicit wait of every driver, since WebDriver can set it, but not tell it. With an implicit wait,
+ * every lookup of an absent element blocks for the whole wait before it fails. Presence checks therefore look up
+ * elements {@link #findElementsNow(By, WebDriver) without implicit wait}: the wait is switched off for the lookup and
+ * set again afterwards, so normal lookups are not changed.<br>
+ * Set implicit waits only via {@link #set(WebDriver, long)}; a wait set directly is not known here and not
+ * suspended.<br>
+ * An enum is used for implementation in order to make it a thread safe and serializable singleton.
+ */
+public enum ImplicitWaits {
+	/** The only instance of the registry. */
+	INSTANCE;
+
+	/** State per driver. Drivers are forgotten once they are no longer used. */
+	private final Map<WebDriver, WaitState> fStates = Collections
+			.synchronizedMap(new WeakHashMap<WebDriver, WaitState>());
+
+	/**
+	 * Set the implicit wait of the driver and remember it.
+	 *
+	 * @param driver
+	 *            driver to configure
+	 * @param millis
+	 *            implicit wait in milliseconds; 0 to switch it off
+	 */
+	public void set(final WebDriver driver, final long millis) {
+		WaitState state = getState(driver);
+		synchronized (state) {
+			state.millis = Math.max(millis, 0);
+			if (state.suspensions == 0) {
+				applyImplicitWait(driver, state.millis);
+			}
+		}
+	}
+
+	/**
+	 * @param driver
+	 *            driver to check
+	 * @return implicit wait set via {@link #set(WebDriver, long)} in milliseconds; 0 if none has been set
+	 */
+	public long get(final WebDriver driver) {
+		WaitState state = this.fStates.get(driver);
+		return state == null ? 0 : state.millis;
+	}
+
+	/**
+	 * Look up all elements matching the finder without waiting for them to appear.
+	 *
+	 * @param finder
+	 *            how to find the elements
+	 * @param driver
+	 *            driver displaying the page
+	 * @return the elements found; empty if there are none
+	 */
+	public List<WebElement> findElementsNow(final By finder, final WebDriver driver) {
+		WaitState state = this.fStates.get(driver);
+		if (state == null || state.millis == 0) {
+			// nothing to suspend
+			return driver.findElements(finder);
+		}
+		suspend(driver, state);
+		try {
+			return driver.findElements(finder);
+		} finally {
+			resume(driver, state);
+		}
+	}
+
+	/**
+	 * Check whether an element is on the page without waiting for it to appear.
+	 *
+	 * @param finder
+	 *            how to find the element
+	 * @param driver
+	 *            driver displaying the page
+	 * @return {@code true} if at least one element matches
+	 */
+	public boolean isPresentNow(final By finder, final WebDriver driver) {
+		return !findElementsNow(finder, driver).isEmpty();
+	}
+
+	/**
+	 * Switch the implicit wait off. Nested suspensions switch it off only once.
+	 *
+	 * @param driver
+	 *            driver to configure
+	 * @param state
+	 *            state of the driver
+	 */
+	private static void suspend(final WebDriver driver, final WaitState state) {
+		synchronized (state) {
+			if (state.suspensions++ == 0) {
+				applyImplicitWait(driver, 0);
+			}
+		}
+	}
+
+	/**
+	 * Switch the implicit wait on again after the last suspension.
+	 *
+	 * @param driver
+	 *            driver to configure
+	 * @param state
+	 *            state of the driver
+	 */
+	private static void resume(final WebDriver driver, final WaitState state) {
+		synchronized (state) {
+			if (--state.suspensions == 0) {
+				applyImplicitWait(driver, state.millis);
+			}
+		}
+	}
+
+	/**
+	 * @param driver
+	 *            driver to configure
+	 * @param millis
+	 *            implicit wait in milliseconds
+	 */
+	private static void applyImplicitWait(final WebDriver driver, final long millis) {
+		driver.manage().timeouts().implicitlyWait(millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param driver
+	 *            driver
+	 * @return state of the driver; created if necessary
+	 */
+	private WaitState getState(final WebDriver driver) {
+		synchronized (this.fStates) {
+			WaitState state = this.fStates.get(driver);
+			if (state == null) {
+				state = new WaitState();
+				this.fStates.put(driver, state);
+			}
+			return state;
+		}
+	}
+
+	/**
+	 * Implicit wait of one driver.
+	 */
+	private static final class WaitState {
+		/** Implicit wait set in milliseconds. */
+		private long millis;
+		/** Number of lookups currently running without implicit wait. */
+		private int suspensions;
+	}
+}
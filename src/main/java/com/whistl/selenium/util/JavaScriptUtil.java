@@ -1,5 +1,11 @@
 package com.whistl.selenium.util;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Utility class for JavaScript calls, which are not as intuitive as they should be.
  */
@@ -12,6 +18,38 @@ public final class JavaScriptUtil {
 		// should not be called, since all methods are static
 	}
 
+	/**
+	 * Read a JavaScript snippet from the classpath (e.g. {@code /javascript/getPathTo.js}). Meant to be called once
+	 * per snippet and kept in a constant.
+	 * 
+	 * @param resourcePath
+	 *            absolute path of the snippet within the classpath
+	 * @return content of the snippet
+	 */
+	public static String loadSnippet(final String resourcePath) {
+		InputStream snippetStream = JavaScriptUtil.class.getResourceAsStream(resourcePath);
+		if (snippetStream == null) {
+			throw new RuntimeException("Unable to locate the file " + resourcePath);
+		}
+		StringBuilder snippet = new StringBuilder();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(snippetStream, StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				snippet.append(line).append('\n');
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to read the file " + resourcePath, e);
+		} finally {
+			try {
+				reader.close();
+			} catch (IOException ignore) {
+				// the content has been read already
+			}
+		}
+		return snippet.toString();
+	}
+
 	/**
 	 * 
 	 * @param objectName
@@ -0,0 +1,403 @@
+package com.whistl.selenium.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import com.whistl.selenium.test.Logger;
+
+/**
+ * Times every {@link By} used by {@link com.whistl.selenium.pages.AbstractPage#waitForElement(By, Long, WebDriver)}
+ * and flags slow or fragile locators (positional, text or class based XPath, absolute paths). For every flagged
+ * locator an id or CSS selector is suggested, which has been verified to find exactly the same element on the live
+ * page.<br>
+ * The analysis is off by default, since the suggestions cost an additional script call per flagged locator. Switch it
+ * on via {@link #setEnabled(boolean)} or the system property {@value #ENABLED_PROPERTY}.<br>
+ * An enum is used for implementation in order to make it a thread safe and serializable singleton.
+ */
+public enum LocatorAnalyzer {
+	/** The only instance of the analyzer. */
+	INSTANCE;
+
+	/** System property to switch the analysis on. */
+	public static final String ENABLED_PROPERTY = "locatorAnalysis";
+	/** Average wait time from which a locator is considered slow. 1000 ms. */
+	public static final Long SLOW_LOCATOR_MILLIS = Long.valueOf(1000);
+	/** Maximal number of suggestions per locator. */
+	private static final int MAX_SUGGESTIONS = 3;
+
+	/** JavaScript snippet returning unique selectors for an element. Located within the project. */
+	private static final String SUGGEST_SELECTORS_JS_FILE = "/javascript/suggestSelectors.js";
+	/** JavaScript snippet as read from {@link #SUGGEST_SELECTORS_JS_FILE}. Read on first use. */
+	private String suggestSelectorsJS;
+
+	/** Fragile XPath constructs and the reason to report for them. */
+	private static final Map<Pattern, String> FRAGILE_XPATH_PATTERNS = new LinkedHashMap<Pattern, String>();
+	/** Fragile CSS constructs and the reason to report for them. */
+	private static final Map<Pattern, String> FRAGILE_CSS_PATTERNS = new LinkedHashMap<Pattern, String>();
+
+	static {
+		FRAGILE_XPATH_PATTERNS.put(Pattern.compile("^\\(?/(?!/)"), "absolute path");
+		FRAGILE_XPATH_PATTERNS.put(Pattern.compile("\\[\\s*\\d+\\s*\\]|position\\(\\)|last\\(\\)"), "positional");
+		FRAGILE_XPATH_PATTERNS.put(Pattern.compile("text\\(\\)"), "text based");
+		FRAGILE_XPATH_PATTERNS.put(Pattern.compile("contains\\(\\s*@class"), "class substring");
+		FRAGILE_XPATH_PATTERNS.put(Pattern.compile("^\\.?//\\*"), "wildcard scan");
+		FRAGILE_CSS_PATTERNS.put(Pattern.compile(":nth-(child|of-type)|:first-child|:last-child"), "positional");
+		FRAGILE_CSS_PATTERNS.put(Pattern.compile("^\\s*html\\b"), "absolute path");
+	}
+
+	/** Is the analysis switched on? */
+	private volatile boolean isEnabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	/** Collected statistics. Key is the locator. */
+	private final Map<By, LocatorStatistics> statistics = new ConcurrentHashMap<By, LocatorStatistics>();
+
+	/**
+	 * @return {@code true} if locators are analysed
+	 */
+	public boolean isEnabled() {
+		return this.isEnabled;
+	}
+
+	/**
+	 * Switch the analysis on or off.
+	 *
+	 * @param enabled
+	 *            {@code true} to analyse locators
+	 */
+	public void setEnabled(final boolean enabled) {
+		this.isEnabled = enabled;
+	}
+
+	/**
+	 * Record one wait for an element. Should the locator be slow or fragile and not have suggestions yet, they are
+	 * computed on the found element.
+	 *
+	 * @param finder
+	 *            locator used
+	 * @param durationNanos
+	 *            time until the element was found or the wait gave up
+	 * @param element
+	 *            found element; {@code null} if not found
+	 * @param driver
+	 *            WebDriver displaying the element
+	 */
+	public void record(final By finder, final long durationNanos, final RenewableWebElement element,
+			final WebDriver driver) {
+		if (!this.isEnabled) {
+			return;
+		}
+		LocatorStatistics stats = this.statistics.get(finder);
+		if (stats == null) {
+			LocatorStatistics newStats = new LocatorStatistics(finder);
+			stats = this.statistics.putIfAbsent(finder, newStats);
+			if (stats == null) {
+				stats = newStats;
+			}
+		}
+		stats.record(durationNanos, element != null);
+		if (element != null && stats.needsSuggestions()) {
+			stats.setSuggestions(suggestSelectors(element, driver));
+		}
+	}
+
+	/**
+	 * Ask the page for unique selectors of the element.
+	 *
+	 * @param element
+	 *            element to find a selector for
+	 * @param driver
+	 *            WebDriver displaying the element
+	 * @return suggested locators, best first; empty if nothing unique has been found
+	 */
+	@SuppressWarnings("unchecked")
+	private List<By> suggestSelectors(final RenewableWebElement element, final WebDriver driver) {
+		if (this.suggestSelectorsJS == null) {
+			this.suggestSelectorsJS = JavaScriptUtil.loadSnippet(SUGGEST_SELECTORS_JS_FILE);
+		}
+		List<By> suggestions = new ArrayList<By>();
+		try {
+			Object result = ((JavascriptExecutor) driver).executeScript(this.suggestSelectorsJS,
+					element.getWebElement(), Integer.valueOf(MAX_SUGGESTIONS));
+			if (result instanceof List) {
+				for (Map<String, Object> suggestion : (List<Map<String, Object>>) result) {
+					String value = String.valueOf(suggestion.get("value"));
+					suggestions.add("id".equals(suggestion.get("type")) ? By.id(value) : By.cssSelector(value));
+				}
+			}
+		} catch (WebDriverException e) {
+			Logger.logStepResult("Cannot suggest selectors for [" + element.getSearchTerm() + "]: "
+					+ e.getMessage(), false);
+		}
+		return suggestions;
+	}
+
+	/**
+	 * Find fragile constructs in the locator.
+	 *
+	 * @param finder
+	 *            locator to check
+	 * @return reasons, why the locator is fragile; empty if it isn't
+	 */
+	public static List<String> getFragility(final By finder) {
+		Map<Pattern, String> patterns;
+		if (finder instanceof By.ByXPath) {
+			patterns = FRAGILE_XPATH_PATTERNS;
+		} else if (finder instanceof By.ByCssSelector) {
+			patterns = FRAGILE_CSS_PATTERNS;
+		} else {
+			return Collections.emptyList();
+		}
+		// By.toString() is "By.xpath: <expression>"
+		String description = finder.toString();
+		String expression = description.substring(description.indexOf(':') + 1).trim();
+		List<String> reasons = new ArrayList<String>();
+		for (Map.Entry<Pattern, String> pattern : patterns.entrySet()) {
+			if (pattern.getKey().matcher(expression).find()) {
+				reasons.add(pattern.getValue());
+			}
+		}
+		return reasons;
+	}
+
+	/**
+	 * @return statistics of all recorded locators, the one most worth replacing first
+	 */
+	public List<LocatorStatistics> getStatistics() {
+		List<LocatorStatistics> result = new ArrayList<LocatorStatistics>(this.statistics.values());
+		Collections.sort(result, new Comparator<LocatorStatistics>() {
+			@Override
+			public int compare(final LocatorStatistics o1, final LocatorStatistics o2) {
+				return Double.compare(o2.getScore(), o1.getScore());
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * @return {@code true} if no locator has been recorded since the last {@link #reset()}
+	 */
+	public boolean isEmpty() {
+		return this.statistics.isEmpty();
+	}
+
+	/**
+	 * Forget everything recorded so far.
+	 */
+	public void reset() {
+		this.statistics.clear();
+	}
+
+	/**
+	 * Format the statistics as a ranked list. Locators, which are neither slow nor fragile, are left out.
+	 *
+	 * @return report of the flagged locators
+	 */
+	public String getReport() {
+		StringBuilder sb = new StringBuilder();
+		int rank = 0;
+		for (LocatorStatistics stats : getStatistics()) {
+			if (!stats.isSlow() && stats.getFragility().isEmpty()) {
+				continue;
+			}
+			rank++;
+			sb.append(String.format("%3d. %s%n", Integer.valueOf(rank), stats.getFinder()));
+			sb.append(String.format("     waits: %d, not found: %d, avg: %.1f ms, max: %d ms, total: %d ms%n",
+					Long.valueOf(stats.getCount()), Long.valueOf(stats.getNotFoundCount()),
+					Double.valueOf(stats.getAverageMillis()),
+					Long.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getMaxNanos())),
+					Long.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos()))));
+			List<String> reasons = new ArrayList<String>(stats.getFragility());
+			if (stats.isSlow()) {
+				reasons.add(0, "slow");
+			}
+			sb.append("     flagged: ").append(reasons).append(System.lineSeparator());
+			List<By> suggestions = stats.getSuggestions();
+			if (suggestions == null || suggestions.isEmpty()) {
+				sb.append("     suggestion: none verified unique").append(System.lineSeparator());
+			} else {
+				for (By suggestion : suggestions) {
+					sb.append("     suggestion: ").append(suggestion).append(System.lineSeparator());
+				}
+			}
+		}
+		if (rank == 0) {
+			sb.append("No slow or fragile locators found in ").append(this.statistics.size()).append(" locators.")
+					.append(System.lineSeparator());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Write the {@link #getReport() report} to a file.
+	 *
+	 * @param reportFile
+	 *            target file; its folder is created if necessary
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	public void writeReport(final File reportFile) throws IOException {
+		if (reportFile.getParentFile() != null) {
+			reportFile.getParentFile().mkdirs();
+		}
+		Files.write(reportFile.toPath(), getReport().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Statistics of one locator.
+	 */
+	public static final class LocatorStatistics {
+		/** The locator. */
+		private final By fFinder;
+		/** Fragile constructs of the locator. */
+		private final List<String> fFragility;
+		/** Number of waits. */
+		private final AtomicLong count = new AtomicLong();
+		/** Number of waits, which didn't find the element. */
+		private final AtomicLong notFoundCount = new AtomicLong();
+		/** Total time of all waits. */
+		private final AtomicLong totalNanos = new AtomicLong();
+		/** Longest wait. */
+		private final AtomicLong maxNanos = new AtomicLong();
+		/** Verified replacements. {@code null} as long as they have not been computed. */
+		private volatile List<By> suggestions;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param finder
+		 *            the locator
+		 */
+		LocatorStatistics(final By finder) {
+			this.fFinder = finder;
+			this.fFragility = Collections.unmodifiableList(LocatorAnalyzer.getFragility(finder));
+		}
+
+		/**
+		 * Record one wait.
+		 *
+		 * @param durationNanos
+		 *            duration of the wait
+		 * @param found
+		 *            {@code true} if the element has been found
+		 */
+		void record(final long durationNanos, final boolean found) {
+			this.count.incrementAndGet();
+			if (!found) {
+				this.notFoundCount.incrementAndGet();
+			}
+			this.totalNanos.addAndGet(durationNanos);
+			long max = this.maxNanos.get();
+			while (durationNanos > max && !this.maxNanos.compareAndSet(max, durationNanos)) {
+				max = this.maxNanos.get();
+			}
+		}
+
+		/**
+		 * @return {@code true} if the locator is flagged and has no suggestions yet
+		 */
+		boolean needsSuggestions() {
+			return this.suggestions == null && (isSlow() || !this.fFragility.isEmpty());
+		}
+
+		/**
+		 * @param suggestions
+		 *            verified replacements
+		 */
+		void setSuggestions(final List<By> suggestions) {
+			this.suggestions = Collections.unmodifiableList(suggestions);
+		}
+
+		/**
+		 * @return the locator
+		 */
+		public By getFinder() {
+			return this.fFinder;
+		}
+
+		/**
+		 * @return fragile constructs of the locator
+		 */
+		public List<String> getFragility() {
+			return this.fFragility;
+		}
+
+		/**
+		 * @return verified replacements, best first; {@code null} if not computed
+		 */
+		public List<By> getSuggestions() {
+			return this.suggestions;
+		}
+
+		/**
+		 * @return number of waits
+		 */
+		public long getCount() {
+			return this.count.get();
+		}
+
+		/**
+		 * @return number of waits, which didn't find the element
+		 */
+		public long getNotFoundCount() {
+			return this.notFoundCount.get();
+		}
+
+		/**
+		 * @return total time of all waits in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return this.totalNanos.get();
+		}
+
+		/**
+		 * @return longest wait in nanoseconds
+		 */
+		public long getMaxNanos() {
+			return this.maxNanos.get();
+		}
+
+		/**
+		 * @return average wait in milliseconds
+		 */
+		public double getAverageMillis() {
+			long waits = getCount();
+			if (waits == 0) {
+				return 0;
+			}
+			return getTotalNanos() / (double) waits / TimeUnit.MILLISECONDS.toNanos(1);
+		}
+
+		/**
+		 * @return {@code true} if the average wait reaches {@link LocatorAnalyzer#SLOW_LOCATOR_MILLIS}
+		 */
+		public boolean isSlow() {
+			return getAverageMillis() >= SLOW_LOCATOR_MILLIS.longValue();
+		}
+
+		/**
+		 * Rank of the locator in the report: the total wait time weighted by the number of fragile constructs.
+		 *
+		 * @return score, higher is worse
+		 */
+		double getScore() {
+			return getTotalNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1) * (1 + this.fFragility.size());
+		}
+	}
+}
@@ -0,0 +1,260 @@
+package com.whistl.selenium.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Parameterised locator, which is parsed once and then bound to values without any format parsing. Placeholders are
+ * written as {@code %s}:
+ * <ul>
+ * <li>A placeholder enclosed in quotes ({@code '%s'} or {@code "%s"}) is a string literal. The value is quoted
+ * correctly, also if it contains quotes itself (XPath: {@code concat(...)}, CSS: backslash escaping).</li>
+ * <li>Any other placeholder is inserted as it is, e.g. an index in {@code li[%s]}. Only word characters, {@code *},
+ * {@code .} and {@code -} are accepted there.</li>
+ * </ul>
+ * Usage:<br>
+ * {@code private static final LocatorTemplate MENU = LocatorTemplate.xpath(".//a[text()='%s']");}<br>
+ * {@code waitForElement(MENU.bind("Input Forms"));}<br>
+ * Several values can be resolved with one script call using {@link #resolveAll(WebDriver, Collection)}.<br>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class LocatorTemplate {
+
+	/** Placeholder for a value. */
+	private static final String PLACEHOLDER = "%s";
+	/** Values accepted for placeholders outside of quotes. */
+	private static final Pattern RAW_VALUE_PATTERN = Pattern.compile("[\\w*.-]+");
+	/** JavaScript snippet resolving several locators at once. Located within the project. */
+	private static final String RESOLVE_ALL_JS_FILE = "/javascript/resolveLocators.js";
+	/** JavaScript snippet as read from {@link #RESOLVE_ALL_JS_FILE}. */
+	private static final String RESOLVE_ALL_JS = JavaScriptUtil.loadSnippet(RESOLVE_ALL_JS_FILE);
+
+	/** Is the template an XPath expression (otherwise a CSS selector)? */
+	private final boolean isXPath;
+	/** The template as given. */
+	private final String fTemplate;
+	/** Literal parts around the placeholders. One more than placeholders. */
+	private final String[] fSegments;
+	/** For each placeholder: {@code true} if it is a string literal. */
+	private final boolean[] fIsQuoted;
+	/** Length of all literal parts. Used to size the result. */
+	private final int fLiteralLength;
+
+	/**
+	 * Internal constructor. Use {@link #xpath(String)} or {@link #css(String)}.
+	 *
+	 * @param template
+	 *            expression with placeholders
+	 * @param xPath
+	 *            {@code true} for XPath, {@code false} for CSS
+	 */
+	private LocatorTemplate(final String template, final boolean xPath) {
+		if (template == null || template.length() == 0) {
+			throw new IllegalArgumentException("A locator template can't be empty.");
+		}
+		this.fTemplate = template;
+		this.isXPath = xPath;
+
+		List<String> segments = new ArrayList<String>();
+		List<Boolean> quoted = new ArrayList<Boolean>();
+		int start = 0;
+		int placeholder = template.indexOf(PLACEHOLDER);
+		while (placeholder >= 0) {
+			int end = placeholder + PLACEHOLDER.length();
+			boolean isQuoted = placeholder > start && end < template.length()
+					&& isQuote(template.charAt(placeholder - 1))
+					&& template.charAt(placeholder - 1) == template.charAt(end);
+			if (isQuoted) {
+				// the quotes are created when binding
+				segments.add(template.substring(start, placeholder - 1));
+				start = end + 1;
+			} else {
+				segments.add(template.substring(start, placeholder));
+				start = end;
+			}
+			quoted.add(Boolean.valueOf(isQuoted));
+			placeholder = template.indexOf(PLACEHOLDER, start);
+		}
+		segments.add(template.substring(start));
+
+		this.fSegments = segments.toArray(new String[segments.size()]);
+		this.fIsQuoted = new boolean[quoted.size()];
+		int literalLength = 0;
+		for (int i = 0; i < this.fIsQuoted.length; i++) {
+			this.fIsQuoted[i] = quoted.get(i).booleanValue();
+		}
+		for (String segment : this.fSegments) {
+			literalLength += segment.length();
+		}
+		this.fLiteralLength = literalLength;
+	}
+
+	/**
+	 * Create an XPath template.
+	 *
+	 * @param template
+	 *            XPath expression with {@code %s} placeholders
+	 * @return the parsed template
+	 */
+	public static LocatorTemplate xpath(final String template) {
+		return new LocatorTemplate(template, true);
+	}
+
+	/**
+	 * Create a CSS selector template.
+	 *
+	 * @param template
+	 *            CSS selector with {@code %s} placeholders
+	 * @return the parsed template
+	 */
+	public static LocatorTemplate css(final String template) {
+		return new LocatorTemplate(template, false);
+	}
+
+	/**
+	 * Bind the values to the placeholders.
+	 *
+	 * @param values
+	 *            one value per placeholder, in order
+	 * @return locator for the values
+	 */
+	public By bind(final Object... values) {
+		String expression = format(values);
+		return this.isXPath ? By.xpath(expression) : By.cssSelector(expression);
+	}
+
+	/**
+	 * Bind the values to the placeholders.
+	 *
+	 * @param values
+	 *            one value per placeholder, in order
+	 * @return the expression for the values
+	 */
+	public String format(final Object... values) {
+		if (values.length != this.fIsQuoted.length) {
+			throw new IllegalArgumentException("Locator template [" + this.fTemplate + "] expects "
+					+ this.fIsQuoted.length + " values, but got " + values.length + ".");
+		}
+		StringBuilder sb = new StringBuilder(this.fLiteralLength + 16 * values.length);
+		sb.append(this.fSegments[0]);
+		for (int i = 0; i < values.length; i++) {
+			String value = String.valueOf(values[i]);
+			if (this.fIsQuoted[i]) {
+				if (this.isXPath) {
+					appendXPathLiteral(sb, value);
+				} else {
+					appendCssLiteral(sb, value);
+				}
+			} else {
+				if (!RAW_VALUE_PATTERN.matcher(value).matches()) {
+					throw new IllegalArgumentException("Value [" + value + "] can't be used unquoted in locator template ["
+							+ this.fTemplate + "]. Put the placeholder in quotes.");
+				}
+				sb.append(value);
+			}
+			sb.append(this.fSegments[i + 1]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Resolve the template for several values with one script call. Meant for templates with one placeholder, e.g.
+	 * all entries of a menu by their text.
+	 *
+	 * @param driver
+	 *            WebDriver displaying the page
+	 * @param values
+	 *            values to bind
+	 * @return found elements indexed by value, in the order of the values. Values without a match are left out.
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, WebElement> resolveAll(final WebDriver driver, final Collection<String> values) {
+		List<String> expressions = new ArrayList<String>(values.size());
+		for (String value : values) {
+			expressions.add(format(value));
+		}
+		List<Object> elements = (List<Object>) ((JavascriptExecutor) driver).executeScript(RESOLVE_ALL_JS,
+				expressions, Boolean.valueOf(this.isXPath));
+
+		Map<String, WebElement> result = new LinkedHashMap<String, WebElement>();
+		int i = 0;
+		for (String value : values) {
+			Object element = elements.get(i++);
+			if (element instanceof WebElement) {
+				result.put(value, (WebElement) element);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Append the value as XPath string literal. XPath 1.0 has no escaping, so values containing both kinds of quotes
+	 * are built using {@code concat()}.
+	 *
+	 * @param sb
+	 *            target
+	 * @param value
+	 *            value to quote
+	 */
+	static void appendXPathLiteral(final StringBuilder sb, final String value) {
+		if (value.indexOf('\'') < 0) {
+			sb.append('\'').append(value).append('\'');
+		} else if (value.indexOf('"') < 0) {
+			sb.append('"').append(value).append('"');
+		} else {
+			sb.append("concat('");
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if (c == '\'') {
+					sb.append("', \"'\", '");
+				} else {
+					sb.append(c);
+				}
+			}
+			sb.append("')");
+		}
+	}
+
+	/**
+	 * Append the value as CSS string literal.
+	 *
+	 * @param sb
+	 *            target
+	 * @param value
+	 *            value to quote
+	 */
+	static void appendCssLiteral(final StringBuilder sb, final String value) {
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\');
+			}
+			sb.append(c);
+		}
+		sb.append('"');
+	}
+
+	/**
+	 * @param c
+	 *            character to check
+	 * @return {@code true} for single and double quotes
+	 */
+	private static boolean isQuote(final char c) {
+		return c == '\'' || c == '"';
+	}
+
+	@Override
+	public String toString() {
+		return (this.isXPath ? "xpath: " : "css: ") + this.fTemplate;
+	}
+}
@@ -7,7 +7,6 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 
 import com.whistl.selenium.pages.AbstractPage;
@@ -20,6 +19,12 @@ import com.whistl.selenium.test.Logger;
 public abstract class PageFactory {
 	/** Maximum number of retries when performing transactions. */
 	private static final int MAX_RETRIES = 3;
+	/**
+	 * Policy to retry transitions with. Each attempt waits for its condition on its own, so the budget allows all
+	 * attempts to wait in full.
+	 */
+	private static volatile RetryPolicy retryPolicy = new RetryPolicy.Builder().maxAttempts(MAX_RETRIES)
+			.maxDuration(MAX_RETRIES * AbstractPage.WAIT_TIME_LIMIT.longValue()).build();
 
 	/**
 	 * Clicks to an element max of 3 times and tries to create a new page Instance. Should be used when the click itself
@@ -37,67 +42,64 @@ public abstract class PageFactory {
 	 */
 	private static AbstractPage goToPageVia(final RenewableWebElement element, final AbstractPage parentPage,
 			final Class<? extends AbstractPage> returnPageClass, final ExpectedCondition<Boolean> post) {
-		AbstractPage returnPage = null;
-		for (int i = 1; i <= MAX_RETRIES; i++) {
-			if (element.isElementPresent()) {
-				// only if the clickable element is (still) present on the page
-				//if (i == 1 && !element.isDisplayed()) {
-				if (i >1 ) {
-					((JavascriptExecutor) parentPage.getDriver()).executeScript("javascript:window.moveBy("
-							+ ((WebElement) element).getLocation().x + "," + element.getLocation().y + ")");
-				}
-				element.click();
-			}
-			// try doing the post
-			if (post != null) {
-				try {
-					AbstractPage.waitForCondition(post, AbstractPage.WAIT_TIME_LIMIT/3, parentPage.getDriver());
-				} catch (TimeoutException e) {
-					if (i == MAX_RETRIES) {
-						// not successful
-						throw new RuntimeException("Unable to verify the post condition [" + post.toString()
-								+ "] during transition from " + parentPage.getClass().getSimpleName() + " to "
-								+ returnPageClass.getSimpleName());
+		final boolean[] isPostConditionMet = new boolean[1];
+		try {
+			return retryPolicy.execute(String.valueOf(element.getSearchTerm()), new RetryPolicy.Attempt<AbstractPage>() {
+
+				@Override
+				public AbstractPage run(final int attempt) {
+					if (element.isElementPresent()) {
+						// only if the clickable element is (still) present on the page
+						if (attempt > 1) {
+							((JavascriptExecutor) parentPage.getDriver()).executeScript("javascript:window.moveBy("
+									+ element.getLocation().x + "," + element.getLocation().y + ")");
+						}
+						element.click();
 					}
-					continue;
-				}
-			}
-			try {
-				returnPage = returnPageClass.getConstructor(AbstractPage.class).newInstance(parentPage);
-				break;
-			} catch (InstantiationException e) {
-				e.printStackTrace();
-				if (i == MAX_RETRIES) {
-					e.printStackTrace();
-				}
-			} catch (NoSuchMethodException e) {
-				if (i == MAX_RETRIES) {
-					e.printStackTrace();
-				}
-			} catch (IllegalAccessException e) {
-				if (i == MAX_RETRIES) {
-					e.printStackTrace();
-				}
-			} catch (IllegalArgumentException e) {
-				if (i == MAX_RETRIES) {
-					Logger.logStepResult(i + " Retries", false);
-					e.printStackTrace();
-				}
-			} catch (InvocationTargetException e) {
-				if (i == MAX_RETRIES) {
-					Throwable cause = e.getTargetException();
-					if (cause instanceof TimeoutException) {
-						e.printStackTrace();
+					// try doing the post
+					isPostConditionMet[0] = false;
+					if (post != null) {
+						AbstractPage.waitForCondition(post, AbstractPage.WAIT_TIME_LIMIT / 3, parentPage.getDriver());
 					}
+					isPostConditionMet[0] = true;
+					return createPage(parentPage, returnPageClass);
 				}
+			});
+		} catch (RetryPolicy.RetriesExhaustedException e) {
+			if (!isPostConditionMet[0]) {
+				throw new RuntimeException("Unable to verify the post condition [" + post
+						+ "] during transition from " + parentPage.getClass().getSimpleName() + " to "
+						+ returnPageClass.getSimpleName(), e);
 			}
-		}
-		// if Return Page is null then Throw RuntimeException and exit from the program
-		if (returnPage == null) {
 			throw new RuntimeException("unable to navigate from " + parentPage.getClass().getSimpleName() + " to "
-					+ returnPageClass.getSimpleName());
+					+ returnPageClass.getSimpleName(), e);
+		}
+	}
+
+	/**
+	 * Create the page object. A page, which is not ready yet, throws a WebDriver exception (e.g. a timeout) and may be
+	 * tried again; a page class without suitable constructor can't be.
+	 * 
+	 * @param parentPage
+	 *            page the new page is opened from
+	 * @param returnPageClass
+	 *            page to be created
+	 * @return the page
+	 */
+	private static AbstractPage createPage(final AbstractPage parentPage,
+			final Class<? extends AbstractPage> returnPageClass) {
+		try {
+			return returnPageClass.getConstructor(AbstractPage.class).newInstance(parentPage);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getTargetException();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException("Unable to create " + returnPageClass.getSimpleName(), cause);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(returnPageClass.getSimpleName()
+					+ " needs a public constructor taking the parent page.", e);
 		}
-		return returnPage;
 	}
 
 	/**
@@ -109,41 +111,39 @@ public abstract class PageFactory {
 	 *            WebDriver displaying the page
 	 */
 	public static void switchToNewWindowByClick(final By finder, final WebDriver driver) {
-		final Set<String> oldWindowHandles = driver.getWindowHandles();
+		final WindowTracker tracker = WindowTracker.of(driver);
+		final Set<String> oldWindowHandles = tracker.recordHandles();
 
-		for (int i = 1; i < MAX_RETRIES; i++) {
-			if (AbstractPage.isElementPresent(finder, driver)
-					&& (oldWindowHandles.size() == driver.getWindowHandles().size())) {
-				AbstractPage.waitForElement(finder, AbstractPage.WAIT_TIME_LIMIT, driver).click();
-			}
-			// get current window handles
-			try {
-				AbstractPage.waitForCondition(new ExpectedCondition<Boolean>() {
-					public Boolean apply(final WebDriver innerDriver) {
-						final Set<String> newWindowHandles = driver.getWindowHandles();
-						for (String windowHandles : newWindowHandles) {
-							// compare handles
-							if (!oldWindowHandles.contains(windowHandles)) {
-								// switch to the new window handle
-								innerDriver.switchTo().window(windowHandles);
-								return Boolean.TRUE;
-							}
-						}
-						return Boolean.FALSE;
-					}
+		try {
+			retryPolicy.execute(String.valueOf(finder), new RetryPolicy.Attempt<Void>() {
 
-					@Override
-					public String toString() {
-						return "Waiting for new window to open and then switching to it.";
+				@Override
+				public Void run(final int attempt) {
+					// click again only if the previous click has not opened the window yet
+					if ((attempt == 1 || tracker.findNewHandle(oldWindowHandles) == null)
+							&& AbstractPage.isElementPresent(finder, driver)) {
+						AbstractPage.waitForElement(finder, AbstractPage.WAIT_TIME_LIMIT, driver).click();
 					}
-				}, AbstractPage.WAIT_TIME_LIMIT, driver);
-				break;
-			} catch (TimeoutException e) {
-				if (i == MAX_RETRIES) {
-					throw new TimeoutException("Unable to switch to window or click has not resulted in new page");
+					tracker.switchToNewWindow(oldWindowHandles, AbstractPage.WAIT_TIME_LIMIT);
+					return null;
 				}
-			}
+			});
+		} catch (RetryPolicy.RetriesExhaustedException e) {
+			throw new TimeoutException("Unable to switch to window or click has not resulted in new page", e);
+		}
+	}
+
+	/**
+	 * Set the policy to retry page transitions with.
+	 * 
+	 * @param policy
+	 *            policy for all transitions
+	 */
+	public static void setRetryPolicy(final RetryPolicy policy) {
+		if (policy == null) {
+			throw new IllegalArgumentException("The retry policy can't be null.");
 		}
+		retryPolicy = policy;
 	}
 
 	/**
@@ -1,12 +1,9 @@
 package com.whistl.selenium.util;
 
 import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -52,37 +49,7 @@ public class RenewableWebElement implements WebElement, TakesScreenshot {
 	/** JavaScript snippet to calculate xPath for an html element. Located within the project. */
 	private static final String GET_XPATH_JS_FILE = "/javascript/getPathTo.js";
 	/** JavaScript snippet as read from {@link #GET_XPATH_JS_FILE}. */
-	static final String GET_XPATH_JS;
-	/** Maximal number of retries (3). */
-	private static final int RETRY_COUNT = 3;
-
-	static {
-		String fileContent = "";
-		BufferedReader reader = null;
-		try {
-			reader = new BufferedReader(new InputStreamReader(
-					RenewableWebElement.class.getResourceAsStream(GET_XPATH_JS_FILE)));
-			String line;
-			while ((line = reader.readLine()) != null) {
-				fileContent += line;
-			}
-		} catch (FileNotFoundException e) {
-			throw new RuntimeException("Unable to locate the file getPathTo.js", e);
-		} catch (IOException e) {
-			throw new RuntimeException("Unable to read the file getPathTo.js", e);
-		} finally {
-			try {
-				if (reader != null) {
-					reader.close();
-				}
-			} catch (IOException ignore) {
-				Logger.logStepResult(
-						String.format("There were problems closing the file [%s] after reading", GET_XPATH_JS_FILE),
-						false);
-			}
-		}
-		GET_XPATH_JS = fileContent;
-	}
+	static final String GET_XPATH_JS = JavaScriptUtil.loadSnippet(GET_XPATH_JS_FILE);
 
 	/**
 	 * How to find this WebElement. May not be xPath, especially if the constructor
@@ -96,6 +63,8 @@ public class RenewableWebElement implements WebElement, TakesScreenshot {
 	private RemoteWebElement webElement;
 	/** WebDriver displaying the page with this element. */
 	private WebDriver fDriver;
+	/** Policy to retry actions; {@code null} for the {@link RetryPolicy#getDefault() default}. */
+	private RetryPolicy fRetryPolicy;
 
 	// private boolean isAlreadySearched = false;
 
@@ -182,17 +151,14 @@ public class RenewableWebElement implements WebElement, TakesScreenshot {
 
 	@Override
 	public final void click() {
-		for (int i = 0; i < RETRY_COUNT; i++) {
-			try {
+		retry("click", new RetryPolicy.Attempt<Void>() {
+
+			@Override
+			public Void run(final int attempt) {
 				getWebElement().click();
-				break;
-			} catch (Exception e) {
-				if (e.getMessage()!=null && e.getMessage().contains("Timed out waiting for page load")) {
-					throw e;
-				}
-				e.printStackTrace();
+				return null;
 			}
-		}
+		});
 	}
 
 	public RenewableWebElement findElement(By by) {
@@ -234,19 +200,13 @@ public class RenewableWebElement implements WebElement, TakesScreenshot {
 	 * @return attribute value
 	 */
 	public final String getAttribute(final String name) {
-		String attributeValue = null;
-		for (int i = 0; i < RETRY_COUNT; i++) {
-			try {
-				attributeValue = getWebElement().getAttribute(name);
-				break;
-			} catch (Exception e) {
-				if (e.getMessage() != null && e.getMessage().contains("Timed out waiting for page load")) {
-					throw e;
-				}
-				e.printStackTrace();
+		return retry("getAttribute", new RetryPolicy.Attempt<String>() {
+
+			@Override
+			public String run(final int attempt) {
+				return getWebElement().getAttribute(name);
 			}
-		}
-		return attributeValue;
+		});
 	}
 
 	@Override
@@ -279,40 +239,32 @@ public class RenewableWebElement implements WebElement, TakesScreenshot {
 
 	@Override
 	public final String getText() {
-		String text = null;
-		for (int i = 0; i < RETRY_COUNT; i++) {
-			try {
-				text = getWebElement().getText();
-				break;
-			} catch (Exception e) {
-				if (e.getMessage()!=null && e.getMessage().contains("Timed out waiting for page load")) {
-					throw e;
-				}
-				e.printStackTrace();
+		return retry("getText", new RetryPolicy.Attempt<String>() {
+
+			@Override
+			public String run(final int attempt) {
+				return getWebElement().getText();
 			}
-		}
-		return text;
+		});
 	}
 
 	@Override
 	public final boolean isDisplayed() {
-		for (int i = 1; i <= RETRY_COUNT; i++) {
-			try {
-				WebElement element = getWebElement();
-				if (element != null) {
-					return element.isDisplayed();
-				}
-				return false;
-			} catch (Throwable e) {
-				if (i == RETRY_COUNT) {
-					e.printStackTrace();
-				} else {
-					// wait before continuing iterations
-					AbstractPage.waitForLoad(this.fDriver, Long.valueOf(1000));
+		try {
+			Boolean displayed = retry("isDisplayed", new RetryPolicy.Attempt<Boolean>() {
+
+				@Override
+				public Boolean run(final int attempt) {
+					WebElement element = getWebElement();
+					return Boolean.valueOf(element != null && element.isDisplayed());
 				}
-			}
+			});
+			return Boolean.TRUE.equals(displayed);
+		} catch (RuntimeException e) {
+			// not retryable, e.g. the window has been closed: the element is not displayed either
+			Logger.logStepResult("isDisplayed failed on [" + this.fSearchTerm + "]: " + e.getMessage(), false);
+			return false;
 		}
-		return false;
 	}
 
 	@Override
@@ -341,39 +293,59 @@ public class RenewableWebElement implements WebElement, TakesScreenshot {
 	 * @return the underlying WebElement
 	 */
 	public final WebElement getWebElement() {
-		if (this.webElement == null) {
+		if (!isAccessible()) {
+			// need to find the element (again, e.g. after it has been modified)
 			findElement();
-		} else {
-			// try to access the element
-			try {
-				this.webElement.getTagName();
-			} catch (StaleElementReferenceException e) {
-				// need to find the element after it has been modified
-				findElement();
-			} catch (WebDriverException e) {
-				findElement();
-			} catch (NullPointerException e) {
-				// RemoteWebElement.java:323 (Boolean) null
-				findElement();
-			} catch (IllegalArgumentException e) {
-				findElement();
-			}
 		}
 		return this.webElement;
 	}
 
+	/**
+	 * @return {@code true} if the element has been found before and is still accessible
+	 */
+	private boolean isAccessible() {
+		if (this.webElement == null) {
+			return false;
+		}
+		// try to access the element
+		try {
+			this.webElement.getTagName();
+			return true;
+		} catch (StaleElementReferenceException e) {
+			return false;
+		} catch (WebDriverException e) {
+			return false;
+		} catch (NullPointerException e) {
+			// RemoteWebElement.java:323 (Boolean) null
+			return false;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
 	public void reset() {
 		this.webElement = null;
 		// this.isAlreadySearched = false;
 	}
 
 	/**
-	 * Checks if the WebElement defined by the search term exists on the current page.
+	 * Checks if the WebElement defined by the search term exists on the current page. An absent element is reported
+	 * at once, without waiting the implicit wait (see {@link ImplicitWaits}); a present one is kept for later use.
 	 * 
 	 * @return true if it exists, otherwise false.
 	 */
 	public final boolean isElementPresent() {
-		return getWebElement() != null;
+		if (isAccessible()) {
+			return true;
+		}
+		reset();
+		List<WebElement> elements = ImplicitWaits.INSTANCE.findElementsNow(this.fSearchTerm, this.fDriver);
+		if (elements.isEmpty()) {
+			return false;
+		}
+		// the first match is the one findElement would return
+		this.webElement = (RemoteWebElement) elements.get(0);
+		return true;
 	}
 
 	private void findElement() {
@@ -402,6 +374,47 @@ public class RenewableWebElement implements WebElement, TakesScreenshot {
 		return this.fSearchTerm;
 	}
 
+	/**
+	 * Set the policy to retry actions like {@link #click()} with.
+	 * 
+	 * @param retryPolicy
+	 *            policy for this element; {@code null} for the {@link RetryPolicy#getDefault() default}
+	 */
+	public final void setRetryPolicy(final RetryPolicy retryPolicy) {
+		this.fRetryPolicy = retryPolicy;
+	}
+
+	/**
+	 * Run the action with the retry policy of this element. Giving up is logged, not thrown, so a flaky element
+	 * doesn't abort the test by itself; exceptions not worth retrying are thrown.
+	 * 
+	 * @param actionName
+	 *            name of the action for the log
+	 * @param attempt
+	 *            the action
+	 * @param <T>
+	 *            result type
+	 * @return result of the action or {@code null} if all attempts failed
+	 */
+	private <T> T retry(final String actionName, final RetryPolicy.Attempt<T> attempt) {
+		RetryPolicy policy = this.fRetryPolicy == null ? RetryPolicy.getDefault() : this.fRetryPolicy;
+		try {
+			return policy.execute(String.valueOf(this.fSearchTerm), attempt);
+		} catch (RetryPolicy.RetriesExhaustedException e) {
+			Logger.logStepResult(actionName + " failed: " + e.getMessage(), false);
+			return null;
+		}
+	}
+
+	/**
+	 * Get the WebDriver displaying the element.
+	 * 
+	 * @return driver given on construction; may be {@code null}
+	 */
+	public final WebDriver getDriver() {
+		return this.fDriver;
+	}
+
 	@Override
 	public final <X> X getScreenshotAs(final OutputType<X> format) throws WebDriverException {
 		byte[] wholeScreen;
@@ -0,0 +1,192 @@
+package com.whistl.selenium.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the executions of {@link RetryPolicy} per key (typically the locator), so flaky locators can be found and
+ * fixed instead of being retried forever.<br>
+ * An enum is used for implementation in order to make it a thread safe and serializable singleton.
+ */
+public enum RetryMetrics {
+	/** The only instance of the metrics. */
+	INSTANCE;
+
+	/** Collected statistics. Key is the key given to the policy. */
+	private final Map<String, RetryStatistics> statistics = new ConcurrentHashMap<String, RetryStatistics>();
+
+	/**
+	 * Record an action, which succeeded.
+	 *
+	 * @param key
+	 *            what the action worked on
+	 * @param attempts
+	 *            number of attempts needed
+	 */
+	void recordSuccess(final String key, final int attempts) {
+		if (attempts > 1) {
+			// first time successes are the normal case and not worth a map entry
+			getStatistics(key).record(attempts, true, true);
+		}
+	}
+
+	/**
+	 * Record an action, which failed.
+	 *
+	 * @param key
+	 *            what the action worked on
+	 * @param attempts
+	 *            number of attempts made
+	 * @param retryable
+	 *            {@code false} if the last exception was not worth retrying
+	 */
+	void recordFailure(final String key, final int attempts, final boolean retryable) {
+		getStatistics(key).record(attempts, false, retryable);
+	}
+
+	/**
+	 * @param key
+	 *            what the actions work on
+	 * @return statistics of the key; created if necessary
+	 */
+	private RetryStatistics getStatistics(final String key) {
+		String statisticsKey = String.valueOf(key);
+		RetryStatistics stats = this.statistics.get(statisticsKey);
+		if (stats == null) {
+			RetryStatistics newStats = new RetryStatistics(statisticsKey);
+			stats = this.statistics.putIfAbsent(statisticsKey, newStats);
+			if (stats == null) {
+				stats = newStats;
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * @return statistics of all keys, which needed retries or failed, the one with most retries first
+	 */
+	public List<RetryStatistics> getStatistics() {
+		List<RetryStatistics> result = new ArrayList<RetryStatistics>(this.statistics.values());
+		Collections.sort(result, new Comparator<RetryStatistics>() {
+			@Override
+			public int compare(final RetryStatistics o1, final RetryStatistics o2) {
+				return Long.compare(o2.getRetryCount(), o1.getRetryCount());
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * @return {@code true} if nothing has been retried or failed since the last {@link #reset()}
+	 */
+	public boolean isEmpty() {
+		return this.statistics.isEmpty();
+	}
+
+	/**
+	 * Forget everything recorded so far.
+	 */
+	public void reset() {
+		this.statistics.clear();
+	}
+
+	/**
+	 * @return one line per key with its counters, the one with most retries first
+	 */
+	public String getReport() {
+		StringBuilder sb = new StringBuilder();
+		for (RetryStatistics stats : getStatistics()) {
+			sb.append(String.format("%s: retries: %d, recovered: %d, gave up: %d, not retryable: %d%n",
+					stats.getKey(), Long.valueOf(stats.getRetryCount()), Long.valueOf(stats.getRecoveredCount()),
+					Long.valueOf(stats.getExhaustedCount()), Long.valueOf(stats.getFatalCount())));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Statistics of one key.
+	 */
+	public static final class RetryStatistics {
+		/** What the actions worked on. */
+		private final String fKey;
+		/** Number of attempts after the first one. */
+		private final AtomicLong retryCount = new AtomicLong();
+		/** Number of actions, which succeeded after retries. */
+		private final AtomicLong recoveredCount = new AtomicLong();
+		/** Number of actions given up after all attempts. */
+		private final AtomicLong exhaustedCount = new AtomicLong();
+		/** Number of actions failed with an exception not worth retrying. */
+		private final AtomicLong fatalCount = new AtomicLong();
+
+		/**
+		 * Constructor.
+		 *
+		 * @param key
+		 *            what the actions work on
+		 */
+		RetryStatistics(final String key) {
+			this.fKey = key;
+		}
+
+		/**
+		 * Record one action.
+		 *
+		 * @param attempts
+		 *            number of attempts made
+		 * @param succeeded
+		 *            {@code true} if the last attempt succeeded
+		 * @param retryable
+		 *            {@code false} if the last exception was not worth retrying
+		 */
+		void record(final int attempts, final boolean succeeded, final boolean retryable) {
+			this.retryCount.addAndGet(attempts - 1);
+			if (succeeded) {
+				this.recoveredCount.incrementAndGet();
+			} else if (retryable) {
+				this.exhaustedCount.incrementAndGet();
+			} else {
+				this.fatalCount.incrementAndGet();
+			}
+		}
+
+		/**
+		 * @return what the actions work on
+		 */
+		public String getKey() {
+			return this.fKey;
+		}
+
+		/**
+		 * @return number of attempts after the first one
+		 */
+		public long getRetryCount() {
+			return this.retryCount.get();
+		}
+
+		/**
+		 * @return number of actions, which succeeded after retries
+		 */
+		public long getRecoveredCount() {
+			return this.recoveredCount.get();
+		}
+
+		/**
+		 * @return number of actions given up after all attempts
+		 */
+		public long getExhaustedCount() {
+			return this.exhaustedCount.get();
+		}
+
+		/**
+		 * @return number of actions failed with an exception not worth retrying
+		 */
+		public long getFatalCount() {
+			return this.fatalCount.get();
+		}
+	}
+}
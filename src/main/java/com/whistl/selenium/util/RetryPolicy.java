@@ -0,0 +1,347 @@
+package com.whistl.selenium.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+/**
+ * Repeats an action until it succeeds, the exception is not worth retrying, the attempts are used up or the time
+ * budget is spent. Between attempts it waits with exponential backoff; the wait is jittered, so parallel tests don't
+ * retry in lockstep. The budget is limited by the active {@link Deadline}. Every execution is counted per key
+ * (typically the locator) in {@link RetryMetrics}.<br>
+ * Policies are immutable and thread safe. Create them with {@link Builder}:
+ * <blockquote>
+ *
+ * <pre>
+ * {@code RetryPolicy policy = new RetryPolicy.Builder().maxAttempts(5).initialDelay(50).build();}
+ * </pre>
+ *
+ * </blockquote>
+ */
+public final class RetryPolicy {
+
+	/** Message part of the exception thrown when a page doesn't load in time. Retrying doesn't help then. */
+	public static final String PAGE_LOAD_TIMEOUT_MESSAGE = "Timed out waiting for page load";
+
+	/**
+	 * One attempt of the action.
+	 *
+	 * @param <T>
+	 *            result type
+	 */
+	public interface Attempt<T> {
+		/**
+		 * Try the action once.
+		 *
+		 * @param attempt
+		 *            number of the attempt, starting at 1
+		 * @return result of the action
+		 */
+		T run(int attempt);
+	}
+
+	/**
+	 * Decides whether an exception is worth another attempt.
+	 */
+	public interface ExceptionClassifier {
+		/**
+		 * @param exception
+		 *            exception thrown by an attempt
+		 * @return {@code true} if another attempt may succeed
+		 */
+		boolean isRetryable(RuntimeException exception);
+	}
+
+	/**
+	 * Retries WebDriver exceptions, e.g. stale or intercepted elements, and {@link NullPointerException}s of elements
+	 * not found yet. A page load timeout, a closed window or a lost browser are reported at once.
+	 */
+	public static final ExceptionClassifier WEBDRIVER_CLASSIFIER = new ExceptionClassifier() {
+
+		@Override
+		public boolean isRetryable(final RuntimeException exception) {
+			if (exception instanceof NoSuchSessionException || exception instanceof NoSuchWindowException
+					|| exception instanceof UnreachableBrowserException) {
+				return false;
+			}
+			if (exception.getMessage() != null && exception.getMessage().contains(PAGE_LOAD_TIMEOUT_MESSAGE)) {
+				return false;
+			}
+			return exception instanceof WebDriverException || exception instanceof NullPointerException;
+		}
+	};
+
+	/** Policy used by {@link RenewableWebElement} and {@link PageFactory} unless set otherwise. */
+	private static volatile RetryPolicy defaultPolicy = new Builder().build();
+
+	/** Maximal number of attempts. */
+	private final int fMaxAttempts;
+	/** Wait before the second attempt. In milliseconds. */
+	private final long fInitialDelayMillis;
+	/** Factor the wait grows by per attempt. */
+	private final double fMultiplier;
+	/** Longest wait between two attempts. In milliseconds. */
+	private final long fMaxDelayMillis;
+	/** Part of the wait, which is random: 0 for none, 1 for anything between 0 and the full wait. */
+	private final double fJitter;
+	/** Time budget of all attempts and waits together. In milliseconds. */
+	private final long fMaxDurationMillis;
+	/** Decides what is retried. */
+	private final ExceptionClassifier fClassifier;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param builder
+	 *            builder holding the settings
+	 */
+	private RetryPolicy(final Builder builder) {
+		this.fMaxAttempts = builder.maxAttempts;
+		this.fInitialDelayMillis = builder.initialDelayMillis;
+		this.fMultiplier = builder.multiplier;
+		this.fMaxDelayMillis = builder.maxDelayMillis;
+		this.fJitter = builder.jitter;
+		this.fMaxDurationMillis = builder.maxDurationMillis;
+		this.fClassifier = builder.classifier;
+	}
+
+	/**
+	 * @return policy used if none is given
+	 */
+	public static RetryPolicy getDefault() {
+		return defaultPolicy;
+	}
+
+	/**
+	 * Replace the policy used if none is given, e.g. to retry longer on a slow test environment.
+	 *
+	 * @param policy
+	 *            new default policy
+	 */
+	public static void setDefault(final RetryPolicy policy) {
+		if (policy == null) {
+			throw new IllegalArgumentException("The default retry policy can't be null.");
+		}
+		defaultPolicy = policy;
+	}
+
+	/**
+	 * Run the action until it succeeds.
+	 *
+	 * @param key
+	 *            what the action works on, e.g. the locator of the element; used for the metrics
+	 * @param attempt
+	 *            the action
+	 * @param <T>
+	 *            result type
+	 * @return result of the first successful attempt
+	 * @throws RetriesExhaustedException
+	 *             if all attempts failed with retryable exceptions or the time budget is spent; the last exception
+	 *             is the cause
+	 * @throws RuntimeException
+	 *             exception of an attempt, which is not retryable
+	 */
+	public <T> T execute(final String key, final Attempt<T> attempt) {
+		long start = System.nanoTime();
+		// an enclosing wait or scenario with less time left shortens the budget
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(Deadline.limit(this.fMaxDurationMillis));
+		double delay = this.fInitialDelayMillis;
+		for (int i = 1;; i++) {
+			try {
+				T result = attempt.run(i);
+				RetryMetrics.INSTANCE.recordSuccess(key, i);
+				return result;
+			} catch (RuntimeException e) {
+				if (!this.fClassifier.isRetryable(e)) {
+					RetryMetrics.INSTANCE.recordFailure(key, i, false);
+					throw e;
+				}
+				long sleepMillis = jitter(Math.min((long) delay, this.fMaxDelayMillis));
+				if (i >= this.fMaxAttempts
+						|| System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sleepMillis) >= deadline) {
+					RetryMetrics.INSTANCE.recordFailure(key, i, true);
+					throw new RetriesExhaustedException(key, i, System.nanoTime() - start, e);
+				}
+				try {
+					Thread.sleep(sleepMillis);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					RetryMetrics.INSTANCE.recordFailure(key, i, true);
+					throw new RetriesExhaustedException(key, i, System.nanoTime() - start, e);
+				}
+				delay *= this.fMultiplier;
+			}
+		}
+	}
+
+	/**
+	 * @param delayMillis
+	 *            full wait
+	 * @return wait reduced by a random part of {@link #fJitter}
+	 */
+	private long jitter(final long delayMillis) {
+		if (delayMillis <= 0 || this.fJitter <= 0) {
+			return Math.max(delayMillis, 0);
+		}
+		long randomPart = (long) (delayMillis * this.fJitter);
+		return delayMillis - randomPart + ThreadLocalRandom.current().nextLong(randomPart + 1);
+	}
+
+	/**
+	 * @return maximal number of attempts
+	 */
+	public int getMaxAttempts() {
+		return this.fMaxAttempts;
+	}
+
+	/**
+	 * @return time budget of all attempts together in milliseconds
+	 */
+	public long getMaxDurationMillis() {
+		return this.fMaxDurationMillis;
+	}
+
+	/**
+	 * Creates {@link RetryPolicy}s. Unset values keep their defaults: 3 attempts, 100 ms initial wait doubled per
+	 * attempt up to 1 s, half of each wait random, 10 s budget, {@link RetryPolicy#WEBDRIVER_CLASSIFIER}.
+	 */
+	public static final class Builder {
+		/** Maximal number of attempts. */
+		private int maxAttempts = 3;
+		/** Wait before the second attempt. */
+		private long initialDelayMillis = 100;
+		/** Factor the wait grows by. */
+		private double multiplier = 2.0;
+		/** Longest wait. */
+		private long maxDelayMillis = 1000;
+		/** Random part of the wait. */
+		private double jitter = 0.5;
+		/** Time budget. */
+		private long maxDurationMillis = 10000;
+		/** Decides what is retried. */
+		private ExceptionClassifier classifier = WEBDRIVER_CLASSIFIER;
+
+		/**
+		 * @param attempts
+		 *            maximal number of attempts; at least 1
+		 * @return this builder
+		 */
+		public Builder maxAttempts(final int attempts) {
+			if (attempts < 1) {
+				throw new IllegalArgumentException("At least one attempt is needed.");
+			}
+			this.maxAttempts = attempts;
+			return this;
+		}
+
+		/**
+		 * @param delayMillis
+		 *            wait before the second attempt in milliseconds
+		 * @return this builder
+		 */
+		public Builder initialDelay(final long delayMillis) {
+			this.initialDelayMillis = Math.max(delayMillis, 0);
+			return this;
+		}
+
+		/**
+		 * @param factor
+		 *            factor the wait grows by per attempt; 1 for constant waits
+		 * @return this builder
+		 */
+		public Builder multiplier(final double factor) {
+			this.multiplier = Math.max(factor, 1.0);
+			return this;
+		}
+
+		/**
+		 * @param delayMillis
+		 *            longest wait between two attempts in milliseconds
+		 * @return this builder
+		 */
+		public Builder maxDelay(final long delayMillis) {
+			this.maxDelayMillis = Math.max(delayMillis, 0);
+			return this;
+		}
+
+		/**
+		 * @param randomPart
+		 *            part of each wait, which is random; between 0 (exact waits) and 1
+		 * @return this builder
+		 */
+		public Builder jitter(final double randomPart) {
+			this.jitter = Math.min(Math.max(randomPart, 0.0), 1.0);
+			return this;
+		}
+
+		/**
+		 * @param durationMillis
+		 *            time budget of all attempts and waits in milliseconds; no attempt is started after it
+		 * @return this builder
+		 */
+		public Builder maxDuration(final long durationMillis) {
+			this.maxDurationMillis = Math.max(durationMillis, 0);
+			return this;
+		}
+
+		/**
+		 * @param exceptionClassifier
+		 *            decides what is retried
+		 * @return this builder
+		 */
+		public Builder classifier(final ExceptionClassifier exceptionClassifier) {
+			if (exceptionClassifier == null) {
+				throw new IllegalArgumentException("The classifier can't be null.");
+			}
+			this.classifier = exceptionClassifier;
+			return this;
+		}
+
+		/**
+		 * @return new policy with the settings of this builder
+		 */
+		public RetryPolicy build() {
+			return new RetryPolicy(this);
+		}
+	}
+
+	/**
+	 * Thrown when an action still fails after all attempts or the time budget.
+	 */
+	public static final class RetriesExhaustedException extends WebDriverException {
+		/** Serial version. */
+		private static final long serialVersionUID = 1L;
+		/** Number of attempts made. */
+		private final int fAttempts;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param key
+		 *            what the action worked on
+		 * @param attempts
+		 *            number of attempts made
+		 * @param elapsedNanos
+		 *            time spent
+		 * @param cause
+		 *            exception of the last attempt
+		 */
+		RetriesExhaustedException(final String key, final int attempts, final long elapsedNanos,
+				final RuntimeException cause) {
+			super("Gave up on [" + key + "] after " + attempts + " attempts and "
+					+ TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms: " + cause.getMessage(), cause);
+			this.fAttempts = attempts;
+		}
+
+		/**
+		 * @return number of attempts made
+		 */
+		public int getAttempts() {
+			return this.fAttempts;
+		}
+	}
+}
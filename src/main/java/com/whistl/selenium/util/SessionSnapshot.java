@@ -0,0 +1,127 @@
+package com.whistl.selenium.util;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.openqa.selenium.Cookie;
+
+/**
+ * Immutable state of a browser session captured after a named setup phase. Contains the cookies, the content of
+ * {@code localStorage} and {@code sessionStorage} and the URL displayed at the time of capture.<br>
+ * Instances are created and restored via {@link SessionStateManager}.
+ */
+public final class SessionSnapshot {
+
+	/** Name of the setup phase, after which the snapshot was taken. */
+	private final String fPhaseName;
+	/** URL displayed when the snapshot was taken. */
+	private final String fUrl;
+	/** Cookies of the session. */
+	private final Set<Cookie> fCookies;
+	/** Content of the localStorage. */
+	private final Map<String, String> fLocalStorage;
+	/** Content of the sessionStorage. */
+	private final Map<String, String> fSessionStorage;
+
+	/**
+	 * Constructor. All collections are copied.
+	 *
+	 * @param phaseName
+	 *            name of the setup phase
+	 * @param url
+	 *            URL displayed when capturing
+	 * @param cookies
+	 *            cookies of the session
+	 * @param localStorage
+	 *            content of the localStorage
+	 * @param sessionStorage
+	 *            content of the sessionStorage
+	 */
+	SessionSnapshot(final String phaseName, final String url, final Set<Cookie> cookies,
+			final Map<String, String> localStorage, final Map<String, String> sessionStorage) {
+		this.fPhaseName = phaseName;
+		this.fUrl = url;
+		this.fCookies = Collections.unmodifiableSet(new LinkedHashSet<Cookie>(cookies));
+		this.fLocalStorage = Collections.unmodifiableMap(new LinkedHashMap<String, String>(localStorage));
+		this.fSessionStorage = Collections.unmodifiableMap(new LinkedHashMap<String, String>(sessionStorage));
+	}
+
+	/**
+	 * @return name of the setup phase
+	 */
+	public String getPhaseName() {
+		return this.fPhaseName;
+	}
+
+	/**
+	 * @return URL displayed when the snapshot was taken
+	 */
+	public String getUrl() {
+		return this.fUrl;
+	}
+
+	/**
+	 * Check whether the URL belongs to the origin of {@link #getUrl()}. Protocol, host and port are compared, so a host
+	 * merely starting with the captured one (e.g. {@code example.com.evil} for {@code example.com}) doesn't match.
+	 *
+	 * @param otherUrl
+	 *            URL to check, e.g. the one currently displayed
+	 * @return {@code true} if the URL has the same protocol, host and port; {@code false} for other or invalid URLs
+	 */
+	public boolean isSameOrigin(final String otherUrl) {
+		if (otherUrl == null) {
+			return false;
+		}
+		try {
+			URL url = new URL(this.fUrl);
+			URL other = new URL(otherUrl);
+			return url.getProtocol().equalsIgnoreCase(other.getProtocol())
+					&& url.getHost().equalsIgnoreCase(other.getHost()) && getPort(url) == getPort(other);
+		} catch (MalformedURLException e) {
+			// e.g. about:blank or data: URLs of a fresh browser
+			return false;
+		}
+	}
+
+	/**
+	 * @param url
+	 *            URL to check
+	 * @return port of the URL; the default port of its protocol if none is given
+	 */
+	private static int getPort(final URL url) {
+		return url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+	}
+
+	/**
+	 * @return unmodifiable set of cookies
+	 */
+	public Set<Cookie> getCookies() {
+		return this.fCookies;
+	}
+
+	/**
+	 * @return unmodifiable content of the localStorage
+	 */
+	public Map<String, String> getLocalStorage() {
+		return this.fLocalStorage;
+	}
+
+	/**
+	 * @return unmodifiable content of the sessionStorage
+	 */
+	public Map<String, String> getSessionStorage() {
+		return this.fSessionStorage;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("SessionSnapshot[%s] url=[%s] cookies=%d localStorage=%d sessionStorage=%d",
+				this.fPhaseName, this.fUrl, Integer.valueOf(this.fCookies.size()),
+				Integer.valueOf(this.fLocalStorage.size()), Integer.valueOf(this.fSessionStorage.size()));
+	}
+}
@@ -0,0 +1,238 @@
+package com.whistl.selenium.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import com.whistl.selenium.test.Logger;
+
+/**
+ * Captures and restores the state of a browser session after a named setup phase (e.g. after the browser has been
+ * launched and the cookie policy has been accepted). A restored session continues right after the setup phase, so
+ * long setup sequences need to be executed only once per run.<br>
+ * An enum is used for implementation in order to make it a thread safe and serializable singleton. Usage:
+ * <blockquote>
+ *
+ * <pre>
+ * {@code SessionStateManager.INSTANCE.restoreOrRun("cookiesAccepted", driver, setup);}
+ * </pre>
+ *
+ * </blockquote>
+ */
+public enum SessionStateManager {
+	/** The only instance of the manager. */
+	INSTANCE;
+
+	/**
+	 * JavaScript reading the current URL, localStorage and sessionStorage within one call. Access to the storages may
+	 * be denied (e.g. for {@code data:} URLs); then empty maps are returned.
+	 */
+	private static final String CAPTURE_JS = "function readStorage(name) {" //
+			+ "  var result = {};" //
+			+ "  try {" //
+			+ "    var storage = window[name];" //
+			+ "    for (var i = 0; i < storage.length; i++) {" //
+			+ "      var key = storage.key(i);" //
+			+ "      result[key] = storage.getItem(key);" //
+			+ "    }" //
+			+ "  } catch (ignore) {}" //
+			+ "  return result;" //
+			+ "}" //
+			+ "return {url: window.location.href, local: readStorage('localStorage'),"
+			+ " session: readStorage('sessionStorage')};";
+
+	/**
+	 * JavaScript writing the storages and all cookies accessible via {@code document.cookie} within one call.
+	 * Arguments: localStorage map, sessionStorage map, list of cookie strings.
+	 */
+	private static final String RESTORE_JS = "function writeStorage(name, values) {" //
+			+ "  var storage = window[name];" //
+			+ "  storage.clear();" //
+			+ "  for (var key in values) {" //
+			+ "    if (values.hasOwnProperty(key)) { storage.setItem(key, values[key]); }" //
+			+ "  }" //
+			+ "}" //
+			+ "writeStorage('localStorage', arguments[0]);" //
+			+ "writeStorage('sessionStorage', arguments[1]);" //
+			+ "for (var i = 0; i < arguments[2].length; i++) { document.cookie = arguments[2][i]; }";
+
+	/** Captured snapshots. Key is the phase name. */
+	private final Map<String, SessionSnapshot> snapshots = new ConcurrentHashMap<String, SessionSnapshot>();
+
+	/**
+	 * Capture the state of the session displayed by the driver and store it under the phase name. A previously stored
+	 * snapshot with the same name is replaced.
+	 *
+	 * @param phaseName
+	 *            name of the setup phase just finished
+	 * @param driver
+	 *            WebDriver displaying the page
+	 * @return the captured snapshot
+	 */
+	@SuppressWarnings("unchecked")
+	public SessionSnapshot capture(final String phaseName, final WebDriver driver) {
+		Map<String, Object> state = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_JS);
+		Set<Cookie> cookies = driver.manage().getCookies();
+		SessionSnapshot snapshot = new SessionSnapshot(phaseName, (String) state.get("url"), cookies,
+				toStringMap(state.get("local")), toStringMap(state.get("session")));
+		this.snapshots.put(phaseName, snapshot);
+		Logger.logStepResult("Captured " + snapshot, false);
+		return snapshot;
+	}
+
+	/**
+	 * Restore the session state stored under the phase name into the driver. The driver may be fresh or reused from
+	 * another test. Cookies and storages present in the driver before are replaced.
+	 *
+	 * @param phaseName
+	 *            name of the setup phase to continue after
+	 * @param driver
+	 *            WebDriver to restore the state into
+	 * @return {@code true} if a snapshot was found and restored, {@code false} if nothing has been captured yet
+	 */
+	public boolean restore(final String phaseName, final WebDriver driver) {
+		SessionSnapshot snapshot = this.snapshots.get(phaseName);
+		if (snapshot == null) {
+			return false;
+		}
+		restore(snapshot, driver);
+		return true;
+	}
+
+	/**
+	 * Restore the snapshot into the driver.
+	 *
+	 * @param snapshot
+	 *            state to restore
+	 * @param driver
+	 *            WebDriver to restore the state into
+	 */
+	public void restore(final SessionSnapshot snapshot, final WebDriver driver) {
+		// cookies and storages are bound to the origin, so a page of the origin has to be displayed
+		if (!snapshot.isSameOrigin(driver.getCurrentUrl())) {
+			driver.get(snapshot.getUrl());
+		}
+		driver.manage().deleteAllCookies();
+		// cookies invisible for JavaScript have to be added one by one
+		List<String> scriptCookies = new ArrayList<String>();
+		for (Cookie cookie : snapshot.getCookies()) {
+			if (cookie.isHttpOnly()) {
+				driver.manage().addCookie(cookie);
+			} else {
+				scriptCookies.add(toDocumentCookie(cookie));
+			}
+		}
+		((JavascriptExecutor) driver).executeScript(RESTORE_JS, snapshot.getLocalStorage(),
+				snapshot.getSessionStorage(), scriptCookies);
+		// load the page again, so the application picks up the restored state
+		driver.get(snapshot.getUrl());
+		Logger.logStepResult("Restored " + snapshot, false);
+	}
+
+	/**
+	 * Restore the snapshot of the phase if present. Otherwise run the setup and capture its result under the phase
+	 * name, so the next call can skip the setup.
+	 *
+	 * @param phaseName
+	 *            name of the setup phase
+	 * @param driver
+	 *            WebDriver to restore the state into
+	 * @param setup
+	 *            steps of the setup phase
+	 * @return {@code true} if the state was restored, {@code false} if the setup was executed
+	 */
+	public boolean restoreOrRun(final String phaseName, final WebDriver driver, final Runnable setup) {
+		if (restore(phaseName, driver)) {
+			return true;
+		}
+		setup.run();
+		capture(phaseName, driver);
+		return false;
+	}
+
+	/**
+	 * @param phaseName
+	 *            name of the setup phase
+	 * @return snapshot stored for the phase or {@code null}
+	 */
+	public SessionSnapshot getSnapshot(final String phaseName) {
+		return this.snapshots.get(phaseName);
+	}
+
+	/**
+	 * @return names of all captured phases
+	 */
+	public Set<String> getPhaseNames() {
+		return Collections.unmodifiableSet(new HashSet<String>(this.snapshots.keySet()));
+	}
+
+	/**
+	 * Forget the snapshot of a phase, e.g. if the application state it depends on has changed.
+	 *
+	 * @param phaseName
+	 *            name of the setup phase
+	 */
+	public void invalidate(final String phaseName) {
+		this.snapshots.remove(phaseName);
+	}
+
+	/**
+	 * Forget all snapshots.
+	 */
+	public void reset() {
+		this.snapshots.clear();
+	}
+
+	/**
+	 * Convert a map returned by JavaScript to a map of strings.
+	 *
+	 * @param scriptResult
+	 *            result as returned by the driver
+	 * @return map of strings, empty if the parameter is not a map
+	 */
+	private static Map<String, String> toStringMap(final Object scriptResult) {
+		Map<String, String> result = new LinkedHashMap<String, String>();
+		if (scriptResult instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) scriptResult).entrySet()) {
+				result.put(String.valueOf(entry.getKey()),
+						entry.getValue() == null ? null : String.valueOf(entry.getValue()));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Create the assignment for {@code document.cookie} representing the cookie. A host-only cookie, whose domain
+	 * doesn't start with {@code .}, is assigned without {@code domain}, so it isn't sent to subdomains. The
+	 * {@code SameSite} attribute can't be restored, since {@link Cookie} of Selenium 3 doesn't capture it.
+	 *
+	 * @param cookie
+	 *            cookie to convert
+	 * @return cookie string
+	 */
+	private static String toDocumentCookie(final Cookie cookie) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(cookie.getName()).append('=').append(cookie.getValue());
+		sb.append("; path=").append(cookie.getPath() == null ? "/" : cookie.getPath());
+		if (cookie.getDomain() != null && cookie.getDomain().startsWith(".")) {
+			sb.append("; domain=").append(cookie.getDomain());
+		}
+		if (cookie.getExpiry() != null) {
+			long maxAge = (cookie.getExpiry().getTime() - System.currentTimeMillis()) / 1000;
+			sb.append("; max-age=").append(Math.max(maxAge, 0));
+		}
+		if (cookie.isSecure()) {
+			sb.append("; secure");
+		}
+		return sb.toString();
+	}
+}
@@ -1,41 +1,52 @@
 package com.whistl.selenium.util;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.regex.Matcher;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 public class StringUtils {
 
+	/** Separator of the words compared by {@link #hasCommonWords(String, String)}. */
+	private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+	/** Message of the exception thrown when there are no (more) digits, as thrown by {@code Matcher#group()}. */
+	private static final String NO_MATCH_MESSAGE = "No match found";
+	/** Number of digits, which always fit into an int. */
+	private static final int MAX_SAFE_INT_DIGITS = 9;
+	/** Number of digits, which always fit into a long. */
+	private static final int MAX_SAFE_LONG_DIGITS = 18;
+	/** Number of digits, which are represented exactly by a double. */
+	private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+	/** Powers of ten represented exactly by a double. */
+	private static final double[] EXACT_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
 	/**
 	 * /item/view/10024209 Finds the item id from the url.
-	 * 
+	 *
 	 * @param url
 	 *            where item id has to be found
 	 * @return item id.
 	 */
 	public static Integer getItemIdFromUrl(String url) {
-		Matcher matcher = Pattern.compile("(\\d){2,11}").matcher(url);
-		matcher.find();
-		return Integer.valueOf(matcher.group());
+		long digits = findDigits(url, 0, 2, 11);
+		return Integer.valueOf(parseInt(url, getStart(digits), getEnd(digits)));
 	}
 
 	/**
 	 * Find the no of the item in the url.
-	 * 
+	 *
 	 * @param url
 	 *            where no of item is present.
 	 * @return total of item present in page.
 	 */
 	public static Integer getItemCount(String url) {
-		Matcher matcher = Pattern.compile("(\\d){1,2}").matcher(url);
-		matcher.find();
-		return Integer.valueOf(matcher.group());
+		long digits = findDigits(url, 0, 1, 2);
+		return Integer.valueOf(parseInt(url, getStart(digits), getEnd(digits)));
 	}
 
 	/**
 	 * Finds the Nth occurrences of the digits in the string.
-	 * 
+	 *
 	 * @param text
 	 *            where nth occurrences of digits has to be found.
 	 * @param n
@@ -45,20 +56,21 @@ public class StringUtils {
 	public static long getNthDigitsFromString(String text, int n) {
 		long results = 0;
 		if (!checkIfOnlyNumbers(text)) {
-			Matcher matcher = Pattern.compile("(\\d+)").matcher(text);
+			int from = 0;
 			for (int i = 1; i <= n; i++) {
-				matcher.find();
-				results = Integer.valueOf(matcher.group());
+				long digits = findDigits(text, from, 1, Integer.MAX_VALUE);
+				from = getEnd(digits);
+				results = parseInt(text, getStart(digits), from);
 			}
 		} else {
-			results = Long.valueOf(text);
+			results = parseLong(text, 0, text.length());
 		}
 		return results;
 	}
 
 	/**
 	 * Finds the Nth occurrences of the digits in the string.
-	 * 
+	 *
 	 * @param text
 	 *            where nth occurrences of digits has to be found.
 	 * @param n
@@ -67,49 +79,209 @@ public class StringUtils {
 	 */
 	public static double getNthDoubleDigitsFromString(String text, int n) {
 		double results = 0;
-		// String regex ="\\d+\\.\\d+";
-		String numberRegex = "[\\d]+(?:[\\.]{1}[\\d]+)?";
-		Matcher matcher = Pattern.compile(numberRegex).matcher(text);
+		int from = 0;
 		for (int i = 1; i <= n; i++) {
-			matcher.find();
-			results = Double.valueOf(matcher.group());
+			long digits = findDigits(text, from, 1, Integer.MAX_VALUE);
+			int start = getStart(digits);
+			int end = getEnd(digits);
+			int fractionEnd = end;
+			// optional fraction: a dot followed by at least one digit
+			if (end + 1 < text.length() && text.charAt(end) == '.' && isDigit(text.charAt(end + 1))) {
+				fractionEnd = end + 2;
+				while (fractionEnd < text.length() && isDigit(text.charAt(fractionEnd))) {
+					fractionEnd++;
+				}
+			}
+			results = parseDouble(text, start, end, fractionEnd);
+			from = fractionEnd;
 		}
 		return results;
 	}
 
+	/**
+	 * Do the texts share a word? Words are separated by whitespace and compared as a whole.
+	 *
+	 * @param s1
+	 *            first text
+	 * @param s2
+	 *            second text
+	 * @return {@code true} if at least one word occurs in both texts
+	 */
 	public static Boolean hasCommonWords(String s1, String s2) {
-		List<String> s1List = Arrays.asList(s1.split("\\s+"));
-		List<String> s2List = Arrays.asList(s2.split("\\s+"));
-
-		for (String s : s1List)
-			if (s2.contains(s))
-				return true;
-		for (String s : s2List)
-			if (s1.contains(s))
-				return true;
-		return false;
+		String[] words1 = WHITESPACE_PATTERN.split(s1);
+		String[] words2 = WHITESPACE_PATTERN.split(s2);
+		// hash the shorter list, look up the longer one
+		String[] hashed = words1.length <= words2.length ? words1 : words2;
+		String[] searched = hashed == words1 ? words2 : words1;
+
+		Set<String> words = new HashSet<String>(hashed.length * 4 / 3 + 1);
+		for (String word : hashed) {
+			if (word.length() > 0) {
+				words.add(word);
+			}
+		}
+		for (String word : searched) {
+			if (words.contains(word)) {
+				return Boolean.TRUE;
+			}
+		}
+		return Boolean.FALSE;
 	}
 
 	public static boolean checkIfOnlyNumbers(String text) {
-		String regex = "\\d+";
-		if (text.matches(regex) && text.length() > 2) {
-			return true;
+		if (text.length() <= 2) {
+			return false;
 		}
-		return false;
+		for (int i = 0; i < text.length(); i++) {
+			if (!isDigit(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	public static String getFirstStringFromWords(String text) {
-		String returnString = "";
-		for (int i = 0; i < text.length(); i++) {
-			if (!Character.isDigit(text.charAt(i))) {
-				returnString = returnString + text.charAt(i);
-			} else if (text.charAt(i) == '0') {
-				returnString = returnString + text.charAt(i);
-			} else {
-				break;
+		int end = 0;
+		while (end < text.length() && (!Character.isDigit(text.charAt(end)) || text.charAt(end) == '0')) {
+			end++;
+		}
+		return text.substring(0, end);
+	}
+
+	/**
+	 * Find the next digits like {@code Matcher#find()} for {@code \d{minLength,maxLength}} would.
+	 *
+	 * @param text
+	 *            text to search
+	 * @param from
+	 *            index to start searching at
+	 * @param minLength
+	 *            minimal number of digits
+	 * @param maxLength
+	 *            maximal number of digits
+	 * @return start and end index of the digits packed into a long
+	 * @throws IllegalStateException
+	 *             if there are no such digits, like {@code Matcher#group()} after a failed search
+	 */
+	private static long findDigits(CharSequence text, int from, int minLength, int maxLength) {
+		int length = text.length();
+		int i = from;
+		while (i < length) {
+			if (!isDigit(text.charAt(i))) {
+				i++;
+				continue;
+			}
+			int start = i;
+			while (i < length && isDigit(text.charAt(i))) {
+				i++;
+			}
+			if (i - start >= minLength) {
+				int end = i - start > maxLength ? start + maxLength : i;
+				return ((long) start << 32) | end;
 			}
+		}
+		throw new IllegalStateException(NO_MATCH_MESSAGE);
+	}
+
+	/**
+	 * @param digits
+	 *            result of {@link #findDigits(CharSequence, int, int, int)}
+	 * @return start index of the digits
+	 */
+	private static int getStart(long digits) {
+		return (int) (digits >>> 32);
+	}
 
+	/**
+	 * @param digits
+	 *            result of {@link #findDigits(CharSequence, int, int, int)}
+	 * @return end index (exclusive) of the digits
+	 */
+	private static int getEnd(long digits) {
+		return (int) digits;
+	}
+
+	/**
+	 * Parse ASCII digits without creating a substring. Longer numbers fall back to {@link Integer#parseInt(String)},
+	 * so an overflow still throws a {@link NumberFormatException}.
+	 *
+	 * @param text
+	 *            text holding the digits
+	 * @param start
+	 *            index of the first digit
+	 * @param end
+	 *            index after the last digit
+	 * @return the number
+	 */
+	private static int parseInt(CharSequence text, int start, int end) {
+		if (end - start > MAX_SAFE_INT_DIGITS) {
+			return Integer.parseInt(text.subSequence(start, end).toString());
+		}
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			value = value * 10 + (text.charAt(i) - '0');
+		}
+		return value;
+	}
+
+	/**
+	 * Parse ASCII digits without creating a substring. Longer numbers fall back to {@link Long#parseLong(String)}, so
+	 * an overflow still throws a {@link NumberFormatException}.
+	 *
+	 * @param text
+	 *            text holding the digits
+	 * @param start
+	 *            index of the first digit
+	 * @param end
+	 *            index after the last digit
+	 * @return the number
+	 */
+	private static long parseLong(CharSequence text, int start, int end) {
+		if (end - start > MAX_SAFE_LONG_DIGITS) {
+			return Long.parseLong(text.subSequence(start, end).toString());
 		}
-		return returnString;
+		long value = 0;
+		for (int i = start; i < end; i++) {
+			value = value * 10 + (text.charAt(i) - '0');
+		}
+		return value;
+	}
+
+	/**
+	 * Parse a decimal number without creating a substring. If the digits and the power of ten are exact doubles, the
+	 * division is rounded correctly and gives the same result as {@link Double#parseDouble(String)}; otherwise that
+	 * method is used.
+	 *
+	 * @param text
+	 *            text holding the number
+	 * @param start
+	 *            index of the first digit
+	 * @param integerEnd
+	 *            index after the integer digits
+	 * @param end
+	 *            index after the fraction digits; equal to {@code integerEnd} if there is no fraction
+	 * @return the number
+	 */
+	private static double parseDouble(CharSequence text, int start, int integerEnd, int end) {
+		int fractionDigits = end > integerEnd ? end - integerEnd - 1 : 0;
+		if (integerEnd - start + fractionDigits > MAX_EXACT_DOUBLE_DIGITS) {
+			return Double.parseDouble(text.subSequence(start, end).toString());
+		}
+		long mantissa = 0;
+		for (int i = start; i < end; i++) {
+			if (i != integerEnd) {
+				mantissa = mantissa * 10 + (text.charAt(i) - '0');
+			}
+		}
+		return mantissa / EXACT_POWERS_OF_TEN[fractionDigits];
+	}
+
+	/**
+	 * @param c
+	 *            character to check
+	 * @return {@code true} for ASCII digits, like {@code \d}
+	 */
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
 	}
 }
@@ -1,19 +1,63 @@
 package com.whistl.selenium.util;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.whistl.selenium.test.Logger;
 
 /**
- * Class for time manipulations.
+ * Class for time manipulations.<br>
+ * Dates are parsed using {@link DateTimeFormatter}s, which are immutable and thread safe, so every pattern is compiled
+ * only once.
  */
 public final class TimeUtils {
 	/** How many milliseconds are in one second? */
 	private static final Long MILLISECONDS_IN_SECOND = Long.valueOf(1000);
 
+	/** Japanese date, e.g. 2020年1月5日 or 2020年01月05日. */
+	public static final String JAPANESE_DATE_PATTERN = "yyyy年M月d日";
+	/** Compact date, e.g. 20200105. */
+	public static final String BASIC_DATE_PATTERN = "yyyyMMdd";
+	/** ISO date, e.g. 2020-01-05. */
+	public static final String ISO_DATE_PATTERN = "yyyy-MM-dd";
+	/** Date with slashes, e.g. 2020/01/05. */
+	public static final String SLASHED_DATE_PATTERN = "yyyy/MM/dd";
+	/** European date, e.g. 05.01.2020. */
+	public static final String DOTTED_DATE_PATTERN = "dd.MM.yyyy";
+	/** US date, e.g. 01/05/2020. */
+	public static final String US_DATE_PATTERN = "MM/dd/yyyy";
+
+	/** Formatters of the patterns above, created once. */
+	private static final Map<String, DateTimeFormatter> KNOWN_FORMATTERS;
+	/** Formatters of other patterns, created on first use. */
+	private static final ConcurrentMap<String, DateTimeFormatter> OTHER_FORMATTERS =
+			new ConcurrentHashMap<String, DateTimeFormatter>();
+	/** Formatter of {@link #JAPANESE_DATE_PATTERN}. */
+	private static final DateTimeFormatter JAPANESE_DATE_FORMATTER;
+
+	static {
+		Map<String, DateTimeFormatter> formatters = new HashMap<String, DateTimeFormatter>();
+		for (String pattern : new String[] { JAPANESE_DATE_PATTERN, BASIC_DATE_PATTERN, ISO_DATE_PATTERN,
+				SLASHED_DATE_PATTERN, DOTTED_DATE_PATTERN, US_DATE_PATTERN }) {
+			formatters.put(pattern, DateTimeFormatter.ofPattern(pattern));
+		}
+		KNOWN_FORMATTERS = Collections.unmodifiableMap(formatters);
+		JAPANESE_DATE_FORMATTER = KNOWN_FORMATTERS.get(JAPANESE_DATE_PATTERN);
+	}
+
 	/**
 	 * Private constructor. Currently not used, since all methods are static.
 	 */
@@ -23,7 +67,7 @@ public final class TimeUtils {
 
 	/**
 	 * Convert milliseconds to seconds.
-	 * 
+	 *
 	 * @param milliseconds
 	 *            time in milliseconds
 	 * @return time in seconds
@@ -34,21 +78,147 @@ public final class TimeUtils {
 
 	/**
 	 * This function expects String in format yyyy年MM月dd日 and returns date in yyyyMMdd
-	 * 
+	 *
 	 * @param date
 	 *            is string which should be in format yyyy年MM月dd日
-	 * @return Date in format yyyyMMdd
+	 * @return Date at midnight of the default time zone or {@code null} if the string can't be parsed
 	 */
 	public static Date readJapaneseDate(String date) {
 		Date itemDate = null;
-		DateFormat inputDateFormat = new SimpleDateFormat("yyyy年MM月dd日");
-		DateFormat outputDateFormat = new SimpleDateFormat("yyyyMMdd");
 		try {
-			itemDate = outputDateFormat.parse(outputDateFormat.format(inputDateFormat.parse(date)));
+			itemDate = toDate(parseJapaneseDate(date));
 			Logger.logStepResult("Item date is " + itemDate, false);
-		} catch (ParseException e) {
-			e.printStackTrace();
+		} catch (DateTimeParseException e) {
+			Logger.logStepResult("Cannot read date [" + date + "]: " + e.getMessage(), false);
 		}
 		return itemDate;
 	}
+
+	/**
+	 * Parse a Japanese date without logging. Month and day may have one or two digits. Text after the date (e.g. a
+	 * time) is ignored, as {@link java.text.SimpleDateFormat} did.
+	 *
+	 * @param date
+	 *            date like 2020年01月05日, possibly followed by other text
+	 * @return the date
+	 * @throws DateTimeParseException
+	 *             if the text is not such a date
+	 */
+	public static LocalDate parseJapaneseDate(final CharSequence date) throws DateTimeParseException {
+		return parseLeadingDate(date, JAPANESE_DATE_FORMATTER);
+	}
+
+	/**
+	 * Parse a date without logging. Text after the date (e.g. a time) is ignored.
+	 *
+	 * @param date
+	 *            date text, possibly followed by other text
+	 * @param pattern
+	 *            pattern of the text, e.g. {@link #ISO_DATE_PATTERN}
+	 * @return the date
+	 * @throws DateTimeParseException
+	 *             if the text doesn't match the pattern
+	 */
+	public static LocalDate parseDate(final CharSequence date, final String pattern) throws DateTimeParseException {
+		return parseLeadingDate(date, getFormatter(pattern));
+	}
+
+	/**
+	 * Parse a column of dates, e.g. read from a table. The pattern is resolved once for all dates. Text after a date
+	 * (e.g. a time) is ignored.
+	 *
+	 * @param dates
+	 *            date texts
+	 * @param pattern
+	 *            pattern of the texts, e.g. {@link #JAPANESE_DATE_PATTERN}
+	 * @return dates in the same order; {@code null} for empty texts and texts not matching the pattern
+	 */
+	public static List<LocalDate> parseDates(final Collection<? extends CharSequence> dates, final String pattern) {
+		DateTimeFormatter formatter = getFormatter(pattern);
+		List<LocalDate> result = new ArrayList<LocalDate>(dates.size());
+		for (CharSequence date : dates) {
+			LocalDate parsed = null;
+			if (date != null && !isBlank(date)) {
+				try {
+					parsed = parseLeadingDate(date, formatter);
+				} catch (DateTimeParseException e) {
+					// reported as null
+				}
+			}
+			result.add(parsed);
+		}
+		return result;
+	}
+
+	/**
+	 * Parse the date at the start of the text. Unlike {@link LocalDate#parse(CharSequence, DateTimeFormatter)} the
+	 * text doesn't have to end with the date, so scraped cells like 2020年1月5日 12:00 can be read.
+	 *
+	 * @param date
+	 *            text starting with a date
+	 * @param formatter
+	 *            formatter of the date
+	 * @return the date
+	 * @throws DateTimeParseException
+	 *             if the text doesn't start with a date matching the formatter
+	 */
+	private static LocalDate parseLeadingDate(final CharSequence date, final DateTimeFormatter formatter)
+			throws DateTimeParseException {
+		try {
+			return LocalDate.from(formatter.parse(date, new ParsePosition(0)));
+		} catch (DateTimeException e) {
+			if (e instanceof DateTimeParseException) {
+				throw (DateTimeParseException) e;
+			}
+			// parsed, but not a complete date
+			throw new DateTimeParseException(e.getMessage(), date, 0, e);
+		}
+	}
+
+	/**
+	 * Get the formatter of a pattern. Formatters are immutable, so they are shared.
+	 *
+	 * @param pattern
+	 *            pattern as used by {@link DateTimeFormatter#ofPattern(String)}
+	 * @return formatter of the pattern
+	 */
+	public static DateTimeFormatter getFormatter(final String pattern) {
+		DateTimeFormatter formatter = KNOWN_FORMATTERS.get(pattern);
+		if (formatter == null) {
+			formatter = OTHER_FORMATTERS.get(pattern);
+			if (formatter == null) {
+				formatter = DateTimeFormatter.ofPattern(pattern);
+				DateTimeFormatter existing = OTHER_FORMATTERS.putIfAbsent(pattern, formatter);
+				if (existing != null) {
+					formatter = existing;
+				}
+			}
+		}
+		return formatter;
+	}
+
+	/**
+	 * Convert a date to a {@link Date} at midnight of the default time zone.
+	 *
+	 * @param date
+	 *            date to convert
+	 * @return converted date
+	 */
+	public static Date toDate(final LocalDate date) {
+		return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+
+	/**
+	 * @param text
+	 *            text to check
+	 * @return {@code true} if the text contains only whitespace
+	 */
+	private static boolean isBlank(final CharSequence text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (!Character.isWhitespace(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
 }
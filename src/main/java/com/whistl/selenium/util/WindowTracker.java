@@ -0,0 +1,213 @@
+package com.whistl.selenium.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import com.whistl.selenium.pages.AbstractPage;
+import com.whistl.selenium.test.Logger;
+
+/**
+ * Keeps track of the windows of a driver and the pages displayed in them. The handles are recorded once before an
+ * action opening a window; afterwards every check for the new window is a single {@code getWindowHandles()} call
+ * compared against the record. A window opened by script is known right after the script, so no waiting and no page
+ * source is needed to tell it apart from the others.<br>
+ * Usage:
+ * <blockquote>
+ *
+ * <pre>
+ * WindowTracker tracker = WindowTracker.of(driver);
+ * Set&lt;String&gt; handles = tracker.recordHandles();
+ * link.click();
+ * tracker.switchToNewWindow(handles, AbstractPage.WAIT_TIME_LIMIT);
+ * </pre>
+ *
+ * </blockquote>
+ * The tracker keeps its driver and the registered pages in memory until it is {@link #release(WebDriver) released},
+ * which {@link DriverFactory#releaseDriver(WebDriver)} does when the driver is quit or replaced.
+ */
+public final class WindowTracker {
+
+	/** Tracker per driver. Removed by {@link #release(WebDriver)}. */
+	private static final Map<WebDriver, WindowTracker> TRACKERS = new HashMap<WebDriver, WindowTracker>();
+
+	/** Driver owning the windows. */
+	private final WebDriver fDriver;
+	/** Page displayed per window. Key is the window handle. */
+	private final Map<String, AbstractPage> fPages = new HashMap<String, AbstractPage>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param driver
+	 *            driver owning the windows
+	 */
+	private WindowTracker(final WebDriver driver) {
+		this.fDriver = driver;
+	}
+
+	/**
+	 * Get the window tracker of the driver.
+	 *
+	 * @param driver
+	 *            driver owning the windows
+	 * @return the tracker; created on first use
+	 */
+	public static WindowTracker of(final WebDriver driver) {
+		synchronized (TRACKERS) {
+			WindowTracker tracker = TRACKERS.get(driver);
+			if (tracker == null) {
+				tracker = new WindowTracker(driver);
+				TRACKERS.put(driver, tracker);
+			}
+			return tracker;
+		}
+	}
+
+	/**
+	 * Forget the tracker of the driver and all pages registered with it, so neither is kept in memory. A later
+	 * {@link #of(WebDriver)} creates a new tracker.
+	 *
+	 * @param driver
+	 *            driver quit or no longer used
+	 */
+	public static void release(final WebDriver driver) {
+		WindowTracker tracker;
+		synchronized (TRACKERS) {
+			tracker = TRACKERS.remove(driver);
+		}
+		if (tracker != null) {
+			synchronized (tracker) {
+				tracker.fPages.clear();
+			}
+		}
+	}
+
+	/**
+	 * Record the handles of all open windows. Pages of windows closed meanwhile are forgotten.
+	 *
+	 * @return handles of all open windows
+	 */
+	public synchronized Set<String> recordHandles() {
+		Set<String> handles = new LinkedHashSet<String>(this.fDriver.getWindowHandles());
+		this.fPages.keySet().retainAll(handles);
+		return Collections.unmodifiableSet(handles);
+	}
+
+	/**
+	 * Wait for a window, which is not in the given record.
+	 *
+	 * @param knownHandles
+	 *            handles recorded by {@link #recordHandles()} before the window was opened
+	 * @param timeout
+	 *            how much to wait till give up (in milliseconds)
+	 * @return handle of the new window; it is not switched to
+	 */
+	public String waitForNewWindow(final Set<String> knownHandles, final Long timeout) {
+		return AbstractPage.waitForCondition(new ExpectedCondition<String>() {
+			public String apply(final WebDriver driver) {
+				return findNewHandle(knownHandles);
+			}
+
+			@Override
+			public String toString() {
+				return "Waiting for a new window to open.";
+			}
+		}, timeout, this.fDriver);
+	}
+
+	/**
+	 * Wait for a window, which is not in the given record, and switch to it.
+	 *
+	 * @param knownHandles
+	 *            handles recorded by {@link #recordHandles()} before the window was opened
+	 * @param timeout
+	 *            how much to wait till give up (in milliseconds)
+	 * @return handle of the new window
+	 */
+	public String switchToNewWindow(final Set<String> knownHandles, final Long timeout) {
+		String handle = waitForNewWindow(knownHandles, timeout);
+		Logger.logStepResult("Switching to window handle [" + handle + "]", false);
+		this.fDriver.switchTo().window(handle);
+		return handle;
+	}
+
+	/**
+	 * Open an empty window and switch to it.
+	 *
+	 * @return handle of the new window
+	 */
+	public String openBlankWindow() {
+		Set<String> knownHandles = recordHandles();
+		((JavascriptExecutor) this.fDriver).executeScript("window.open('about:blank');");
+		// the window exists once the script returns
+		String handle = findNewHandle(knownHandles);
+		if (handle == null) {
+			throw new IllegalStateException("No window has been opened. Is a popup blocker active?");
+		}
+		this.fDriver.switchTo().window(handle);
+		return handle;
+	}
+
+	/**
+	 * Close the current window and forget its page.
+	 *
+	 * @return handle of the closed window
+	 */
+	public synchronized String closeCurrentWindow() {
+		String handle = this.fDriver.getWindowHandle();
+		this.fDriver.close();
+		this.fPages.remove(handle);
+		return handle;
+	}
+
+	/**
+	 * Remember the page displayed in its window.
+	 *
+	 * @param page
+	 *            initialised page
+	 */
+	public synchronized void register(final AbstractPage page) {
+		if (page.getWindowHandle() != null) {
+			this.fPages.put(page.getWindowHandle(), page);
+		}
+	}
+
+	/**
+	 * @param handle
+	 *            window handle
+	 * @return page registered last for the window; {@code null} if none
+	 */
+	public synchronized AbstractPage getPage(final String handle) {
+		return this.fPages.get(handle);
+	}
+
+	/**
+	 * @return pages registered for the open windows. Key is the window handle.
+	 */
+	public synchronized Map<String, AbstractPage> getPages() {
+		return Collections.unmodifiableMap(new HashMap<String, AbstractPage>(this.fPages));
+	}
+
+	/**
+	 * Check once for a window, which is not in the given record.
+	 *
+	 * @param knownHandles
+	 *            handles recorded by {@link #recordHandles()} before the window was opened
+	 * @return handle of the new window; {@code null} if there is none
+	 */
+	public String findNewHandle(final Set<String> knownHandles) {
+		for (String handle : this.fDriver.getWindowHandles()) {
+			if (!knownHandles.contains(handle)) {
+				return handle;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,188 @@
+package com.whistl.selenium.util.remote;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the latency of WebDriver commands sent to a remote server, grouped by command name (e.g.
+ * {@code findElement}, {@code clickElement}).<br>
+ * An enum is used for implementation in order to make it a thread safe and serializable singleton.
+ */
+public enum CommandLatencyMetrics {
+	/** The only instance of the metrics. */
+	INSTANCE;
+
+	/** Collected statistics. Key is the command name. */
+	private final Map<String, CommandStatistics> statistics = new ConcurrentHashMap<String, CommandStatistics>();
+
+	/**
+	 * Record the execution of one command.
+	 *
+	 * @param commandName
+	 *            name of the command
+	 * @param durationNanos
+	 *            time between sending the command and receiving the response
+	 * @param failed
+	 *            {@code true} if the command ended with an exception
+	 */
+	public void record(final String commandName, final long durationNanos, final boolean failed) {
+		CommandStatistics stats = this.statistics.get(commandName);
+		if (stats == null) {
+			CommandStatistics newStats = new CommandStatistics(commandName);
+			stats = this.statistics.putIfAbsent(commandName, newStats);
+			if (stats == null) {
+				stats = newStats;
+			}
+		}
+		stats.record(durationNanos, failed);
+	}
+
+	/**
+	 * @return statistics of all recorded commands, the most expensive (total time) first
+	 */
+	public List<CommandStatistics> getStatistics() {
+		List<CommandStatistics> result = new ArrayList<CommandStatistics>(this.statistics.values());
+		Collections.sort(result, new Comparator<CommandStatistics>() {
+			@Override
+			public int compare(final CommandStatistics o1, final CommandStatistics o2) {
+				return Long.compare(o2.getTotalNanos(), o1.getTotalNanos());
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * @return {@code true} if no command has been recorded since the last {@link #reset()}
+	 */
+	public boolean isEmpty() {
+		return this.statistics.isEmpty();
+	}
+
+	/**
+	 * Forget everything recorded so far.
+	 */
+	public void reset() {
+		this.statistics.clear();
+	}
+
+	/**
+	 * Format the statistics as a table with one command per line.
+	 *
+	 * @return report of the recorded commands
+	 */
+	public String getReport() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-32s %8s %8s %10s %10s %10s%n", "command", "count", "failed", "avg[ms]",
+				"max[ms]", "total[ms]"));
+		for (CommandStatistics stats : getStatistics()) {
+			sb.append(stats).append(System.lineSeparator());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Statistics of one command.
+	 */
+	public static final class CommandStatistics {
+		/** Name of the command. */
+		private final String fCommandName;
+		/** Number of executions. */
+		private final AtomicLong count = new AtomicLong();
+		/** Number of failed executions. */
+		private final AtomicLong failedCount = new AtomicLong();
+		/** Total time of all executions. */
+		private final AtomicLong totalNanos = new AtomicLong();
+		/** Longest execution. */
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		/**
+		 * Constructor.
+		 *
+		 * @param commandName
+		 *            name of the command
+		 */
+		CommandStatistics(final String commandName) {
+			this.fCommandName = commandName;
+		}
+
+		/**
+		 * Record one execution.
+		 *
+		 * @param durationNanos
+		 *            duration of the execution
+		 * @param failed
+		 *            {@code true} if the execution failed
+		 */
+		void record(final long durationNanos, final boolean failed) {
+			this.count.incrementAndGet();
+			if (failed) {
+				this.failedCount.incrementAndGet();
+			}
+			this.totalNanos.addAndGet(durationNanos);
+			long max = this.maxNanos.get();
+			while (durationNanos > max && !this.maxNanos.compareAndSet(max, durationNanos)) {
+				max = this.maxNanos.get();
+			}
+		}
+
+		/**
+		 * @return name of the command
+		 */
+		public String getCommandName() {
+			return this.fCommandName;
+		}
+
+		/**
+		 * @return number of executions
+		 */
+		public long getCount() {
+			return this.count.get();
+		}
+
+		/**
+		 * @return number of failed executions
+		 */
+		public long getFailedCount() {
+			return this.failedCount.get();
+		}
+
+		/**
+		 * @return total time of all executions in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return this.totalNanos.get();
+		}
+
+		/**
+		 * @return longest execution in nanoseconds
+		 */
+		public long getMaxNanos() {
+			return this.maxNanos.get();
+		}
+
+		/**
+		 * @return average execution time in milliseconds
+		 */
+		public double getAverageMillis() {
+			long executions = getCount();
+			if (executions == 0) {
+				return 0;
+			}
+			return getTotalNanos() / (double) executions / TimeUnit.MILLISECONDS.toNanos(1);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-32s %8d %8d %10.1f %10d %10d", this.fCommandName, Long.valueOf(getCount()),
+					Long.valueOf(getFailedCount()), Double.valueOf(getAverageMillis()),
+					Long.valueOf(TimeUnit.NANOSECONDS.toMillis(getMaxNanos())),
+					Long.valueOf(TimeUnit.NANOSECONDS.toMillis(getTotalNanos())));
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.whistl.selenium.util.remote;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.http.HttpClient;
+
+/**
+ * {@link HttpCommandExecutor} recording the latency of every command in {@link CommandLatencyMetrics}.
+ */
+public class InstrumentedCommandExecutor extends HttpCommandExecutor {
+
+	/**
+	 * Constructor.
+	 *
+	 * @param addressOfRemoteServer
+	 *            URL of the hub
+	 * @param httpClientFactory
+	 *            factory for the HTTP client talking to the hub
+	 */
+	public InstrumentedCommandExecutor(final URL addressOfRemoteServer,
+			final HttpClient.Factory httpClientFactory) {
+		super(Collections.<String, CommandInfo> emptyMap(), addressOfRemoteServer, httpClientFactory);
+	}
+
+	@Override
+	public Response execute(final Command command) throws IOException {
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			Response response = super.execute(command);
+			failed = false;
+			return response;
+		} finally {
+			CommandLatencyMetrics.INSTANCE.record(command.getName(), System.nanoTime() - start, failed);
+		}
+	}
+}
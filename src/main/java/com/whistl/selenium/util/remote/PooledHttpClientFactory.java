@@ -0,0 +1,147 @@
+package com.whistl.selenium.util.remote;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.internal.OkHttpClient;
+
+import okhttp3.Authenticator;
+import okhttp3.ConnectionPool;
+import okhttp3.Credentials;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * {@link HttpClient.Factory} for the communication with a Selenium Grid server. All clients created by any instance
+ * share one connection pool, so sessions running in parallel reuse keep-alive connections to the hub instead of
+ * opening new ones. The number of requests in flight is bounded by {@link #MAX_CONNECTIONS}.<br>
+ * Timeouts are defined per factory instance.
+ */
+public class PooledHttpClientFactory implements HttpClient.Factory {
+
+	/** Maximal number of requests sent to the hub at the same time (over all sessions). */
+	public static final int MAX_CONNECTIONS = 32;
+	/** Maximal number of idle connections kept open. */
+	public static final int MAX_IDLE_CONNECTIONS = 16;
+	/** How long an idle connection is kept open. 5 minutes. */
+	public static final Long KEEP_ALIVE_TIME = Long.valueOf(300000);
+	/** Default time to establish a connection. 10000 ms. */
+	public static final Long DEFAULT_CONNECT_TIMEOUT = Long.valueOf(10000);
+	/** Default time to wait for the response of a command. 120000 ms. */
+	public static final Long DEFAULT_READ_TIMEOUT = Long.valueOf(120000);
+
+	/** Connection pool shared by all clients. */
+	private static final ConnectionPool CONNECTION_POOL = new ConnectionPool(MAX_IDLE_CONNECTIONS,
+			KEEP_ALIVE_TIME.longValue(), TimeUnit.MILLISECONDS);
+	/** Permits for requests in flight shared by all clients. */
+	private static final Semaphore CONNECTION_PERMITS = new Semaphore(MAX_CONNECTIONS, true);
+
+	/** Time to establish a connection. In milliseconds. */
+	private final Long fConnectTimeout;
+	/** Time to wait for a response. In milliseconds. */
+	private final Long fReadTimeout;
+
+	/**
+	 * Constructor using {@link #DEFAULT_CONNECT_TIMEOUT} and {@link #DEFAULT_READ_TIMEOUT}.
+	 */
+	public PooledHttpClientFactory() {
+		this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param connectTimeout
+	 *            time to establish a connection (in milliseconds)
+	 * @param readTimeout
+	 *            time to wait for the response of a command (in milliseconds)
+	 */
+	public PooledHttpClientFactory(final Long connectTimeout, final Long readTimeout) {
+		this.fConnectTimeout = connectTimeout;
+		this.fReadTimeout = readTimeout;
+	}
+
+	@Override
+	public HttpClient.Builder builder() {
+		return new HttpClient.Builder() {
+			@Override
+			public HttpClient createClient(final URL url) {
+				okhttp3.OkHttpClient.Builder client = new okhttp3.OkHttpClient.Builder()
+						.connectionPool(CONNECTION_POOL)
+						.connectTimeout(this.connectionTimeout.toMillis(), TimeUnit.MILLISECONDS)
+						.readTimeout(this.readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+						.writeTimeout(this.readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+						.retryOnConnectionFailure(true).followRedirects(true);
+				if (this.proxy != null) {
+					client.proxy(this.proxy);
+				}
+				final String userInfo = url.getUserInfo();
+				if (userInfo != null && userInfo.indexOf(':') > 0) {
+					final String credentials = Credentials.basic(userInfo.substring(0, userInfo.indexOf(':')),
+							userInfo.substring(userInfo.indexOf(':') + 1));
+					client.authenticator(new Authenticator() {
+						@Override
+						public Request authenticate(final Route route, final Response response) {
+							return response.request().newBuilder().header("Authorization", credentials).build();
+						}
+					});
+				}
+				return new BoundedHttpClient(new OkHttpClient(client.build(), url));
+			}
+		}.connectionTimeout(Duration.ofMillis(this.fConnectTimeout.longValue()))
+				.readTimeout(Duration.ofMillis(this.fReadTimeout.longValue()));
+	}
+
+	@Override
+	public void cleanupIdleClients() {
+		CONNECTION_POOL.evictAll();
+	}
+
+	/**
+	 * @return number of connections (idle and in use) currently held by the shared pool
+	 */
+	public static int getPooledConnectionCount() {
+		return CONNECTION_POOL.connectionCount();
+	}
+
+	/**
+	 * Client waiting for a free permit before sending a request.
+	 */
+	private static final class BoundedHttpClient implements HttpClient {
+		/** Client doing the work. */
+		private final HttpClient fDelegate;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param delegate
+		 *            client doing the work
+		 */
+		BoundedHttpClient(final HttpClient delegate) {
+			this.fDelegate = delegate;
+		}
+
+		@Override
+		public HttpResponse execute(final HttpRequest request) throws IOException {
+			try {
+				CONNECTION_PERMITS.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new WebDriverException("Interrupted while waiting for a connection to the grid server", e);
+			}
+			try {
+				return this.fDelegate.execute(request);
+			} finally {
+				CONNECTION_PERMITS.release();
+			}
+		}
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * Client side of the communication with a Selenium Grid server: HTTP connection handling and command metrics.
+ */
+package com.whistl.selenium.util.remote;
@@ -0,0 +1,79 @@
+package com.selenium.smartwyre.benchmark;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.whistl.selenium.util.StringUtils;
+
+/**
+ * The regex based implementations {@link StringUtils} had before its scanners. Kept unchanged as the reference for
+ * {@link StringUtilsBenchmark} and the differential test.
+ */
+public final class RegexStringUtils {
+
+	/**
+	 * Utility class.
+	 */
+	private RegexStringUtils() {
+	}
+
+	public static Integer getItemIdFromUrl(String url) {
+		Matcher matcher = Pattern.compile("(\\d){2,11}").matcher(url);
+		matcher.find();
+		return Integer.valueOf(matcher.group());
+	}
+
+	public static Integer getItemCount(String url) {
+		Matcher matcher = Pattern.compile("(\\d){1,2}").matcher(url);
+		matcher.find();
+		return Integer.valueOf(matcher.group());
+	}
+
+	public static long getNthDigitsFromString(String text, int n) {
+		long results = 0;
+		if (!checkIfOnlyNumbers(text)) {
+			Matcher matcher = Pattern.compile("(\\d+)").matcher(text);
+			for (int i = 1; i <= n; i++) {
+				matcher.find();
+				results = Integer.valueOf(matcher.group());
+			}
+		} else {
+			results = Long.valueOf(text);
+		}
+		return results;
+	}
+
+	public static double getNthDoubleDigitsFromString(String text, int n) {
+		double results = 0;
+		String numberRegex = "[\\d]+(?:[\\.]{1}[\\d]+)?";
+		Matcher matcher = Pattern.compile(numberRegex).matcher(text);
+		for (int i = 1; i <= n; i++) {
+			matcher.find();
+			results = Double.valueOf(matcher.group());
+		}
+		return results;
+	}
+
+	public static boolean checkIfOnlyNumbers(String text) {
+		String regex = "\\d+";
+		if (text.matches(regex) && text.length() > 2) {
+			return true;
+		}
+		return false;
+	}
+
+	public static String getFirstStringFromWords(String text) {
+		String returnString = "";
+		for (int i = 0; i < text.length(); i++) {
+			if (!Character.isDigit(text.charAt(i))) {
+				returnString = returnString + text.charAt(i);
+			} else if (text.charAt(i) == '0') {
+				returnString = returnString + text.charAt(i);
+			} else {
+				break;
+			}
+
+		}
+		return returnString;
+	}
+}
@@ -0,0 +1,103 @@
+package com.selenium.smartwyre.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.whistl.selenium.util.StringUtils;
+
+/**
+ * Compares the scanners of {@link StringUtils} with the regex versions of {@link RegexStringUtils} on typical page
+ * texts. Run {@link #main(String[])} with the test classpath, e.g. from the IDE, or {@code org.openjdk.jmh.Main
+ * StringUtilsBenchmark} for the command line options of JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+
+	/** URL of an item page. */
+	private String fUrl = "https://shop.example.com/item/view/10024209?page=3";
+	/** Text with several numbers. */
+	private String fText = "Showing 21 to 40 of 1234 entries, total 5678.90 EUR";
+	/** Text of digits only. */
+	private String fDigits = "20240105";
+	/** Word followed by a number. */
+	private String fWord = "Order0815 placed";
+
+	/**
+	 * Run the benchmarks.
+	 *
+	 * @param args
+	 *            not used
+	 * @throws RunnerException
+	 *             if a benchmark fails
+	 */
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(StringUtilsBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	@Benchmark
+	public Integer getItemIdFromUrlRegex() {
+		return RegexStringUtils.getItemIdFromUrl(this.fUrl);
+	}
+
+	@Benchmark
+	public Integer getItemIdFromUrlScanner() {
+		return StringUtils.getItemIdFromUrl(this.fUrl);
+	}
+
+	@Benchmark
+	public long getNthDigitsFromStringRegex() {
+		return RegexStringUtils.getNthDigitsFromString(this.fText, 3);
+	}
+
+	@Benchmark
+	public long getNthDigitsFromStringScanner() {
+		return StringUtils.getNthDigitsFromString(this.fText, 3);
+	}
+
+	@Benchmark
+	public double getNthDoubleDigitsFromStringRegex() {
+		return RegexStringUtils.getNthDoubleDigitsFromString(this.fText, 4);
+	}
+
+	@Benchmark
+	public double getNthDoubleDigitsFromStringScanner() {
+		return StringUtils.getNthDoubleDigitsFromString(this.fText, 4);
+	}
+
+	@Benchmark
+	public boolean checkIfOnlyNumbersRegex() {
+		return RegexStringUtils.checkIfOnlyNumbers(this.fDigits);
+	}
+
+	@Benchmark
+	public boolean checkIfOnlyNumbersScanner() {
+		return StringUtils.checkIfOnlyNumbers(this.fDigits);
+	}
+
+	@Benchmark
+	public String getFirstStringFromWordsConcat() {
+		return RegexStringUtils.getFirstStringFromWords(this.fWord);
+	}
+
+	@Benchmark
+	public String getFirstStringFromWordsBuilder() {
+		return StringUtils.getFirstStringFromWords(this.fWord);
+	}
+}
@@ -2,19 +2,29 @@ package com.selenium.smartwyre.hooks;
 
 import java.io.File;
 import java.lang.reflect.Method;
-import java.util.Properties;
+import java.util.List;
 import java.util.Set;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
 import org.openqa.selenium.NoSuchWindowException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 
 import com.whistl.selenium.pages.AbstractPage;
+import com.whistl.selenium.test.BrowserProfileEnum;
+import com.whistl.selenium.test.CrossBrowserRunner;
 import com.whistl.selenium.test.Logger;
 import com.whistl.selenium.util.CaptureScreenshots;
-import com.whistl.selenium.util.ConfigReader;
+import com.whistl.selenium.util.Configuration;
+import com.whistl.selenium.util.ConfigurationManager;
+import com.whistl.selenium.util.Deadline;
 import com.whistl.selenium.util.DriverFactory;
+import com.whistl.selenium.util.ElementHighlighter;
+import com.whistl.selenium.util.HighlightModeEnum;
+import com.whistl.selenium.util.LocatorAnalyzer;
+import com.whistl.selenium.util.RetryMetrics;
+import com.whistl.selenium.util.SessionStateManager;
 
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
@@ -22,40 +32,88 @@ import io.cucumber.java.Before;
 public class TestHooks {
 	
 	//private WebDriver driver;
-	private ConfigReader configReader;
-	private Properties prop;
+	/** Configuration of the running scenario. */
+	private Configuration fConfiguration;
+	/** Time a scenario may take unless configured otherwise. 5 minutes. */
+	private static final int DEFAULT_SCENARIO_TIMEOUT_MILLIS = 300000;
+	/** Time budget of the running scenario. All waits end with it at the latest. */
+	private Deadline fScenarioDeadline;
 	/** Screenshot store folder. */
 	private String fScreenshotStoreFolder;
 	private final static By I_AGREE_COOKIED_FINDER = By.xpath(".//*[text()='I agree']");
+	/** Setup phase finished after the browser has been launched and the cookie policy accepted. */
+	public final static String COOKIES_ACCEPTED_PHASE = "cookiesAccepted";
 	
 	@Before(order = 0)
 	public void getProperty() {
-	  	configReader = new ConfigReader();
-	  	prop = configReader.init_prop();
+	  	// read once per run and cached, so no file access per scenario
+	  	fConfiguration = ConfigurationManager.INSTANCE.getForCurrentTest();
+	  	if (fConfiguration.getBoolean("configReload", false)) {
+	  		ConfigurationManager.INSTANCE.startWatching();
+	  	}
 	  	AbstractPage.setCaptureMode(true);
+	  	ElementHighlighter.INSTANCE.setMode(HighlightModeEnum.getByName(fConfiguration.getString("highlightMode")));
+	  	if (fConfiguration.getBoolean("locatorAnalysis", false)) {
+	  		LocatorAnalyzer.INSTANCE.setEnabled(true);
+	  	}
+	  	// waits of a previous scenario must not limit this one
+	  	Deadline.clear();
+	  	fScenarioDeadline = Deadline.start(fConfiguration.getInt("scenarioTimeout", DEFAULT_SCENARIO_TIMEOUT_MILLIS));
+	}
+
+	/**
+	 * End the time budget of the scenario before the other after hooks run, so closing the browser is not cut short.
+	 */
+	@After(order = 100)
+	public void endScenarioDeadline() {
+		if (fScenarioDeadline != null) {
+			if (fScenarioDeadline.isExpired()) {
+				Logger.logStepResult("Scenario ran out of its time budget.", false);
+			}
+			fScenarioDeadline.end();
+			fScenarioDeadline = null;
+		}
 	}
 	
 	
 	@Before(order = 1, value = "@First")
 	public void launchBrowser() {		
-		String browserName = prop.getProperty("browser");
-		String testTarget = prop.getProperty("testTarget");
+		// a suite run by CrossBrowserRunner defines the browser per test
+		String browserName = fConfiguration.getString(CrossBrowserRunner.PLATFORM_PARAMETER,
+				fConfiguration.getString("browser"));
+		String testTarget = fConfiguration.getString("testTarget");
 		Logger.logStepResult("Browser name is "+ browserName, false);
 		Logger.logStepResult("testTarget url is "+ testTarget, false);
 
-		new DriverFactory().init_driver(browserName,testTarget);
-		acceptCookiesPolicy();
+		BrowserProfileEnum browserProfile = BrowserProfileEnum.getByName(fConfiguration.getString("browserProfile"));
+		List<String> blockedDomains = fConfiguration.getList("blockedDomains");
+		Logger.logStepResult("Browser profile is "+ browserProfile, false);
+
+		new DriverFactory().init_driver(browserName,testTarget,browserProfile,blockedDomains);
+		Dimension windowSize = CrossBrowserRunner.parseWindowSize(
+				fConfiguration.getString(CrossBrowserRunner.WINDOW_SIZE_PARAMETER));
+		if (windowSize != null) {
+			DriverFactory.getDriver().manage().window().setSize(windowSize);
+		}
+		// the first launch accepts the cookie policy and captures the result, later launches restore it
+		SessionStateManager.INSTANCE.restoreOrRun(COOKIES_ACCEPTED_PHASE, DriverFactory.getDriver(), new Runnable() {
+			@Override
+			public void run() {
+				acceptCookiesPolicy();
+			}
+		});
 	}
 
 	
 	@After(order = 0, value = "@Last")
 		public void quitBrowser() {
 		DriverFactory.getDriver().quit();
+		DriverFactory.releaseDriver(DriverFactory.getDriver());
 	}
 	
 	@After(order = 1, value = "@Last")
 	public void tearDown() {
-		this.fScreenshotStoreFolder = prop.getProperty("screenshot");
+		this.fScreenshotStoreFolder = fConfiguration.getString("screenshot");
 
 		// screenshots functionality must be present even if everything failed
 				initCaptureScreenshot();
@@ -98,8 +156,17 @@ public class TestHooks {
 						Logger.logStepResult("driver.quit was not successfully sent",
 								Boolean.FALSE);
 					}
+					DriverFactory.releaseDriver(DriverFactory.getDriver());
 				}
 				Logger.logStepResult("Session closed.", Boolean.FALSE);
+				if (LocatorAnalyzer.INSTANCE.isEnabled() && !LocatorAnalyzer.INSTANCE.isEmpty()) {
+					Logger.logStepResult("Locators ranked by cost so far:" + System.lineSeparator()
+							+ LocatorAnalyzer.INSTANCE.getReport(), Boolean.FALSE);
+				}
+				if (!RetryMetrics.INSTANCE.isEmpty()) {
+					Logger.logStepResult("Retried actions so far:" + System.lineSeparator()
+							+ RetryMetrics.INSTANCE.getReport(), Boolean.FALSE);
+				}
 	}
 	
 	private void acceptCookiesPolicy() {
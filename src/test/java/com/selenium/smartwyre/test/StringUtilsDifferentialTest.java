@@ -0,0 +1,149 @@
+package com.selenium.smartwyre.test;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.selenium.smartwyre.benchmark.RegexStringUtils;
+import com.whistl.selenium.util.StringUtils;
+
+/**
+ * Checks the scanners of {@link StringUtils} against the regex versions of {@link RegexStringUtils}: on random inputs
+ * both have to return the same results and throw the same exceptions. Needs no browser.
+ */
+public class StringUtilsDifferentialTest {
+
+	/** Number of random inputs. */
+	private static final int INPUT_COUNT = 200000;
+	/** Characters the inputs are made of; digits are most frequent. */
+	private static final String ALPHABET = "0123456789012345678901234567890123456789 ./?=-abcXYZ";
+
+	/**
+	 * Compares all digit helpers on the same random inputs.
+	 */
+	@Test
+	public void scannersMatchRegexVersions() {
+		Random random = new Random(42L);
+		for (int i = 0; i < INPUT_COUNT; i++) {
+			final String text = randomText(random);
+			final int n = 1 + random.nextInt(3);
+			compare("getItemIdFromUrl", text, new Call() {
+				public Object regex() {
+					return RegexStringUtils.getItemIdFromUrl(text);
+				}
+
+				public Object scanner() {
+					return StringUtils.getItemIdFromUrl(text);
+				}
+			});
+			compare("getItemCount", text, new Call() {
+				public Object regex() {
+					return RegexStringUtils.getItemCount(text);
+				}
+
+				public Object scanner() {
+					return StringUtils.getItemCount(text);
+				}
+			});
+			compare("getNthDigitsFromString(" + n + ")", text, new Call() {
+				public Object regex() {
+					return Long.valueOf(RegexStringUtils.getNthDigitsFromString(text, n));
+				}
+
+				public Object scanner() {
+					return Long.valueOf(StringUtils.getNthDigitsFromString(text, n));
+				}
+			});
+			compare("getNthDoubleDigitsFromString(" + n + ")", text, new Call() {
+				public Object regex() {
+					return Double.valueOf(RegexStringUtils.getNthDoubleDigitsFromString(text, n));
+				}
+
+				public Object scanner() {
+					return Double.valueOf(StringUtils.getNthDoubleDigitsFromString(text, n));
+				}
+			});
+			compare("checkIfOnlyNumbers", text, new Call() {
+				public Object regex() {
+					return Boolean.valueOf(RegexStringUtils.checkIfOnlyNumbers(text));
+				}
+
+				public Object scanner() {
+					return Boolean.valueOf(StringUtils.checkIfOnlyNumbers(text));
+				}
+			});
+			compare("getFirstStringFromWords", text, new Call() {
+				public Object regex() {
+					return RegexStringUtils.getFirstStringFromWords(text);
+				}
+
+				public Object scanner() {
+					return StringUtils.getFirstStringFromWords(text);
+				}
+			});
+		}
+	}
+
+	/**
+	 * @param random
+	 *            source of randomness
+	 * @return text of up to 30 characters, sometimes of digits only
+	 */
+	private static String randomText(final Random random) {
+		int length = random.nextInt(31);
+		boolean isDigitsOnly = random.nextInt(5) == 0;
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(isDigitsOnly ? (char) ('0' + random.nextInt(10)) : ALPHABET.charAt(random.nextInt(ALPHABET
+					.length())));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Compare the results or, if thrown, the exceptions of both versions.
+	 *
+	 * @param method
+	 *            compared method, for the failure message
+	 * @param text
+	 *            input, for the failure message
+	 * @param call
+	 *            calls of both versions
+	 */
+	private static void compare(final String method, final String text, final Call call) {
+		String regexOutcome = outcome(call, true);
+		String scannerOutcome = outcome(call, false);
+		Assert.assertEquals(scannerOutcome, regexOutcome, method + " differs for [" + text + "]");
+	}
+
+	/**
+	 * @param call
+	 *            calls of both versions
+	 * @param isRegex
+	 *            call the regex version?
+	 * @return the result or the class and message of the exception thrown
+	 */
+	private static String outcome(final Call call, final boolean isRegex) {
+		try {
+			return String.valueOf(isRegex ? call.regex() : call.scanner());
+		} catch (RuntimeException e) {
+			return e.getClass().getName() + ": " + e.getMessage();
+		}
+	}
+
+	/**
+	 * Calls of the same method in both versions.
+	 */
+	private interface Call {
+		/**
+		 * @return result of the regex version
+		 */
+		Object regex();
+
+		/**
+		 * @return result of the scanner version
+		 */
+		Object scanner();
+	}
+}